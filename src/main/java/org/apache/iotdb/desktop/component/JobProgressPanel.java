@@ -0,0 +1,69 @@
+package org.apache.iotdb.desktop.component;
+
+import org.apache.iotdb.tool.data.JobMetrics;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * Progress bar and throughput line of a running import or export.
+ * <p>
+ * The job threads only update the counters of its {@link JobMetrics}, the panel reads them with a
+ * Swing timer at a fixed rate, so a fast job does not flood the event dispatch thread with updates.
+ */
+public class JobProgressPanel extends JPanel {
+
+    private static final int REFRESH_INTERVAL_MS = 500;
+
+    private final JProgressBar progressBar = new JProgressBar(0, 1000);
+    private final JLabel statusLabel = new JLabel(" ");
+    private final Timer timer = new Timer(REFRESH_INTERVAL_MS, e -> refresh());
+    private JobMetrics metrics;
+
+    public JobProgressPanel() {
+        super(new BorderLayout(8, 0));
+        setBorder(BorderFactory.createEmptyBorder(0, 10, 10, 10));
+        progressBar.setStringPainted(true);
+        progressBar.setPreferredSize(new Dimension(160, progressBar.getPreferredSize().height));
+        add(progressBar, BorderLayout.WEST);
+        add(statusLabel, BorderLayout.CENTER);
+        setVisible(false);
+    }
+
+    /**
+     * Shows the metrics of a new job, to be called on the event dispatch thread.
+     */
+    public void start(JobMetrics metrics) {
+        this.metrics = metrics;
+        progressBar.setValue(0);
+        statusLabel.setText(" ");
+        setVisible(true);
+        timer.start();
+    }
+
+    /**
+     * Stops refreshing after a last update, the final values stay visible.
+     */
+    public void stop() {
+        timer.stop();
+        refresh();
+    }
+
+    private void refresh() {
+        if (metrics == null) {
+            return;
+        }
+        JobMetrics.Snapshot snapshot = metrics.snapshot();
+        double progress = snapshot.getProgress();
+        if (progress < 0) {
+            progressBar.setIndeterminate(timer.isRunning());
+            progressBar.setString(timer.isRunning() ? "" : "-");
+        } else {
+            progressBar.setIndeterminate(false);
+            progressBar.setValue((int) (progress * 1000));
+            progressBar.setString(String.format("%.1f%%", progress * 100));
+        }
+        statusLabel.setText(snapshot.toString());
+        statusLabel.setToolTipText(snapshot.toString());
+    }
+}
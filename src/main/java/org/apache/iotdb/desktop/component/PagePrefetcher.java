@@ -0,0 +1,62 @@
+package org.apache.iotdb.desktop.component;
+
+import org.apache.iotdb.desktop.model.QueryResult;
+
+import javax.swing.*;
+import java.util.concurrent.Callable;
+
+/**
+ * Loads the next page of a data editor in the background while the current page is viewed.
+ * At most one page is buffered, and it is only handed out to a request for the same query.
+ */
+public class PagePrefetcher {
+
+    private String pendingSql;
+    private SwingWorker<QueryResult, Void> pendingWorker;
+
+    public synchronized void prefetch(String sql, Callable<QueryResult> loader) {
+        cancel();
+        pendingSql = sql;
+        pendingWorker = new SwingWorker<>() {
+            @Override
+            protected QueryResult doInBackground() throws Exception {
+                return loader.call();
+            }
+        };
+        pendingWorker.execute();
+    }
+
+    /**
+     * Takes the prefetched page of the query, waits for it if it is still loading.
+     * Returns {@code null} if another query was prefetched or prefetching failed, the caller runs the query itself.
+     */
+    public QueryResult take(String sql) {
+        SwingWorker<QueryResult, Void> worker;
+        synchronized (this) {
+            if (pendingWorker == null || !pendingSql.equals(sql)) {
+                cancel();
+                return null;
+            }
+            worker = pendingWorker;
+            pendingWorker = null;
+            pendingSql = null;
+        }
+        try {
+            QueryResult result = worker.get();
+            return result.hasException() ? null : result;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Drops the buffered page, a page still loading is discarded when it arrives.
+     */
+    public synchronized void cancel() {
+        if (pendingWorker != null) {
+            pendingWorker.cancel(false);
+            pendingWorker = null;
+            pendingSql = null;
+        }
+    }
+}
@@ -9,8 +9,14 @@ import javax.swing.border.EmptyBorder;
 
 public class QueryResultPanel extends JScrollPane {
 
+    /**
+     * Next block is requested when the viewport gets this many rows close to the end of the loaded rows.
+     */
+    private static final int FETCH_AHEAD_ROWS = 50;
+
     private final QueryResultTable dataTable;
     private final QueryResultTableModel dataModel;
+    private boolean fetching = false;
 
     public QueryResultPanel(boolean tableDialect) {
         super();
@@ -18,6 +24,7 @@ public class QueryResultPanel extends JScrollPane {
         this.dataModel = new QueryResultTableModel();
         this.dataTable = new QueryResultTable(dataModel, tableDialect);
         setViewportView(this.dataTable);
+        getVerticalScrollBar().addAdjustmentListener(e -> fetchMoreIfNeeded());
     }
 
     public void setQueryResult(QueryResult result) {
@@ -25,7 +32,43 @@ public class QueryResultPanel extends JScrollPane {
         Utils.autoResizeTableColumns(dataTable, 400);
     }
 
+    private void fetchMoreIfNeeded() {
+        QueryResult result = dataModel.getResult();
+        if (fetching || result == null || !result.hasMore()) {
+            return;
+        }
+        BoundedRangeModel range = getVerticalScrollBar().getModel();
+        if (range.getValue() + range.getExtent() < range.getMaximum() - dataTable.getRowHeight() * FETCH_AHEAD_ROWS) {
+            return;
+        }
+        fetching = true;
+        SwingWorker<QueryResult, Void> worker = new SwingWorker<>() {
+            @Override
+            protected QueryResult doInBackground() throws Exception {
+                return result.fetchNext();
+            }
+
+            @Override
+            protected void done() {
+                fetching = false;
+                try {
+                    QueryResult block = get();
+                    if (dataModel.getResult() == result) {
+                        dataModel.appendRows(block);
+                    }
+                } catch (Exception ex) {
+                    Utils.Message.error(ex.getMessage(), ex);
+                }
+            }
+        };
+        worker.execute();
+    }
+
     public void dispose() {
+        QueryResult result = dataModel.getResult();
+        if (result != null) {
+            result.closeCursor();
+        }
         if (dataTable != null) {
             dataTable.dispose();
         }
@@ -1,9 +1,7 @@
 package org.apache.iotdb.desktop.component;
 
-import cn.hutool.core.date.DateUtil;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import lombok.Getter;
-import org.apache.iotdb.desktop.config.Configuration;
 import org.apache.iotdb.desktop.config.Options;
 import org.apache.iotdb.desktop.event.AppEventListener;
 import org.apache.iotdb.desktop.event.AppEventListenerAdapter;
@@ -178,33 +176,23 @@ public class QueryResultTable extends JXTable {
     }
 
     private List<Map<String, Object>> getSelectedRowDatas() {
-        int[] rows = this.getSelectedRows();
-        List<Map<String, Object>> exportingRows = Arrays.stream(rows)
-            .map(QueryResultTable.this::convertColumnIndexToModel)
-            .mapToObj(i -> tableModel.getResult().getDatas().get(i))
+        return Arrays.stream(this.getSelectedRows())
+            .map(QueryResultTable.this::convertRowIndexToModel)
+            .mapToObj(tableModel::getFormattedRow)
             .toList();
-        exportingRows.forEach(row -> {
-            row.entrySet().forEach((entry) -> {
-                if (entry.getKey().equalsIgnoreCase("Time") && entry.getValue() != null) {
-                    try {
-                        entry.setValue(DateUtil.format(new Date((Long) entry.getValue()), Configuration.instance().options().getTimeFormat()));
-                    } catch (Exception ignored) {
-                    }
-                }
-            });
-        });
-        return exportingRows;
     }
 
     private void copySelectedRows(boolean withTitleRow, String columnSpliter, boolean aroundWithDoubleQuotes) {
-        List<Map<String, Object>> datas = getSelectedRowDatas();
+        int[] rows = Arrays.stream(this.getSelectedRows())
+            .map(QueryResultTable.this::convertRowIndexToModel)
+            .toArray();
         StringBuilder sb = new StringBuilder();
         try {
-            List<String> columnNames = tableModel.getResult().getColumns();
+            int columnCount = tableModel.getResult().getColumns().size();
             // title
             if (withTitleRow) {
                 StringJoiner columnsRow = new StringJoiner(columnSpliter);
-                for (int i = 0; i < columnNames.size(); i++) {
+                for (int i = 0; i < columnCount; i++) {
                     if (aroundWithDoubleQuotes) {
                         columnsRow.add("\"" + tableModel.getResult().getLocaleColumnName(i).replaceAll("\"", "\"\"") + "\"");
                     } else {
@@ -215,16 +203,12 @@ public class QueryResultTable extends JXTable {
             }
             // data
             StringJoiner dataRow;
-            Map<String, Object> rowData;
-            String columnName;
             Object cellValue;
             String stringValue;
-            for (Map<String, Object> data : datas) {
+            for (int row : rows) {
                 dataRow = new StringJoiner(columnSpliter);
-                rowData = data;
-                for (String name : columnNames) {
-                    columnName = name;
-                    cellValue = rowData.get(columnName);
+                for (int column = 0; column < columnCount; column++) {
+                    cellValue = tableModel.getFormattedValue(row, column);
                     stringValue = cellValue == null ? "" : cellValue.toString();
                     if (aroundWithDoubleQuotes) {
                         dataRow.add("\"" + stringValue.replaceAll("\"", "\"\"").replaceAll("\n", "") + "\"");
@@ -9,6 +9,8 @@ import org.apache.tsfile.enums.TSDataType;
 
 import javax.swing.table.AbstractTableModel;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -49,7 +51,7 @@ public class QueryResultTableModel extends AbstractTableModel {
             this.result = result;
             fireTableStructureChanged();
         } else {
-            this.result.getDatas().addAll(result.getDatas());
+            this.result.append(result);
         }
         fireTableDataChanged();
         if (table != null) {
@@ -57,33 +59,40 @@ public class QueryResultTableModel extends AbstractTableModel {
         }
     }
 
+    /**
+     * Appends a block fetched from a streaming result.
+     */
+    public void appendRows(QueryResult block) {
+        if (result != null && block.getRowCount() > 0) {
+            int firstRow = result.getRowCount();
+            result.append(block);
+            fireTableRowsInserted(firstRow, result.getRowCount() - 1);
+        }
+    }
+
     public void setTable(QueryResultTable table) {
         this.table = table;
     }
 
     public int getDataSize() {
         if (result != null) {
-            return result.getDatas().size();
+            return result.getRowCount();
         } else {
             return 0;
         }
     }
 
     public long getTimestamp(int row) {
-        if (result != null && row < result.getDatas().size()) {
-            if (table.isTableDialect()) {
-                return (long) result.getDatas().get(row).getOrDefault("time", -1L);
-            } else {
-                return (long) result.getDatas().get(row).getOrDefault("Time", -1L);
-            }
+        if (result != null && row < result.getRowCount()) {
+            return result.getTimestamp(row);
         } else {
             return -1L;
         }
     }
 
     public void remove(int row) {
-        if (result != null && row < result.getDatas().size()) {
-            result.getDatas().remove(row);
+        if (result != null && row < result.getRowCount()) {
+            result.removeRow(row);
             fireTableRowsDeleted(row, row);
         }
     }
@@ -114,7 +123,7 @@ public class QueryResultTableModel extends AbstractTableModel {
             if (result.hasException()) {
                 return 1;
             } else {
-                return result.getDatas().size();
+                return result.getRowCount();
             }
         } else {
             return 0;
@@ -130,18 +139,7 @@ public class QueryResultTableModel extends AbstractTableModel {
                 if (column == 0) {
                     return table == null ? String.valueOf(row + 1) : String.valueOf(table.convertRowIndexToView(row) + 1);
                 } else {
-                    String colName = result.getColumns().get(column - 1);
-                    Object value = result.getDatas().get(row).get(colName);
-                    if (colName.equalsIgnoreCase("Time") && value != null) {
-                        try {
-                            String timeFormat = Configuration.instance().options().getTimeFormat();
-                            if (!timeFormat.equalsIgnoreCase("timestamp")) {
-                                return DateUtil.format(new Date((Long) value), Configuration.instance().options().getTimeFormat());
-                            }
-                        } catch (Exception ignore) {
-                        }
-                    }
-                    return value;
+                    return getFormattedValue(row, column - 1);
                 }
             }
         } else {
@@ -149,16 +147,46 @@ public class QueryResultTableModel extends AbstractTableModel {
         }
     }
 
+    /**
+     * Value of a result column, the time column is formatted with the configured time format.
+     *
+     * @param resultColumn column index of the result, without the leading row number column
+     */
+    public Object getFormattedValue(int row, int resultColumn) {
+        Object value = result.getValue(row, resultColumn);
+        if (value != null && resultColumn == result.getTimeColumnIndex()) {
+            try {
+                String timeFormat = Configuration.instance().options().getTimeFormat();
+                if (!timeFormat.equalsIgnoreCase("timestamp")) {
+                    return DateUtil.format(new Date((Long) value), timeFormat);
+                }
+            } catch (Exception ignore) {
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Copies a row into a map keyed by column name, with the time column formatted.
+     */
+    public Map<String, Object> getFormattedRow(int row) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        List<String> columnNames = result.getColumns();
+        for (int i = 0; i < columnNames.size(); i++) {
+            data.put(columnNames.get(i), getFormattedValue(row, i));
+        }
+        return data;
+    }
+
     @Override
     public void setValueAt(Object aValue, int row, int column) {
         if (result != null && editable) {
-            Map<String, Object> rowMap = result.getDatas().get(row);
-            String columnName = getColumnName(column);
-            Object oldValue = rowMap.get(columnName);
+            String columnName = result.getColumns().get(column - 1);
+            Object oldValue = result.getValue(row, column - 1);
             if (!ObjectUtil.equal(oldValue, aValue)) {
-                rowMap.put(columnName, aValue);
+                result.setValue(row, column - 1, aValue);
                 fireTableCellUpdated(row, column);
-                table.doDataUpdated((long) rowMap.get("Time"), columnName, getColumnDataType(column), aValue);
+                table.doDataUpdated(result.getTimestamp(row), columnName, getColumnDataType(column), aValue);
             }
         }
     }
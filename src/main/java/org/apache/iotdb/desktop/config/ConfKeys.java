@@ -18,6 +18,7 @@ public final class ConfKeys {
     public static final String EDITOR_SORT_ORDER = "editorSortOrder";
     public static final String EDITOR_PAGE_SIZE = "editorPageSize";
     public static final String EDITOR_ALIGNED = "editorAligned";
+    public static final String EDITOR_PREFETCH = "editorPrefetch";
 
     public static final String TREE_WIDTH = "treeWidth";
     public static final String TEXT_EDITOR_WIDTH = "textEditorWidth";
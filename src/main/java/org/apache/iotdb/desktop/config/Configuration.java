@@ -61,6 +61,7 @@ public final class Configuration implements Serializable {
         options.setEditorSortOrder(getString(ConfKeys.EDITOR_SORT_ORDER, "desc"));
         options.setEditorPageSize(getInt(ConfKeys.EDITOR_PAGE_SIZE, 500));
         options.setEditorAligned(getBoolean(ConfKeys.EDITOR_ALIGNED, true));
+        options.setEditorPrefetch(getBoolean(ConfKeys.EDITOR_PREFETCH, false));
         return options;
     }
 
@@ -83,6 +84,7 @@ public final class Configuration implements Serializable {
         Configuration.instance().setString(ConfKeys.EDITOR_SORT_ORDER, options.getEditorSortOrder());
         Configuration.instance().setInt(ConfKeys.EDITOR_PAGE_SIZE, options.getEditorPageSize());
         Configuration.instance().setBoolean(ConfKeys.EDITOR_ALIGNED, options.isEditorAligned());
+        Configuration.instance().setBoolean(ConfKeys.EDITOR_PREFETCH, options.isEditorPrefetch());
 
         AppEvents.instance().applyEvent(l -> l.optionsChanged(options(), oldOptions));
     }
@@ -120,6 +122,7 @@ public final class Configuration implements Serializable {
         nodePref.putInt("maxRetryCount", props.getMaxRetryCount());
         nodePref.putLong("retryIntervalInMs", props.getRetryIntervalInMs());
         nodePref.put("sqlDialect", props.getSqlDialect());
+        nodePref.putInt("poolSize", props.getPoolSize());
     }
 
     public List<SessionProps> loadSessionProps() {
@@ -162,6 +165,7 @@ public final class Configuration implements Serializable {
                 props.setMaxRetryCount(nodePref.getInt("maxRetryCount", SessionConfig.MAX_RETRY_COUNT));
                 props.setRetryIntervalInMs(nodePref.getLong("retryIntervalInMs", SessionConfig.RETRY_INTERVAL_IN_MS));
                 props.setSqlDialect(nodePref.get("sqlDialect", "tree"));
+                props.setPoolSize(nodePref.getInt("poolSize", SessionProps.DEFAULT_POOL_SIZE));
                 sessions.add(props);
             }
         } catch (Exception e) {
@@ -23,4 +23,5 @@ public class Options {
     private String editorSortOrder;
     private int editorPageSize;
     private boolean editorAligned;
+    private boolean editorPrefetch;
 }
@@ -17,6 +17,8 @@ import java.time.ZoneId;
 @Setter
 public class SessionProps implements Serializable, Cloneable {
 
+    public static final int DEFAULT_POOL_SIZE = 5;
+
     private String id = IdUtil.getSnowflakeNextIdStr();
     private String name;
     private String host = "127.0.0.1";
@@ -37,6 +39,7 @@ public class SessionProps implements Serializable, Cloneable {
     private String trustStorePwd;
     private int maxRetryCount = SessionConfig.MAX_RETRY_COUNT;
     private long retryIntervalInMs = SessionConfig.RETRY_INTERVAL_IN_MS;
+    private int poolSize = DEFAULT_POOL_SIZE;
     // tree | table
     private String sqlDialect = "Tree";
 
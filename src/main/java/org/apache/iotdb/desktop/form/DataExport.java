@@ -7,12 +7,14 @@ import cn.hutool.core.util.StrUtil;
 import com.formdev.flatlaf.FlatClientProperties;
 import com.jgoodies.forms.layout.CellConstraints;
 import com.jgoodies.forms.layout.FormLayout;
-import org.apache.commons.lang3.ObjectUtils;
 import org.apache.iotdb.desktop.IotdbDesktopApp;
+import org.apache.iotdb.desktop.component.JobProgressPanel;
 import org.apache.iotdb.desktop.component.TabPanel;
 import org.apache.iotdb.desktop.component.TextEditor;
 import org.apache.iotdb.desktop.config.ConfKeys;
 import org.apache.iotdb.desktop.config.Configuration;
+import org.apache.iotdb.desktop.model.PooledConnection;
+import org.apache.iotdb.desktop.model.SchemaCache;
 import org.apache.iotdb.desktop.model.Session;
 import org.apache.iotdb.desktop.util.Icons;
 import org.apache.iotdb.desktop.util.LangUtil;
@@ -22,17 +24,16 @@ import org.apache.iotdb.isession.SessionDataSet;
 import org.apache.iotdb.rpc.IoTDBConnectionException;
 import org.apache.iotdb.rpc.RpcUtils;
 import org.apache.iotdb.rpc.StatementExecutionException;
-import org.apache.iotdb.tool.data.CSVPrinterWrapper;
+import org.apache.iotdb.tool.data.CsvExportWriter;
+import org.apache.iotdb.tool.data.ExportFiles;
+import org.apache.iotdb.tool.data.JobMetrics;
 import org.apache.iotdb.tool.data.TextPrinter;
+import org.apache.iotdb.tool.data.TsFileExportWriter;
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.exception.write.WriteProcessException;
-import org.apache.tsfile.file.metadata.enums.CompressionType;
-import org.apache.tsfile.file.metadata.enums.TSEncoding;
-import org.apache.tsfile.fileSystem.FSFactoryProducer;
 import org.apache.tsfile.read.common.Field;
 import org.apache.tsfile.read.common.Path;
 import org.apache.tsfile.read.common.RowRecord;
-import org.apache.tsfile.write.TsFileWriter;
 import org.apache.tsfile.write.record.Tablet;
 import org.apache.tsfile.write.schema.IMeasurementSchema;
 import org.apache.tsfile.write.schema.MeasurementSchema;
@@ -43,16 +44,17 @@ import javax.swing.event.ChangeListener;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
 import java.nio.file.FileSystems;
-import java.nio.file.Files;
 import java.time.Instant;
 import java.time.ZoneId;
-import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -62,7 +64,11 @@ import static javax.swing.SwingWorker.StateValue.STARTED;
 public class DataExport extends TabPanel {
     public static final String TABBED_KEY = "export-data";
     private static final String SYSTEM_DATABASE = "root.__system";
+    private static final int SCHEMA_LOOKUP_THREADS = 4;
     private static final String FILE_SEPARATOR = FileSystems.getDefault().getSeparator();
+    private static final Pattern PLAIN_SELECT = Pattern.compile("(?is)\\s*select\\s+(.+?)\\s+(from\\s.+?)\\s*;?\\s*");
+    private static final Pattern FROM_WHERE = Pattern.compile("(?is)(from\\s.+?)(?:\\s+where\\s+(.+?))?(\\s+align\\s+by\\s+device)?");
+    private static final Pattern NOT_ESTIMATED = Pattern.compile("(?i)\\b(group\\s+by|order\\s+by|limit|offset|slimit|soffset|fill|having|into|last)\\b");
 
     private JPanel rootPanel;
     private JLabel fileFormatLabel;
@@ -86,9 +92,18 @@ public class DataExport extends TabPanel {
     private JRadioButton tsFileRadio;
     private JLabel outputLabel;
     private JLabel timeoutLabel;
+    private JLabel bufferSizeLabel;
+    private JSpinner bufferSizeField;
+    private JCheckBox gzipCheckBox;
+    private JLabel timeSlicesLabel;
+    private JSpinner timeSlicesField;
+    private JLabel tsFileSizeLabel;
+    private JSpinner tsFileSizeField;
+    private JCheckBox splitByPartitionCheckBox;
     private TextPrinter textPrinter;
 
     private final Session session;
+    private PooledConnection connection;
 
     private String dumpType;
     private String dumpPath;
@@ -96,17 +111,29 @@ public class DataExport extends TabPanel {
     private String timeFormat;
     private int linesPerFile;
     private String timestampPrecision;
+    private ZoneId zoneId;
+    private DateTimeFormatter timeFormatter;
     private long timeout;
     private boolean withDataType;
     private boolean isAligned;
+    private int bufferSize;
+    private boolean gzip;
+    private int timeSlices;
+    private long tsFileSize;
+    private boolean splitByPartition;
+    // interval of the time partitions of the server for split TsFiles, 0 for no split
+    private long partitionInterval;
 
     private SwingWorker<Void, Void> dumpWorker;
+    private final JobProgressPanel progressPanel = new JobProgressPanel();
+    private JobMetrics metrics;
 
     public DataExport(Session session) {
         super();
         $$$setupUI$$$();
         setLayout(new BorderLayout());
         add(rootPanel, BorderLayout.CENTER);
+        add(progressPanel, BorderLayout.SOUTH);
         this.session = session;
 
         maxRowsField.setModel(new SpinnerNumberModel(10000, 1000, Integer.MAX_VALUE, 1));
@@ -115,6 +142,16 @@ public class DataExport extends TabPanel {
         timeoutField.setModel(new SpinnerNumberModel(-1, -1, Integer.MAX_VALUE, 1));
         timeoutField.setEditor(new JSpinner.NumberEditor(timeoutField, "####"));
 
+        bufferSizeField.setModel(new SpinnerNumberModel(64, 8, 65536, 8));
+        bufferSizeField.setEditor(new JSpinner.NumberEditor(bufferSizeField, "####"));
+
+        timeSlicesField.setModel(new SpinnerNumberModel(1, 1, 64, 1));
+
+        tsFileSizeField.setModel(new SpinnerNumberModel(0, 0, 1 << 20, 64));
+        tsFileSizeField.setEditor(new JSpinner.NumberEditor(tsFileSizeField, "####"));
+        tsFileSizeField.setEnabled(false);
+        splitByPartitionCheckBox.setEnabled(false);
+
         dumpFilenameField.setText("dump");
 
         ChangeListener dumpTypeChange = (e) -> {
@@ -122,6 +159,10 @@ public class DataExport extends TabPanel {
             timeFormatField.setEnabled(csvRadio.isSelected());
             maxRowsField.setEnabled(csvRadio.isSelected() || sqlRadio.isSelected());
             alignedCheckBox.setEnabled(csvRadio.isSelected() || sqlRadio.isSelected());
+            bufferSizeField.setEnabled(csvRadio.isSelected() || sqlRadio.isSelected());
+            gzipCheckBox.setEnabled(csvRadio.isSelected() || sqlRadio.isSelected());
+            tsFileSizeField.setEnabled(tsFileRadio.isSelected());
+            splitByPartitionCheckBox.setEnabled(tsFileRadio.isSelected());
         };
         csvRadio.addChangeListener(dumpTypeChange);
         sqlRadio.addChangeListener(dumpTypeChange);
@@ -177,6 +218,16 @@ public class DataExport extends TabPanel {
         alignedCheckBox.setText(LangUtil.getString("DumpAligned"));
         timeoutLabel.setText(LangUtil.getString("Timeout"));
         Utils.UI.tooltip(timeoutLabel, LangUtil.getString("TimeoutTip"));
+        bufferSizeLabel.setText(LangUtil.getString("BufferSize"));
+        Utils.UI.tooltip(bufferSizeLabel, LangUtil.getString("BufferSizeTip"));
+        gzipCheckBox.setText(LangUtil.getString("GzipOutput"));
+        gzipCheckBox.setToolTipText(LangUtil.getString("GzipOutputTip"));
+        timeSlicesLabel.setText(LangUtil.getString("TimeSlices"));
+        Utils.UI.tooltip(timeSlicesLabel, LangUtil.getString("TimeSlicesTip"));
+        tsFileSizeLabel.setText(LangUtil.getString("TsFileSize"));
+        Utils.UI.tooltip(tsFileSizeLabel, LangUtil.getString("TsFileSizeTip"));
+        splitByPartitionCheckBox.setText(LangUtil.getString("SplitByTimePartition"));
+        splitByPartitionCheckBox.setToolTipText(LangUtil.getString("SplitByTimePartitionTip"));
         Utils.UI.tooltip(sqlLabel, LangUtil.getString("DumpSQLTip"));
         outputLabel.setText(LangUtil.getString("Output"));
         executeButton.setText(LangUtil.getString("StartExporting"));
@@ -219,9 +270,17 @@ public class DataExport extends TabPanel {
             timeFormat = timeFormatField.getSelectedItem().toString();
             linesPerFile = Integer.parseInt(maxRowsField.getValue().toString());
             timestampPrecision = session.getTimestampPrecision();
+            // resolved once, the times of every row are formatted with them
+            zoneId = ZoneId.of(session.getTimeZone());
+            timeFormatter = timeFormatter(timeFormat, zoneId);
             timeout = Long.parseLong(timeoutField.getValue().toString());
             withDataType = dataTypeInHeaderCheckBox.isSelected();
             isAligned = alignedCheckBox.isSelected();
+            bufferSize = Integer.parseInt(bufferSizeField.getValue().toString()) * 1024;
+            gzip = gzipCheckBox.isSelected();
+            timeSlices = Integer.parseInt(timeSlicesField.getValue().toString());
+            tsFileSize = Long.parseLong(tsFileSizeField.getValue().toString()) << 20;
+            splitByPartition = splitByPartitionCheckBox.isSelected();
         } catch (Exception e) {
             Utils.Message.error(e.getMessage(), e);
             return;
@@ -231,59 +290,37 @@ public class DataExport extends TabPanel {
             Utils.Message.error(LangUtil.getString("DumpSqlIsEmpty"));
             return;
         }
+        metrics = new JobMetrics();
+        JobMetrics jobMetrics = metrics;
         SwingUtilities.invokeLater(() -> {
             outputArea.setText("");
             executeButton.setEnabled(false);
+            progressPanel.start(jobMetrics);
         });
         dumpWorker = new SwingWorker<>() {
             @Override
-            protected Void doInBackground() {
-                List<String> sqls = StrSplitter.splitByRegex(sqlText, ";\\s*\\n", -1, true, true);
-                for (int index = 0; index < sqls.size(); index++) {
-                    final String sql = sqls.get(index);
-                    if ("sql".equals(dumpType) || "ts".equals(dumpType)) {
-                        legalCheck(sql);
-                    }
-                    textPrinter.println("Start export " + dumpType + ": " + sql);
-                    if ("ts".equals(dumpType)) {
-                        writeTsFile(sql, index);
-                    } else {
-                        final String path = dumpPath + dumpFilename + "_" + index;
-                        try {
-                            SessionDataSet sessionDataSet = session.executeQueryStatement(sql, timeout);
-                            List<Object> headers = new ArrayList<>();
-                            List<String> names = sessionDataSet.getColumnNames();
-                            List<String> types = sessionDataSet.getColumnTypes();
-                            if ("sql".equals(dumpType)) {
-                                writeSqlFile(sessionDataSet, path, names, linesPerFile);
-                            } else {
-                                if (withDataType) {
-                                    for (int i = 0; i < names.size(); i++) {
-                                        if (!"Time".equals(names.get(i)) && !"Device".equals(names.get(i))) {
-                                            headers.add(String.format("%s(%s)", names.get(i), types.get(i)));
-                                        } else {
-                                            headers.add(names.get(i));
-                                        }
-                                    }
-                                } else {
-                                    headers.addAll(names);
-                                }
-                                writeCsvFile(sessionDataSet, path, headers, linesPerFile);
-                            }
-                            sessionDataSet.closeOperationHandle();
-                            textPrinter.println("Export completely!");
-                        } catch (StatementExecutionException | IoTDBConnectionException | IOException e) {
-                            textPrinter.println("Cannot dump result because: " + e.getMessage());
-                        }
-                    }
+            protected Void doInBackground() throws Exception {
+                // the export job owns a dedicated connection, so it does not block other tabs of the session
+                try (PooledConnection jobConnection = session.borrowConnection()) {
+                    connection = jobConnection;
+                    dump(sqlText);
+                } finally {
+                    connection = null;
                 }
                 return null;
             }
 
             @Override
             protected void done() {
+                try {
+                    get();
+                } catch (Exception e) {
+                    textPrinter.printException(e);
+                }
+                textPrinter.println("Throughput: " + jobMetrics.snapshot().summary());
                 SwingUtilities.invokeLater(() -> {
                     executeButton.setEnabled(true);
+                    progressPanel.stop();
                 });
                 dumpWorker = null;
             }
@@ -291,188 +328,437 @@ public class DataExport extends TabPanel {
         dumpWorker.execute();
     }
 
-    public void writeCsvFile(SessionDataSet sessionDataSet, String filePath, List<Object> headers, int linesPerFile)
-        throws IOException, IoTDBConnectionException, StatementExecutionException {
-        int fileIndex = 0;
-        boolean hasNext = true;
-        while (hasNext) {
-            int i = 0;
-            final String finalFilePath = filePath + "_" + fileIndex + ".csv";
-            final CSVPrinterWrapper csvPrinterWrapper = new CSVPrinterWrapper(finalFilePath, textPrinter);
-            csvPrinterWrapper.printRecord(headers);
-            while (i++ < linesPerFile) {
-                if (sessionDataSet.hasNext()) {
-                    RowRecord rowRecord = sessionDataSet.next();
-                    if (rowRecord.getTimestamp() != 0) {
-                        csvPrinterWrapper.print(timeTrans(rowRecord.getTimestamp()));
-                    }
-                    rowRecord
-                        .getFields()
-                        .forEach(
-                            field -> {
-                                String fieldStringValue = field.getStringValue();
-                                if (!"null".equals(field.getStringValue())) {
-                                    if ((field.getDataType() == TSDataType.TEXT
-                                        || field.getDataType() == TSDataType.STRING)
-                                        && !fieldStringValue.startsWith("root.")) {
-                                        fieldStringValue = "\"" + fieldStringValue + "\"";
-                                    }
-                                    csvPrinterWrapper.print(fieldStringValue);
-                                } else {
-                                    csvPrinterWrapper.print("");
-                                }
-                            });
-                    csvPrinterWrapper.println();
-                } else {
-                    hasNext = false;
-                    break;
-                }
+    private void dump(String sqlText) {
+        List<String> sqls = StrSplitter.splitByRegex(sqlText, ";\\s*\\n", -1, true, true);
+        estimateRows(sqls);
+        partitionInterval = "ts".equals(dumpType) && splitByPartition ? timePartitionInterval() : 0;
+        for (int index = 0; index < sqls.size(); index++) {
+            final String sql = sqls.get(index);
+            if ("sql".equals(dumpType) || "ts".equals(dumpType)) {
+                legalCheck(sql);
+            }
+            textPrinter.println("Start export " + dumpType + ": " + sql);
+            final String path = dumpPath + dumpFilename + "_" + index;
+            List<String> slices = timeSlices > 1 ? sliceByTime(sql) : List.of();
+            if (slices.size() > 1) {
+                dumpSlices(slices, path);
+            } else {
+                new QueryExport(connection, "").dump(sql, path, ConcurrentHashMap.newKeySet());
             }
-            fileIndex++;
-            csvPrinterWrapper.flush();
-            csvPrinterWrapper.close();
         }
     }
 
-    public void writeSqlFile(SessionDataSet sessionDataSet,
-                             String filePath,
-                             List<String> headers,
-                             int linesPerFile) throws IOException, IoTDBConnectionException, StatementExecutionException {
-        int fileIndex = 0;
-        String deviceName = null;
-        boolean writeNull = false;
-        List<String> seriesList = new ArrayList<>(headers);
-        if (CollectionUtil.isEmpty(headers) || headers.size() <= 1) {
-            writeNull = true;
-        } else {
-            if (headers.contains("Device")) {
-                seriesList.remove("Time");
-                seriesList.remove("Device");
-            } else {
-                Path path = new Path(seriesList.get(1), true);
-                deviceName = path.getDeviceString();
-                seriesList.remove("Time");
-                for (int i = 0; i < seriesList.size(); i++) {
-                    String series = seriesList.get(i);
-                    path = new Path(series, true);
-                    seriesList.set(i, path.getMeasurement());
+    /**
+     * Exports the slices of a statement concurrently into part files numbered in time order. The
+     * connection of the job exports slices too, idle connections of the pool are borrowed for the
+     * others, so a small pool exports fewer slices at a time.
+     */
+    private void dumpSlices(List<String> slices, String path) {
+        String partFormat = "%0" + String.valueOf(slices.size() - 1).length() + "d";
+        Queue<Integer> queue = new ConcurrentLinkedQueue<>();
+        for (int i = 0; i < slices.size(); i++) {
+            queue.add(i);
+        }
+        // the devices loaded for the SQL files of all parts
+        Set<String> loadedDevices = ConcurrentHashMap.newKeySet();
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < slices.size() - 1; i++) {
+            PooledConnection borrowed;
+            try {
+                borrowed = session.tryBorrowConnection();
+            } catch (IoTDBConnectionException e) {
+                break;
+            }
+            if (borrowed == null) {
+                break;
+            }
+            Thread thread = new Thread(() -> {
+                try (borrowed) {
+                    dumpSlices(borrowed, slices, path, partFormat, queue, loadedDevices);
                 }
+            }, "iotdb-export-slice-" + i);
+            thread.setDaemon(true);
+            workers.add(thread);
+            thread.start();
+        }
+        textPrinter.printf("Export %d time slices on %d connections%n", slices.size(), workers.size() + 1);
+        dumpSlices(connection, slices, path, partFormat, queue, loadedDevices);
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                workers.forEach(Thread::interrupt);
+                return;
             }
         }
-        boolean hasNext = true;
-        while (hasNext) {
-            int i = 0;
-            final String finalFilePath = filePath + "_" + fileIndex + ".sql";
-            try (FileWriter writer = new FileWriter(finalFilePath)) {
-                if (writeNull) {
-                    break;
+    }
+
+    private void dumpSlices(PooledConnection connection, List<String> slices, String path, String partFormat,
+                            Queue<Integer> queue, Set<String> loadedDevices) {
+        Integer slice;
+        while (!Thread.currentThread().isInterrupted() && (slice = queue.poll()) != null) {
+            String part = String.format(partFormat, slice);
+            new QueryExport(connection, "Part " + part + ": ").dump(slices.get(slice), path + "_part" + part, loadedDevices);
+        }
+    }
+
+    /**
+     * Splits a plain select of raw data into selects of consecutive time ranges of equal length,
+     * between the first and the last time of the selected series. Rows aligned by device are ordered
+     * by device within each slice.
+     *
+     * @return the selects of the slices in time order, empty if the statement cannot be split
+     */
+    private List<String> sliceByTime(String sql) {
+        Matcher select = PLAIN_SELECT.matcher(sql);
+        if (!select.matches() || select.group(1).contains("(") || NOT_ESTIMATED.matcher(sql).find()) {
+            return List.of();
+        }
+        Matcher from = FROM_WHERE.matcher(select.group(2));
+        if (!from.matches()) {
+            return List.of();
+        }
+        String where = from.group(2) == null ? "" : " where (" + from.group(2) + ")";
+        String alignByDevice = from.group(3) == null ? "" : from.group(3);
+        long minTime = Long.MAX_VALUE;
+        long maxTime = Long.MIN_VALUE;
+        long start = System.nanoTime();
+        try (SessionDataSet dataSet = connection.executeQueryStatement("select min_time(*), max_time(*) " + from.group(1) + where, timeout)) {
+            while (dataSet.hasNext()) {
+                for (Field field : dataSet.next().getFields()) {
+                    if (field.getDataType() != null) {
+                        minTime = Math.min(minTime, field.getLongV());
+                        maxTime = Math.max(maxTime, field.getLongV());
+                    }
                 }
-                while (i++ < linesPerFile) {
-                    if (sessionDataSet.hasNext()) {
-                        RowRecord rowRecord = sessionDataSet.next();
-                        List<Field> fields = rowRecord.getFields();
-                        List<String> headersTemp = new ArrayList<>(seriesList);
-                        List<String> timeseries = new ArrayList<>();
-                        if (headers.contains("Device")) {
-                            deviceName = fields.get(0).toString();
-                            if (deviceName.startsWith(SYSTEM_DATABASE + ".")) {
-                                continue;
-                            }
-                            for (String header : headersTemp) {
-                                timeseries.add(deviceName + "." + header);
+            }
+        } catch (IoTDBConnectionException | StatementExecutionException | RuntimeException e) {
+            textPrinter.println("Cannot find the time range, export without slices because: " + e.getMessage());
+            return List.of();
+        }
+        metrics.recordLatency(System.nanoTime() - start);
+        if (minTime > maxTime) {
+            return List.of();
+        }
+        long span = maxTime - minTime + 1;
+        int count = (int) Math.min(timeSlices, span);
+        String condition = where.isEmpty() ? " where " : where + " and ";
+        List<String> slices = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long lower = minTime + span / count * i + span % count * i / count;
+            long upper = minTime + span / count * (i + 1) + span % count * (i + 1) / count;
+            slices.add(String.format("select %s %s%stime >= %d and time < %d%s",
+                select.group(1), from.group(1), condition, lower, upper, alignByDevice));
+        }
+        return slices;
+    }
+
+    /**
+     * Export of one statement, or of one time slice of it, on a connection of its own.
+     */
+    private class QueryExport {
+
+        private final PooledConnection connection;
+        // prefix of the output lines of a time slice
+        private final String part;
+        // hasNext calls on the result set being exported, every fetchSize-th one fetches rows
+        private long nextCalls;
+
+        QueryExport(PooledConnection connection, String part) {
+            this.connection = connection;
+            this.part = part;
+        }
+
+        /**
+         * @param path          path of the exported files without the file index and suffix
+         * @param loadedDevices devices of the SQL file loaded into the schema cache, shared by the slices
+         */
+        void dump(String sql, String path, Set<String> loadedDevices) {
+            if ("ts".equals(dumpType)) {
+                writeTsFile(sql, path);
+                return;
+            }
+            try {
+                long start = System.nanoTime();
+                SessionDataSet sessionDataSet = connection.executeQueryStatement(sql, timeout);
+                metrics.recordLatency(System.nanoTime() - start);
+                List<Object> headers = new ArrayList<>();
+                List<String> names = sessionDataSet.getColumnNames();
+                List<String> types = sessionDataSet.getColumnTypes();
+                if ("sql".equals(dumpType)) {
+                    writeSqlFile(sessionDataSet, path, names, linesPerFile, loadedDevices);
+                } else {
+                    if (withDataType) {
+                        for (int i = 0; i < names.size(); i++) {
+                            if (!"Time".equals(names.get(i)) && !"Device".equals(names.get(i))) {
+                                headers.add(String.format("%s(%s)", names.get(i), types.get(i)));
+                            } else {
+                                headers.add(names.get(i));
                             }
+                        }
+                    } else {
+                        headers.addAll(names);
+                    }
+                    writeCsvFile(sessionDataSet, path, headers, linesPerFile);
+                }
+                sessionDataSet.closeOperationHandle();
+                textPrinter.println(part + "Export completely!");
+            } catch (StatementExecutionException | IoTDBConnectionException | IOException e) {
+                textPrinter.println(part + "Cannot dump result because: " + e.getMessage());
+            }
+        }
+
+        /**
+         * Writes the rows with typed reads of the data set iterator, numbers go to the file without
+         * becoming strings and text values are quoted unless they are paths.
+         */
+        public void writeCsvFile(SessionDataSet sessionDataSet, String filePath, List<Object> headers, int linesPerFile)
+            throws IOException, IoTDBConnectionException, StatementExecutionException {
+            List<String> names = sessionDataSet.getColumnNames();
+            List<String> typeNames = sessionDataSet.getColumnTypes();
+            // the iterator counts the columns from 1, the time is the first one if the result has it
+            boolean withTime = !names.isEmpty() && "Time".equals(names.get(0));
+            TSDataType[] types = new TSDataType[names.size()];
+            for (int i = 0; i < types.length; i++) {
+                types[i] = TSDataType.valueOf(typeNames.get(i));
+            }
+            SessionDataSet.DataIterator iterator = sessionDataSet.iterator();
+            int fileIndex = 0;
+            boolean hasNext = true;
+            while (hasNext) {
+                int i = 0;
+                final String finalFilePath = filePath + "_" + fileIndex + ".csv" + (gzip ? ExportFiles.GZIP_SUFFIX : "");
+                try (CsvExportWriter writer = new CsvExportWriter(finalFilePath, bufferSize, metrics)) {
+                    writer.printRecord(headers);
+                    while (i++ < linesPerFile) {
+                        if (next(iterator)) {
+                            writeCsvRow(writer, iterator, types, withTime);
                         } else {
-                            if (headers.get(1).startsWith(SYSTEM_DATABASE + ".")) {
-                                continue;
-                            }
-                            timeseries.addAll(headers);
-                            timeseries.remove(0);
+                            hasNext = false;
+                            break;
                         }
-                        String sqlMiddle = null;
-                        if (isAligned) {
-                            sqlMiddle = " ALIGNED VALUES (" + rowRecord.getTimestamp() + ",";
+                    }
+                }
+                fileIndex++;
+            }
+        }
+
+        private void writeCsvRow(CsvExportWriter writer, SessionDataSet.DataIterator iterator, TSDataType[] types, boolean withTime)
+            throws IOException, StatementExecutionException {
+            int points = 0;
+            for (int column = 1; column <= types.length; column++) {
+                if (column == 1 && withTime) {
+                    if (timeFormatter == null) {
+                        writer.print(iterator.getLong(column));
+                    } else {
+                        writer.print(timeTrans(iterator.getLong(column)));
+                    }
+                    continue;
+                }
+                if (iterator.isNull(column)) {
+                    writer.printNull();
+                    continue;
+                }
+                points++;
+                switch (types[column - 1]) {
+                    case BOOLEAN:
+                        writer.print(iterator.getBoolean(column));
+                        break;
+                    case INT32:
+                        writer.print(iterator.getInt(column));
+                        break;
+                    case INT64:
+                    case TIMESTAMP:
+                        writer.print(iterator.getLong(column));
+                        break;
+                    case FLOAT:
+                        writer.print(iterator.getFloat(column));
+                        break;
+                    case DOUBLE:
+                        writer.print(iterator.getDouble(column));
+                        break;
+                    case TEXT:
+                    case STRING:
+                        String value = iterator.getString(column);
+                        if (value.startsWith("root.")) {
+                            writer.print(value);
                         } else {
-                            sqlMiddle = " VALUES (" + rowRecord.getTimestamp() + ",";
+                            writer.printQuoted(value);
                         }
-                        List<String> values = new ArrayList<>();
-                        if (headers.contains("Device")) {
-                            fields.remove(0);
+                        break;
+                    default:
+                        writer.print(iterator.getString(column));
+                }
+            }
+            writer.println();
+            metrics.addRows(1);
+            metrics.addPoints(points);
+        }
+
+        /**
+         * Writes the rows as INSERT statements. The data types of the columns, needed to quote the text
+         * values, are loaded into the schema cache of the session once before the rows: all devices of
+         * the columns together, or each device when it first shows up in a result aligned by device.
+         * Columns without a timeseries are left out, like rows of the system database.
+         */
+        public void writeSqlFile(SessionDataSet sessionDataSet,
+                                 String filePath,
+                                 List<String> headers,
+                                 int linesPerFile,
+                                 Set<String> loadedDevices) throws IOException, IoTDBConnectionException, StatementExecutionException {
+            int fileIndex = 0;
+            String deviceName = null;
+            boolean writeNull = CollectionUtil.isEmpty(headers) || headers.size() <= 1;
+            boolean alignByDevice = headers.contains("Device");
+            List<String> measurements = new ArrayList<>();
+            // device of the timeseries of each column, the device of the row when aligned by device
+            List<String> columnDevices = new ArrayList<>();
+            SchemaCache schemaCache = session.getSchemaCache();
+            if (!writeNull) {
+                if (alignByDevice) {
+                    for (String header : headers) {
+                        if (!"Time".equals(header) && !"Device".equals(header)) {
+                            measurements.add(header);
                         }
-                        for (int index = 0; index < fields.size(); index++) {
-                            try (
-                                SessionDataSet dataSet = session.executeQueryStatement("SHOW TIMESERIES " + timeseries.get(index), timeout)
-                            ) {
-                                RowRecord next = dataSet.next();
-                                if (ObjectUtils.isNotEmpty(next)) {
-                                    List<Field> timeseriesList = next.getFields();
-                                    String value = fields.get(index).toString();
-                                    if (value.equals("null")) {
-                                        headersTemp.remove(seriesList.get(index));
-                                        continue;
-                                    }
-                                    if ("TEXT".equalsIgnoreCase(timeseriesList.get(3).getStringValue())) {
-                                        values.add("\"" + value.replaceAll("\"", "\"\"") + "\"");
-                                    } else {
-                                        values.add(value);
-                                    }
+                    }
+                } else {
+                    deviceName = new Path(headers.get(1), true).getDeviceString();
+                    for (String series : headers.subList(1, headers.size())) {
+                        Path path = new Path(series, true);
+                        measurements.add(path.getMeasurement());
+                        columnDevices.add(path.getDeviceString());
+                    }
+                    loadSchema(schemaCache, columnDevices, loadedDevices);
+                }
+            }
+            String valuesKeyword = isAligned ? " ALIGNED VALUES (" : " VALUES (";
+            StringBuilder statement = new StringBuilder();
+            StringBuilder values = new StringBuilder();
+            boolean hasNext = true;
+            while (hasNext) {
+                int i = 0;
+                final String finalFilePath = filePath + "_" + fileIndex + ".sql" + (gzip ? ExportFiles.GZIP_SUFFIX : "");
+                try (Writer writer = ExportFiles.open(finalFilePath, bufferSize, metrics)) {
+                    if (writeNull) {
+                        break;
+                    }
+                    while (i++ < linesPerFile) {
+                        if (hasNext(sessionDataSet)) {
+                            RowRecord rowRecord = sessionDataSet.next();
+                            metrics.addRows(1);
+                            List<Field> fields = rowRecord.getFields();
+                            int firstField = 0;
+                            if (alignByDevice) {
+                                deviceName = fields.get(0).toString();
+                                if (deviceName.startsWith(SYSTEM_DATABASE + ".")) {
+                                    continue;
+                                }
+                                if (!loadedDevices.contains(deviceName)) {
+                                    loadSchema(schemaCache, List.of(deviceName), loadedDevices);
+                                }
+                                firstField = 1;
+                            } else if (headers.get(1).startsWith(SYSTEM_DATABASE + ".")) {
+                                continue;
+                            }
+                            statement.setLength(0);
+                            values.setLength(0);
+                            int points = 0;
+                            for (int index = 0; index < measurements.size(); index++) {
+                                String value = fields.get(firstField + index).toString();
+                                if (value.equals("null")) {
+                                    continue;
+                                }
+                                Map<String, TSDataType> types = schemaCache.get(alignByDevice ? deviceName : columnDevices.get(index));
+                                TSDataType type = types == null ? null : types.get(measurements.get(index));
+                                if (type == null) {
+                                    continue;
+                                }
+                                statement.append(',').append(measurements.get(index));
+                                values.append(',');
+                                if (type == TSDataType.TEXT || type == TSDataType.STRING) {
+                                    values.append('"').append(value.replace("\"", "\"\"")).append('"');
                                 } else {
-                                    headersTemp.remove(seriesList.get(index));
+                                    values.append(value);
                                 }
+                                points++;
                             }
-
-                        }
-                        if (CollectionUtil.isNotEmpty(headersTemp)) {
-                            writer.write(
-                                "INSERT INTO "
-                                    + deviceName
-                                    + "(TIMESTAMP,"
-                                    + String.join(",", headersTemp)
-                                    + ")"
-                                    + sqlMiddle
-                                    + String.join(",", values)
-                                    + ");\n");
+                            if (points > 0) {
+                                metrics.addPoints(points);
+                                writer.write("INSERT INTO " + deviceName + "(TIMESTAMP" + statement + ")"
+                                    + valuesKeyword + rowRecord.getTimestamp() + values + ");\n");
+                            }
+                        } else {
+                            hasNext = false;
+                            break;
                         }
-
-                    } else {
-                        hasNext = false;
-                        break;
                     }
+                    fileIndex++;
+                    writer.flush();
                 }
-                fileIndex++;
-                writer.flush();
             }
         }
-    }
 
-    private void writeTsFile(String sql, int index) {
-        final String path = dumpPath + dumpFilename + "_" + index + ".tsfile";
-        try (SessionDataSet sessionDataSet = session.executeQueryStatement(sql, timeout)) {
-            long start = System.currentTimeMillis();
-            writeWithTablets(sessionDataSet, path);
-            long end = System.currentTimeMillis();
-            textPrinter.println("Export completely!");
-            textPrinter.println("Cost: " + (end - start) + " ms.");
-        } catch (StatementExecutionException
-                 | IoTDBConnectionException
-                 | IOException
-                 | WriteProcessException e) {
-            textPrinter.println("Cannot dump result because: " + e.getMessage());
+        /**
+         * Loads the types of the devices not loaded by this export yet. Cached devices are loaded again,
+         * timeseries may have been created since they were cached. The slices of a statement share the
+         * loaded devices, a device is only marked loaded when its types are in the cache.
+         */
+        private void loadSchema(SchemaCache schemaCache, Collection<String> devices, Set<String> loadedDevices)
+            throws IoTDBConnectionException, StatementExecutionException {
+            synchronized (loadedDevices) {
+                List<String> missing = new ArrayList<>();
+                for (String device : devices) {
+                    if (!loadedDevices.contains(device)) {
+                        missing.add(device);
+                    }
+                }
+                if (missing.isEmpty()) {
+                    return;
+                }
+                long start = System.nanoTime();
+                schemaCache.reload(connection, missing, SCHEMA_LOOKUP_THREADS);
+                metrics.recordLatency(System.nanoTime() - start);
+                loadedDevices.addAll(missing);
+            }
         }
-    }
 
-    private void writeWithTablets(SessionDataSet sessionDataSet, String filePath)
-        throws IOException,
-        IoTDBConnectionException,
-        StatementExecutionException,
-        WriteProcessException {
-        List<String> columnNames = sessionDataSet.getColumnNames();
-        List<String> columnTypes = sessionDataSet.getColumnTypes();
-        File f = FSFactoryProducer.getFSFactory().getFile(filePath);
-        if (f.exists()) {
-            Files.delete(f.toPath());
+        /**
+         * @param path path of the TsFiles without the suffix
+         */
+        private void writeTsFile(String sql, String path) {
+            long queryStart = System.nanoTime();
+            try (SessionDataSet sessionDataSet = connection.executeQueryStatement(sql, timeout)) {
+                metrics.recordLatency(System.nanoTime() - queryStart);
+                long start = System.currentTimeMillis();
+                List<String> files = writeWithTablets(sessionDataSet, path);
+                long end = System.currentTimeMillis();
+                if (files.size() > 1) {
+                    textPrinter.printf("%s%d files: %s ... %s%n", part, files.size(), files.get(0), files.get(files.size() - 1));
+                }
+                textPrinter.println(part + "Export completely!");
+                textPrinter.println(part + "Cost: " + (end - start) + " ms.");
+            } catch (StatementExecutionException
+                     | IoTDBConnectionException
+                     | IOException
+                     | WriteProcessException e) {
+                textPrinter.println(part + "Cannot dump result because: " + e.getMessage());
+            }
         }
 
-        try (TsFileWriter tsFileWriter = new TsFileWriter(f)) {
+        /**
+         * Fills the tablets of the devices with the rows, the tablets are written by a background
+         * writer that rolls over to a new file at the size limit and at time partition boundaries.
+         *
+         * @return paths of the written files
+         */
+        private List<String> writeWithTablets(SessionDataSet sessionDataSet, String path)
+            throws IOException,
+            IoTDBConnectionException,
+            StatementExecutionException,
+            WriteProcessException {
+            List<String> columnNames = sessionDataSet.getColumnNames();
+            List<String> columnTypes = sessionDataSet.getColumnTypes();
             // device -> column indices in columnNames
             Map<String, List<Integer>> deviceColumnIndices = new HashMap<>();
             Set<String> alignedDevices = new HashSet<>();
@@ -481,135 +767,251 @@ public class DataExport extends TabPanel {
             collectSchemas(
                 columnNames, columnTypes, deviceSchemaMap, alignedDevices, deviceColumnIndices);
 
-            List<Tablet> tabletList = constructTablets(deviceSchemaMap, alignedDevices, tsFileWriter);
+            if (deviceSchemaMap.isEmpty()) {
+                textPrinter.println(part + "!!!Warning:Tablet is empty,no data can be exported.");
+                return List.of();
+            }
 
-            if (tabletList.isEmpty()) {
-                textPrinter.println("!!!Warning:Tablet is empty,no data can be exported.");
-                return;
+            TsFileExportWriter writer = new TsFileExportWriter(
+                path, partitionInterval > 0, tsFileSize, deviceSchemaMap, alignedDevices, metrics);
+            try {
+                writeWithTablets(sessionDataSet, deviceSchemaMap, writer, deviceColumnIndices);
+            } catch (IOException | IoTDBConnectionException | StatementExecutionException | RuntimeException e) {
+                try {
+                    writer.finish();
+                } catch (IOException | WriteProcessException | RuntimeException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw e;
             }
+            return writer.finish();
+        }
 
-            writeWithTablets(sessionDataSet, tabletList, alignedDevices, tsFileWriter, deviceColumnIndices);
+        private void writeWithTablets(
+            SessionDataSet sessionDataSet,
+            Map<String, List<IMeasurementSchema>> deviceSchemaMap,
+            TsFileExportWriter writer,
+            Map<String, List<Integer>> deviceColumnIndices)
+            throws IoTDBConnectionException,
+            StatementExecutionException,
+            IOException {
+            List<Tablet> tabletList = createTablets(deviceSchemaMap);
+            // no time partition has the minimum id, the interval is more than 1
+            long partition = Long.MIN_VALUE;
+            while (hasNext(sessionDataSet)) {
+                RowRecord rowRecord = sessionDataSet.next();
+                List<Field> fields = rowRecord.getFields();
+                long timestamp = rowRecord.getTimestamp();
+                metrics.addRows(1);
 
-            tsFileWriter.flush();
-        }
-    }
+                if (partitionInterval > 0) {
+                    long rowPartition = Math.floorDiv(timestamp, partitionInterval);
+                    if (rowPartition != partition && partition != Long.MIN_VALUE) {
+                        if (tabletList.get(0).getRowSize() != 0) {
+                            writer.write(tabletList);
+                            tabletList = createTablets(deviceSchemaMap);
+                        }
+                        writer.roll();
+                    }
+                    partition = rowPartition;
+                }
 
-    private void writeWithTablets(
-        SessionDataSet sessionDataSet,
-        List<Tablet> tabletList,
-        Set<String> alignedDevices,
-        TsFileWriter tsFileWriter,
-        Map<String, List<Integer>> deviceColumnIndices)
-        throws IoTDBConnectionException,
-        StatementExecutionException,
-        IOException,
-        WriteProcessException {
-        while (sessionDataSet.hasNext()) {
-            RowRecord rowRecord = sessionDataSet.next();
-            List<Field> fields = rowRecord.getFields();
-
-            for (Tablet tablet : tabletList) {
-                String deviceId = tablet.getDeviceId();
-                List<Integer> columnIndices = deviceColumnIndices.get(deviceId);
-                int rowIndex = tablet.getRowSize() + 1;
-                tablet.addTimestamp(rowIndex, rowRecord.getTimestamp());
-                List<IMeasurementSchema> schemas = tablet.getSchemas();
-
-                for (int i = 0, columnIndicesSize = columnIndices.size(); i < columnIndicesSize; i++) {
-                    Integer columnIndex = columnIndices.get(i);
-                    IMeasurementSchema measurementSchema = schemas.get(i);
-                    // -1 for time not in fields
-                    Object value = fields.get(columnIndex - 1).getObjectValue(measurementSchema.getType());
-                    if (value == null) {
-                        tablet.getBitMaps()[i].mark(rowIndex);
+                for (Tablet tablet : tabletList) {
+                    String deviceId = tablet.getDeviceId();
+                    List<Integer> columnIndices = deviceColumnIndices.get(deviceId);
+                    int rowIndex = tablet.getRowSize();
+                    tablet.addTimestamp(rowIndex, timestamp);
+                    tablet.setRowSize(rowIndex + 1);
+                    List<IMeasurementSchema> schemas = tablet.getSchemas();
+
+                    for (int i = 0, columnIndicesSize = columnIndices.size(); i < columnIndicesSize; i++) {
+                        Integer columnIndex = columnIndices.get(i);
+                        IMeasurementSchema measurementSchema = schemas.get(i);
+                        // -1 for time not in fields
+                        Object value = fields.get(columnIndex - 1).getObjectValue(measurementSchema.getType());
+                        if (value == null) {
+                            tablet.getBitMaps()[i].mark(rowIndex);
+                        } else {
+                            metrics.addPoints(1);
+                        }
+                        tablet.addValue(measurementSchema.getMeasurementName(), rowIndex, value);
                     }
-                    tablet.addValue(measurementSchema.getMeasurementName(), rowIndex, value);
                 }
 
-                if (tablet.getRowSize() == tablet.getMaxRowNumber()) {
-                    writeToTsFile(alignedDevices, tsFileWriter, tablet);
-                    tablet.initBitMaps();
-                    tablet.reset();
+                // the tablets of all devices have a row for every record, they are full together
+                if (tabletList.get(0).getRowSize() == tabletList.get(0).getMaxRowNumber()) {
+                    writer.write(tabletList);
+                    tabletList = createTablets(deviceSchemaMap);
                 }
             }
-        }
 
-        for (Tablet tablet : tabletList) {
-            if (tablet.getRowSize() != 0) {
-                writeToTsFile(alignedDevices, tsFileWriter, tablet);
+            if (tabletList.get(0).getRowSize() != 0) {
+                writer.write(tabletList);
             }
         }
-    }
 
-    private void collectSchemas(
-        List<String> columnNames,
-        List<String> columnTypes,
-        Map<String, List<IMeasurementSchema>> deviceSchemaMap,
-        Set<String> alignedDevices,
-        Map<String, List<Integer>> deviceColumnIndices)
-        throws IoTDBConnectionException, StatementExecutionException {
-        for (int i = 0; i < columnNames.size(); i++) {
-            String column = columnNames.get(i);
-            if (!column.startsWith("root.")) {
-                continue;
-            }
-            TSDataType tsDataType = TSDataType.valueOf(columnTypes.get(i));
-            Path path = new Path(column, true);
-            String deviceId = path.getDeviceString();
-            // query whether the device is aligned or not
-            try (SessionDataSet deviceDataSet =
-                     session.executeQueryStatement("show devices " + deviceId, timeout)) {
-                List<Field> deviceList = deviceDataSet.next().getFields();
-                if (deviceList.size() > 1 && "true".equals(deviceList.get(1).getStringValue())) {
+        /**
+         * Schemas of the result columns by device. The encodings, compressions and alignments come from
+         * the schema cache of the session, devices not cached yet are loaded with batched queries in
+         * parallel and stay cached for later exports. Devices of timeseries missing in the cache are
+         * loaded once more, they may have been created since.
+         */
+        private void collectSchemas(
+            List<String> columnNames,
+            List<String> columnTypes,
+            Map<String, List<IMeasurementSchema>> deviceSchemaMap,
+            Set<String> alignedDevices,
+            Map<String, List<Integer>> deviceColumnIndices)
+            throws IoTDBConnectionException, StatementExecutionException {
+            Map<Integer, Path> columnPaths = new LinkedHashMap<>();
+            Set<String> devices = new LinkedHashSet<>();
+            for (int i = 0; i < columnNames.size(); i++) {
+                String column = columnNames.get(i);
+                if (column.startsWith("root.")) {
+                    Path path = new Path(column, true);
+                    columnPaths.put(i, path);
+                    devices.add(path.getDeviceString());
+                }
+            }
+            if (devices.isEmpty()) {
+                return;
+            }
+            SchemaCache schemaCache = session.getSchemaCache();
+            long start = System.nanoTime();
+            schemaCache.loadWithAlignment(connection, devices, SCHEMA_LOOKUP_THREADS);
+            Set<String> stale = new LinkedHashSet<>();
+            columnPaths.values().forEach(path -> {
+                Map<String, IMeasurementSchema> schemas = schemaCache.getSchemas(path.getDeviceString());
+                if (schemas == null || !schemas.containsKey(path.getMeasurement())) {
+                    stale.add(path.getDeviceString());
+                }
+            });
+            if (!stale.isEmpty()) {
+                schemaCache.reload(connection, stale, SCHEMA_LOOKUP_THREADS);
+            }
+            metrics.recordLatency(System.nanoTime() - start);
+
+            for (Map.Entry<Integer, Path> entry : columnPaths.entrySet()) {
+                int i = entry.getKey();
+                Path path = entry.getValue();
+                String deviceId = path.getDeviceString();
+                if (Boolean.TRUE.equals(schemaCache.isAligned(deviceId))) {
                     alignedDevices.add(deviceId);
                 }
+                TSDataType tsDataType = TSDataType.valueOf(columnTypes.get(i));
+                Map<String, IMeasurementSchema> schemas = schemaCache.getSchemas(deviceId);
+                IMeasurementSchema cached = schemas == null ? null : schemas.get(path.getMeasurement());
+                // a new schema for every export, the tablets of the file own their schemas
+                MeasurementSchema measurementSchema = cached == null
+                    ? new MeasurementSchema(path.getMeasurement(), tsDataType)
+                    : new MeasurementSchema(path.getMeasurement(), tsDataType, cached.getEncodingType(), cached.getCompressor());
+
+                deviceSchemaMap.computeIfAbsent(deviceId, key -> new ArrayList<>()).add(measurementSchema);
+                deviceColumnIndices.computeIfAbsent(deviceId, key -> new ArrayList<>()).add(i);
             }
+        }
+
+        /**
+         * New tablets for the next rows, the tablets before them belong to the writer.
+         */
+        private List<Tablet> createTablets(Map<String, List<IMeasurementSchema>> deviceSchemaMap) {
+            List<Tablet> tabletList = new ArrayList<>(deviceSchemaMap.size());
+            for (Map.Entry<String, List<IMeasurementSchema>> entry : deviceSchemaMap.entrySet()) {
+                Tablet tablet = new Tablet(entry.getKey(), entry.getValue());
+                tablet.initBitMaps();
+                tabletList.add(tablet);
+            }
+            return tabletList;
+        }
+
+        /**
+         * {@link SessionDataSet#hasNext()} that records the latency of the calls fetching the next block of rows.
+         */
+        private boolean hasNext(SessionDataSet dataSet) throws IoTDBConnectionException, StatementExecutionException {
+            if (!fetches()) {
+                return dataSet.hasNext();
+            }
+            long start = System.nanoTime();
+            boolean hasNext = dataSet.hasNext();
+            metrics.recordLatency(System.nanoTime() - start);
+            return hasNext;
+        }
 
-            // query timeseries metadata
-            MeasurementSchema measurementSchema =
-                new MeasurementSchema(path.getMeasurement(), tsDataType);
-            List<Field> seriesList =
-                session.executeQueryStatement("show timeseries " + column, timeout).next().getFields();
-            measurementSchema.setEncoding(
-                TSEncoding.valueOf(seriesList.get(4).getStringValue()));
-            measurementSchema.setCompressionType(
-                CompressionType.valueOf(seriesList.get(5).getStringValue()));
+        /**
+         * {@link SessionDataSet.DataIterator#next()} that records the latency of the calls fetching the next block of rows.
+         */
+        private boolean next(SessionDataSet.DataIterator iterator) throws IoTDBConnectionException, StatementExecutionException {
+            if (!fetches()) {
+                return iterator.next();
+            }
+            long start = System.nanoTime();
+            boolean hasNext = iterator.next();
+            metrics.recordLatency(System.nanoTime() - start);
+            return hasNext;
+        }
 
-            deviceSchemaMap.computeIfAbsent(deviceId, key -> new ArrayList<>()).add(measurementSchema);
-            deviceColumnIndices.computeIfAbsent(deviceId, key -> new ArrayList<>()).add(i);
+        /**
+         * Whether the next call for a row fetches a block of rows, the first block comes with the query.
+         */
+        private boolean fetches() {
+            long call = nextCalls++;
+            return call != 0 && call % session.getProps().getFetchSize() == 0;
         }
     }
 
-    private List<Tablet> constructTablets(
-        Map<String, List<IMeasurementSchema>> deviceSchemaMap,
-        Set<String> alignedDevices,
-        TsFileWriter tsFileWriter)
-        throws WriteProcessException {
-        List<Tablet> tabletList = new ArrayList<>(deviceSchemaMap.size());
-        for (Map.Entry<String, List<IMeasurementSchema>> stringListEntry : deviceSchemaMap.entrySet()) {
-            String deviceId = stringListEntry.getKey();
-            List<IMeasurementSchema> schemaList = stringListEntry.getValue();
-            Tablet tablet = new Tablet(deviceId, schemaList);
-            tablet.initBitMaps();
-            Path path = new Path(tablet.getDeviceId());
-            if (alignedDevices.contains(tablet.getDeviceId())) {
-                tsFileWriter.registerAlignedTimeseries(path, schemaList);
-            } else {
-                tsFileWriter.registerTimeseries(path, schemaList);
+    /**
+     * Time partition interval of the server in the precision of its timestamps, the default of 7 days
+     * if the server does not show it.
+     */
+    private long timePartitionInterval() {
+        try (SessionDataSet dataSet = connection.executeQueryStatement("show variables", timeout)) {
+            while (dataSet.hasNext()) {
+                List<Field> fields = dataSet.next().getFields();
+                if (fields.size() > 1 && "TimePartitionInterval".equalsIgnoreCase(fields.get(0).getStringValue())) {
+                    return Long.parseLong(fields.get(1).getStringValue().trim());
+                }
             }
-            tabletList.add(tablet);
+        } catch (IoTDBConnectionException | StatementExecutionException | RuntimeException e) {
+            textPrinter.println("Cannot show the time partition interval, 7 days are used because: " + e.getMessage());
+        }
+        long days = TimeUnit.DAYS.toMillis(7);
+        switch (timestampPrecision) {
+            case "us":
+                return days * 1000;
+            case "ns":
+                return days * 1000_000;
+            default:
+                return days;
         }
-        return tabletList;
     }
 
-    private void writeToTsFile(
-        Set<String> deviceFilterSet, TsFileWriter tsFileWriter, Tablet tablet)
-        throws IOException, WriteProcessException {
-        if (deviceFilterSet.contains(tablet.getDeviceId())) {
-            tsFileWriter.writeTree(tablet);
-        } else {
-            tsFileWriter.writeTable(tablet);
+    /**
+     * Estimates the rows of the export with a count_time(*) over the from clause of each statement, for
+     * the progress and the ETA. Only plain selects of raw data are estimated, the count is exact for
+     * selects of all the series of the from clause and an upper bound otherwise. Without an estimate
+     * for every statement the rows of the export stay unknown.
+     */
+    private void estimateRows(List<String> sqls) {
+        long total = 0;
+        for (String sql : sqls) {
+            Matcher matcher = PLAIN_SELECT.matcher(sql);
+            if (!matcher.matches() || matcher.group(1).contains("(") || NOT_ESTIMATED.matcher(sql).find()) {
+                return;
+            }
+            try (SessionDataSet dataSet = connection.executeQueryStatement("select count_time(*) " + matcher.group(2), timeout)) {
+                // align by device counts the rows of each device
+                while (dataSet.hasNext()) {
+                    List<Field> fields = dataSet.next().getFields();
+                    Field count = fields.get(fields.size() - 1);
+                    if (count.getDataType() != null) {
+                        total += count.getLongV();
+                    }
+                }
+            } catch (IoTDBConnectionException | StatementExecutionException | RuntimeException e) {
+                return;
+            }
         }
+        metrics.addTotalRows(total);
     }
 
     private void legalCheck(String sql) {
@@ -622,18 +1024,29 @@ public class DataExport extends TabPanel {
         }
     }
 
-    public String timeTrans(Long time) {
-        ZoneId zoneId = ZoneId.of(session.getTimeZone());
+    public String timeTrans(long time) {
+        if (timeFormatter == null) {
+            return String.valueOf(time);
+        }
+        if ("default".equals(timeFormat)) {
+            return RpcUtils.parseLongToDateWithPrecision(timeFormatter, time, zoneId, timestampPrecision);
+        }
+        return timeFormatter.format(Instant.ofEpochMilli(time));
+    }
+
+    /**
+     * Formatter of the exported times in the zone of the session, {@code null} for times written as numbers.
+     */
+    private static DateTimeFormatter timeFormatter(String timeFormat, ZoneId zoneId) {
         switch (timeFormat) {
             case "default":
-                return RpcUtils.parseLongToDateWithPrecision(DateTimeFormatter.ISO_OFFSET_DATE_TIME, time, zoneId, timestampPrecision);
+                return DateTimeFormatter.ISO_OFFSET_DATE_TIME;
             case "timestamp":
             case "long":
             case "number":
-                return String.valueOf(time);
+                return null;
             default:
-                return ZonedDateTime.ofInstant(Instant.ofEpochMilli(time), zoneId)
-                    .format(DateTimeFormatter.ofPattern(timeFormat));
+                return DateTimeFormatter.ofPattern(timeFormat).withZone(zoneId);
         }
     }
 
@@ -673,7 +1086,7 @@ public class DataExport extends TabPanel {
      */
     private void $$$setupUI$$$() {
         rootPanel = new JPanel();
-        rootPanel.setLayout(new FormLayout("fill:d:noGrow,left:4dlu:noGrow,fill:p:noGrow,left:4dlu:noGrow,fill:max(p;130px):noGrow,left:4dlu:noGrow,fill:p:noGrow,left:5dlu:noGrow,fill:max(d;4px):grow", "center:d:noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:100px:noGrow,top:4dlu:noGrow,center:max(d;4px):grow,top:4dlu:noGrow,center:max(d;4px):noGrow"));
+        rootPanel.setLayout(new FormLayout("fill:d:noGrow,left:4dlu:noGrow,fill:p:noGrow,left:4dlu:noGrow,fill:max(p;130px):noGrow,left:4dlu:noGrow,fill:p:noGrow,left:5dlu:noGrow,fill:max(d;4px):grow", "center:d:noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:100px:noGrow,top:4dlu:noGrow,center:max(d;4px):grow,top:4dlu:noGrow,center:max(d;4px):noGrow"));
         rootPanel.setBorder(BorderFactory.createTitledBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10), null, TitledBorder.DEFAULT_JUSTIFICATION, TitledBorder.DEFAULT_POSITION, null, null));
         fileFormatLabel = new JLabel();
         fileFormatLabel.setHorizontalAlignment(11);
@@ -689,26 +1102,26 @@ public class DataExport extends TabPanel {
         timeoutLabel = new JLabel();
         timeoutLabel.setHorizontalAlignment(11);
         timeoutLabel.setText("Timeout");
-        rootPanel.add(timeoutLabel, cc.xy(1, 15));
+        rootPanel.add(timeoutLabel, cc.xy(1, 21));
         timeoutField = new JSpinner();
-        rootPanel.add(timeoutField, cc.xy(3, 15, CellConstraints.FILL, CellConstraints.DEFAULT));
+        rootPanel.add(timeoutField, cc.xy(3, 21, CellConstraints.FILL, CellConstraints.DEFAULT));
         sqlLabel = new JLabel();
         sqlLabel.setHorizontalAlignment(11);
         sqlLabel.setText("SQL");
         sqlLabel.setVerticalAlignment(0);
         sqlLabel.setVerticalTextPosition(0);
-        rootPanel.add(sqlLabel, cc.xy(1, 17, CellConstraints.DEFAULT, CellConstraints.TOP));
+        rootPanel.add(sqlLabel, cc.xy(1, 23, CellConstraints.DEFAULT, CellConstraints.TOP));
         outputLabel = new JLabel();
         outputLabel.setHorizontalAlignment(11);
         outputLabel.setText("Output");
-        rootPanel.add(outputLabel, cc.xy(1, 19, CellConstraints.DEFAULT, CellConstraints.TOP));
+        rootPanel.add(outputLabel, cc.xy(1, 25, CellConstraints.DEFAULT, CellConstraints.TOP));
         final JScrollPane scrollPane1 = new JScrollPane();
-        rootPanel.add(scrollPane1, cc.xyw(3, 19, 7, CellConstraints.FILL, CellConstraints.FILL));
+        rootPanel.add(scrollPane1, cc.xyw(3, 25, 7, CellConstraints.FILL, CellConstraints.FILL));
         outputArea = new JTextArea();
         outputArea.setEditable(false);
         scrollPane1.setViewportView(outputArea);
         sqlEditor = new TextEditor();
-        rootPanel.add(sqlEditor, cc.xyw(3, 17, 7, CellConstraints.DEFAULT, CellConstraints.FILL));
+        rootPanel.add(sqlEditor, cc.xyw(3, 23, 7, CellConstraints.DEFAULT, CellConstraints.FILL));
         dumpFilenameLabel = new JLabel();
         dumpFilenameLabel.setHorizontalAlignment(11);
         dumpFilenameLabel.setText("File Name");
@@ -731,7 +1144,7 @@ public class DataExport extends TabPanel {
         panel1.add(tsFileRadio, cc.xy(5, 1));
         executeButton = new JButton();
         executeButton.setText("Execute");
-        rootPanel.add(executeButton, cc.xy(3, 21));
+        rootPanel.add(executeButton, cc.xy(3, 27));
         alignedCheckBox = new JCheckBox();
         alignedCheckBox.setText("Aligned");
         rootPanel.add(alignedCheckBox, cc.xy(3, 11));
@@ -767,6 +1180,30 @@ public class DataExport extends TabPanel {
         rootPanel.add(maxRowsLabel, cc.xy(1, 13));
         maxRowsField = new JSpinner();
         rootPanel.add(maxRowsField, cc.xy(3, 13, CellConstraints.FILL, CellConstraints.DEFAULT));
+        bufferSizeLabel = new JLabel();
+        bufferSizeLabel.setHorizontalAlignment(11);
+        bufferSizeLabel.setText("Buffer Size (KB)");
+        rootPanel.add(bufferSizeLabel, cc.xy(1, 15));
+        bufferSizeField = new JSpinner();
+        rootPanel.add(bufferSizeField, cc.xy(3, 15, CellConstraints.FILL, CellConstraints.DEFAULT));
+        gzipCheckBox = new JCheckBox();
+        gzipCheckBox.setText("Gzip");
+        rootPanel.add(gzipCheckBox, cc.xy(5, 15));
+        timeSlicesLabel = new JLabel();
+        timeSlicesLabel.setHorizontalAlignment(11);
+        timeSlicesLabel.setText("Time Slices");
+        rootPanel.add(timeSlicesLabel, cc.xy(1, 17));
+        timeSlicesField = new JSpinner();
+        rootPanel.add(timeSlicesField, cc.xy(3, 17, CellConstraints.FILL, CellConstraints.DEFAULT));
+        tsFileSizeLabel = new JLabel();
+        tsFileSizeLabel.setHorizontalAlignment(11);
+        tsFileSizeLabel.setText("TsFile Size (MB)");
+        rootPanel.add(tsFileSizeLabel, cc.xy(1, 19));
+        tsFileSizeField = new JSpinner();
+        rootPanel.add(tsFileSizeField, cc.xy(3, 19, CellConstraints.FILL, CellConstraints.DEFAULT));
+        splitByPartitionCheckBox = new JCheckBox();
+        splitByPartitionCheckBox.setText("Split by Time Partition");
+        rootPanel.add(splitByPartitionCheckBox, cc.xy(5, 19));
         ButtonGroup buttonGroup;
         buttonGroup = new ButtonGroup();
         buttonGroup.add(csvRadio);
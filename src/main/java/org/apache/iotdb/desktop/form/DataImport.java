@@ -5,46 +5,63 @@ import cn.hutool.core.util.StrUtil;
 import com.formdev.flatlaf.FlatClientProperties;
 import com.jgoodies.forms.layout.CellConstraints;
 import com.jgoodies.forms.layout.FormLayout;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.utils.PathUtils;
+import org.apache.iotdb.desktop.component.JobProgressPanel;
 import org.apache.iotdb.desktop.component.TabPanel;
 import org.apache.iotdb.desktop.config.ConfKeys;
 import org.apache.iotdb.desktop.config.Configuration;
+import org.apache.iotdb.desktop.model.PooledConnection;
+import org.apache.iotdb.desktop.model.SchemaCache;
 import org.apache.iotdb.desktop.model.Session;
-import org.apache.iotdb.desktop.util.DateTimeUtils;
 import org.apache.iotdb.desktop.util.Icons;
 import org.apache.iotdb.desktop.util.LangUtil;
 import org.apache.iotdb.desktop.util.Utils;
-import org.apache.iotdb.isession.SessionDataSet;
 import org.apache.iotdb.rpc.IoTDBConnectionException;
 import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.tool.data.AdaptiveBatchSize;
+import org.apache.iotdb.tool.data.BackgroundIterator;
 import org.apache.iotdb.tool.data.CSVPrinterWrapper;
+import org.apache.iotdb.tool.data.ColumnTypeInference;
+import org.apache.iotdb.tool.data.CsvRow;
+import org.apache.iotdb.tool.data.CsvRowReader;
+import org.apache.iotdb.tool.data.CsvTokenizer;
+import org.apache.iotdb.tool.data.FailedRecordSpool;
+import org.apache.iotdb.tool.data.ImportCheckpoint;
+import org.apache.iotdb.tool.data.ImportSource;
+import org.apache.iotdb.tool.data.JobMetrics;
+import org.apache.iotdb.tool.data.SourcePosition;
+import org.apache.iotdb.tool.data.SqlInsert;
+import org.apache.iotdb.tool.data.SqlInsertBatch;
+import org.apache.iotdb.tool.data.TabletBuffer;
+import org.apache.iotdb.tool.data.TabletWriterPool;
 import org.apache.iotdb.tool.data.TextPrinter;
+import org.apache.iotdb.tool.data.TimestampParser;
 import org.apache.thrift.annotation.Nullable;
 import org.apache.tsfile.common.constant.TsFileConstant;
 import org.apache.tsfile.enums.TSDataType;
-import org.apache.tsfile.read.common.Field;
-import org.apache.tsfile.read.common.RowRecord;
 
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.io.*;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
 import java.time.ZoneId;
 import java.util.List;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongConsumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static javax.swing.SwingWorker.StateValue.STARTED;
 import static org.apache.tsfile.enums.TSDataType.STRING;
@@ -58,11 +75,19 @@ public class DataImport extends TabPanel {
     private static final String SQL_SUFFIXS = "sql";
     private static final String CSV_SUFFIXS = "csv";
     private static final String TXT_SUFFIXS = "txt";
-    private static String timeColumn = "Time";
-    private static String deviceColumn = "Device";
     public static final String TIMESERIES = "Timeseries";
     public static final String DATATYPE = "DataType";
     private static final String INSERT_CSV_MEET_ERROR_MSG = "Meet error when insert csv because ";
+    private static final int READER_QUEUE_CHUNKS = 16;
+    private static final int DEFAULT_WRITER_THREADS = 2;
+    private static final int DEFAULT_FILE_THREADS = 2;
+    private static final int DEFAULT_INFERENCE_ROWS = 1000;
+    private static final int SCHEMA_LOOKUP_THREADS = 4;
+    private static final int DEFAULT_MAX_FAILED_RECORDS = 1_000_000;
+    private static final int DEFAULT_TARGET_LATENCY_MS = 1000;
+    private static final int DEFAULT_MIN_BATCH_SIZE = 1000;
+    private static final int DEFAULT_MAX_BATCH_SIZE = 100_000;
+    private static final long CHECKPOINT_INTERVAL_MS = 5000;
 
     private static final String DATATYPE_BOOLEAN = "boolean";
     private static final String DATATYPE_INT = "int";
@@ -109,16 +134,30 @@ public class DataImport extends TabPanel {
     private JTextField sourceField;
     private JComboBox timePrecisionField;
     private JSpinner batchSizeField;
+    private JLabel writerThreadsLabel;
+    private JSpinner writerThreadsField;
+    private JLabel fileThreadsLabel;
+    private JSpinner fileThreadsField;
+    private JLabel inferenceRowsLabel;
+    private JSpinner inferenceRowsField;
     private JLabel fileOrDirectoryLabel;
     private JLabel timePrecisionLabel;
     private JLabel batchSizeLabel;
+    private JLabel targetLatencyLabel;
+    private JSpinner targetLatencyField;
+    private JLabel batchSizeRangeLabel;
+    private JSpinner minBatchSizeField;
+    private JSpinner maxBatchSizeField;
     private JSpinner linesPerFailedFileField;
+    private JSpinner maxFailedRecordsField;
     private JTextArea outputArea;
     private JButton executeButton;
     private JCheckBox alignedCheckBox;
+    private JCheckBox resumeCheckBox;
     private JLabel outputLabel;
     private JTextField failedDirectoryField;
     private JLabel linesPerFailedFileLabel;
+    private JLabel maxFailedRecordsLabel;
     private JLabel failedDirectoryLabel;
     private JLabel typeInferenceRulesLabel;
     private JTextArea rulesArea;
@@ -129,25 +168,49 @@ public class DataImport extends TabPanel {
     private String source;
     private String failedFileDirectory;
     private boolean aligned;
+    private boolean resume;
     private String timestampPrecision;
     private int linesPerFailedFile;
-    private int batchPointSize;
+    private long maxFailedRecords;
+    private int batchSize;
+    private int minBatchSize;
+    private int maxBatchSize;
+    private long targetLatency;
+    private int writerThreads;
+    private int fileThreads;
+    private int inferenceRows;
     private ZoneId zoneId;
 
     private SwingWorker<Void, Void> worker;
+    private final JobProgressPanel progressPanel = new JobProgressPanel();
+    private JobMetrics metrics;
 
     public DataImport(Session session) {
         super();
         $$$setupUI$$$();
         setLayout(new BorderLayout());
         add(rootPanel, BorderLayout.CENTER);
+        add(progressPanel, BorderLayout.SOUTH);
         this.session = session;
 
-        batchSizeField.setModel(new SpinnerNumberModel(100000, 1000, Integer.MAX_VALUE, 1));
+        batchSizeField.setModel(new SpinnerNumberModel(10000, 100, Integer.MAX_VALUE, 1));
         batchSizeField.setEditor(new JSpinner.NumberEditor(batchSizeField, "####"));
+        targetLatencyField.setModel(new SpinnerNumberModel(DEFAULT_TARGET_LATENCY_MS, 0, 60000, 100));
+        targetLatencyField.setEditor(new JSpinner.NumberEditor(targetLatencyField, "####"));
+        minBatchSizeField.setModel(new SpinnerNumberModel(DEFAULT_MIN_BATCH_SIZE, 100, Integer.MAX_VALUE, 100));
+        minBatchSizeField.setEditor(new JSpinner.NumberEditor(minBatchSizeField, "####"));
+        maxBatchSizeField.setModel(new SpinnerNumberModel(DEFAULT_MAX_BATCH_SIZE, 100, Integer.MAX_VALUE, 100));
+        maxBatchSizeField.setEditor(new JSpinner.NumberEditor(maxBatchSizeField, "####"));
+
+        writerThreadsField.setModel(new SpinnerNumberModel(DEFAULT_WRITER_THREADS, 1, 32, 1));
+        fileThreadsField.setModel(new SpinnerNumberModel(DEFAULT_FILE_THREADS, 1, 32, 1));
+        inferenceRowsField.setModel(new SpinnerNumberModel(DEFAULT_INFERENCE_ROWS, 0, Integer.MAX_VALUE, 100));
+        inferenceRowsField.setEditor(new JSpinner.NumberEditor(inferenceRowsField, "####"));
 
         linesPerFailedFileField.setModel(new SpinnerNumberModel(10000, 1000, Integer.MAX_VALUE, 1));
         linesPerFailedFileField.setEditor(new JSpinner.NumberEditor(linesPerFailedFileField, "####"));
+        maxFailedRecordsField.setModel(new SpinnerNumberModel(DEFAULT_MAX_FAILED_RECORDS, 0, Integer.MAX_VALUE, 10000));
+        maxFailedRecordsField.setEditor(new JSpinner.NumberEditor(maxFailedRecordsField, "####"));
 
         JButton browserFileButton = new JButton(Icons.OPEN);
         JToolBar fileFieldToolbar = new JToolBar();
@@ -158,7 +221,7 @@ public class DataImport extends TabPanel {
             JFileChooser fileChooser = new JFileChooser();
             fileChooser.setFileSelectionMode(JFileChooser.FILES_AND_DIRECTORIES);
             fileChooser.setDialogTitle(LangUtil.getString("SelectFileOrDirectory"));
-            fileChooser.setFileFilter(new FileNameExtensionFilter(LangUtil.getString("SqlOrCsvFileFilter"), "sql", "csv"));
+            fileChooser.setFileFilter(new FileNameExtensionFilter(LangUtil.getString("SqlOrCsvFileFilter"), "sql", "csv", "gz", "zip"));
             fileChooser.setLocale(LangUtil.getLocale());
             String dumpDirectory = Configuration.instance().getString(ConfKeys.DUMP_DIRECTORY, "");
             if (StrUtil.isNotBlank(dumpDirectory)) {
@@ -211,11 +274,25 @@ public class DataImport extends TabPanel {
         Utils.UI.tooltip(failedDirectoryLabel, LangUtil.getString("FailedDirectoryTip"));
         alignedCheckBox.setText(LangUtil.getString("ImportAligned"));
         alignedCheckBox.setToolTipText(LangUtil.getString("ImportAlignedTip"));
+        resumeCheckBox.setText(LangUtil.getString("ResumeImport"));
+        resumeCheckBox.setToolTipText(LangUtil.getString("ResumeImportTip"));
         timePrecisionLabel.setText(LangUtil.getString("TimePrecision"));
         batchSizeLabel.setText(LangUtil.getString("BatchSize"));
         Utils.UI.tooltip(batchSizeLabel, LangUtil.getString("BatchSizeTip"));
+        targetLatencyLabel.setText(LangUtil.getString("TargetLatency"));
+        Utils.UI.tooltip(targetLatencyLabel, LangUtil.getString("TargetLatencyTip"));
+        batchSizeRangeLabel.setText(LangUtil.getString("BatchSizeRange"));
+        Utils.UI.tooltip(batchSizeRangeLabel, LangUtil.getString("BatchSizeRangeTip"));
+        writerThreadsLabel.setText(LangUtil.getString("WriterThreads"));
+        Utils.UI.tooltip(writerThreadsLabel, LangUtil.getString("WriterThreadsTip"));
+        fileThreadsLabel.setText(LangUtil.getString("FileThreads"));
+        Utils.UI.tooltip(fileThreadsLabel, LangUtil.getString("FileThreadsTip"));
+        inferenceRowsLabel.setText(LangUtil.getString("InferenceRows"));
+        Utils.UI.tooltip(inferenceRowsLabel, LangUtil.getString("InferenceRowsTip"));
         linesPerFailedFileLabel.setText(LangUtil.getString("LinesPerFailedFile"));
         Utils.UI.tooltip(linesPerFailedFileLabel, LangUtil.getString("LinesPerFailedFileTip"));
+        maxFailedRecordsLabel.setText(LangUtil.getString("MaxFailedRecords"));
+        Utils.UI.tooltip(maxFailedRecordsLabel, LangUtil.getString("MaxFailedRecordsTip"));
         typeInferenceRulesLabel.setText(LangUtil.getString("TypeInferenceRules"));
         Utils.UI.tooltip(typeInferenceRulesLabel, LangUtil.getString("TypeInferenceRulesTip"));
 
@@ -241,9 +318,21 @@ public class DataImport extends TabPanel {
                 }
             }
             aligned = alignedCheckBox.isSelected();
-            batchPointSize = Integer.parseInt(batchSizeField.getValue().toString());
+            resume = resumeCheckBox.isSelected();
+            batchSize = Integer.parseInt(batchSizeField.getValue().toString());
+            targetLatency = Long.parseLong(targetLatencyField.getValue().toString());
+            minBatchSize = Integer.parseInt(minBatchSizeField.getValue().toString());
+            maxBatchSize = Integer.parseInt(maxBatchSizeField.getValue().toString());
+            if (targetLatency > 0 && minBatchSize > maxBatchSize) {
+                Utils.Message.error(LangUtil.format("BatchSizeRangeInvalid", minBatchSize, maxBatchSize));
+                return;
+            }
+            writerThreads = Integer.parseInt(writerThreadsField.getValue().toString());
+            fileThreads = Integer.parseInt(fileThreadsField.getValue().toString());
+            inferenceRows = Integer.parseInt(inferenceRowsField.getValue().toString());
             timestampPrecision = timePrecisionField.getSelectedItem().toString();
             linesPerFailedFile = Integer.parseInt(linesPerFailedFileField.getValue().toString());
+            maxFailedRecords = Long.parseLong(maxFailedRecordsField.getValue().toString());
             String rules = rulesArea.getText();
             if (StrUtil.isNotBlank(rules)) {
                 final String[] opTypeInferValues = rules.split(",");
@@ -261,12 +350,16 @@ public class DataImport extends TabPanel {
             return;
         }
 
+        metrics = new JobMetrics();
+        JobMetrics jobMetrics = metrics;
         SwingUtilities.invokeLater(() -> {
             executeButton.setEnabled(false);
+            progressPanel.start(jobMetrics);
         });
         worker = new SwingWorker<>() {
             @Override
-            protected Void doInBackground() {
+            protected Void doInBackground() throws Exception {
+                // every imported file borrows its own connections, so the import does not block other tabs of the session
                 importFromTargetPath(source);
                 return null;
             }
@@ -278,8 +371,10 @@ public class DataImport extends TabPanel {
                 } catch (Exception e) {
                     textPrinter.printException(e);
                 }
+                textPrinter.println("Throughput: " + jobMetrics.snapshot().summary());
                 SwingUtilities.invokeLater(() -> {
                     executeButton.setEnabled(true);
+                    progressPanel.stop();
                 });
                 worker = null;
             }
@@ -326,286 +421,715 @@ public class DataImport extends TabPanel {
         return session;
     }
 
+    /**
+     * Imports a file, or the files of a directory on a pool of file threads. Larger files start first,
+     * so a big file does not end up running alone at the end. Gzip files and the files of zip archives
+     * are imported while they are decompressed.
+     */
     public void importFromTargetPath(String path) {
         File file = new File(path);
+        List<File> files;
         if (file.isFile()) {
-            if (file.getName().endsWith(SQL_SUFFIXS)) {
-                importFromSqlFile(file);
-            } else {
-                importFromSingleFile(file);
-            }
+            files = List.of(file);
         } else if (file.isDirectory()) {
-            File[] files = file.listFiles();
-            if (files == null) {
+            File[] subFiles = file.listFiles();
+            if (subFiles == null) {
                 textPrinter.println("File not found!");
                 return;
             }
+            files = Arrays.stream(subFiles)
+                .filter(File::isFile)
+                .toList();
+        } else {
+            textPrinter.println("File not found!");
+            return;
+        }
+        List<ImportSource> sources = new ArrayList<>();
+        for (File subFile : files) {
+            try {
+                sources.addAll(ImportSource.of(subFile));
+            } catch (IOException e) {
+                textPrinter.println(subFile.getName() + ": " + e.getMessage());
+            }
+        }
+        if (sources.isEmpty()) {
+            return;
+        }
+        sources.sort(Comparator.comparingLong(ImportSource::getLength).reversed());
+        metrics.setTotalBytes(sources.stream().mapToLong(ImportSource::getLength).sum());
+        Map<ImportSource, Map<String, TSDataType>> inferredTypes = inferColumnTypes(sources);
+        if (inferredTypes == null) {
+            textPrinter.println("Import cancelled, the inferred types were not confirmed.");
+            return;
+        }
+
+        // every file needs a connection of its own plus one per writer thread, connections held by
+        // open results or other jobs are left to them instead of waiting for them
+        int poolSize = Math.max(1, session.getPool().availableConnections());
+        int fileWorkers = Math.min(Math.min(fileThreads, sources.size()), poolSize);
+        int writers = Math.max(0, Math.min(writerThreads, poolSize / fileWorkers - 1));
+        List<FileImport> imports = sources.stream()
+            .map(source -> new FileImport(source, writers, inferredTypes.getOrDefault(source, Map.of())))
+            .toList();
+
+        AtomicInteger threadIndex = new AtomicInteger(0);
+        ExecutorService executor = Executors.newFixedThreadPool(fileWorkers, runnable -> {
+            Thread thread = new Thread(runnable, "iotdb-import-file-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (FileImport fileImport : imports) {
+                futures.add(executor.submit(fileImport::run));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ignored) {
+            }
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            textPrinter.printException(e);
+        } finally {
+            executor.shutdownNow();
+        }
+        printImportSummary(imports, System.nanoTime() - start);
+    }
 
-            for (File subFile : files) {
-                if (subFile.isFile()) {
-                    if (subFile.getName().endsWith(SQL_SUFFIXS)) {
-                        importFromSqlFile(subFile);
-                    } else {
-                        importFromSingleFile(subFile);
+    /**
+     * Samples the first rows of the CSV files for the types of the columns without a type in the header,
+     * and asks to confirm them before anything is written. Columns of existing time series keep the type
+     * of the series.
+     *
+     * @return the inferred types by column of each file, {@code null} if they were not confirmed
+     */
+    private Map<ImportSource, Map<String, TSDataType>> inferColumnTypes(List<ImportSource> sources) {
+        Map<ImportSource, Map<String, TSDataType>> inferredTypes = new LinkedHashMap<>();
+        if (inferenceRows <= 0) {
+            return inferredTypes;
+        }
+        Pattern typePattern = Pattern.compile("(?<=\\()\\S+(?=\\))");
+        List<List<String>> columns = new ArrayList<>();
+        for (String title : List.of("File", "Column", "Type", "Values")) {
+            List<String> column = new ArrayList<>();
+            column.add(title);
+            columns.add(column);
+        }
+        for (ImportSource source : sources) {
+            if (!source.getName().endsWith(CSV_SUFFIXS) && !source.getName().endsWith(TXT_SUFFIXS)) {
+                continue;
+            }
+            ColumnTypeInference inference = new ColumnTypeInference(this::typeInfer);
+            try (CsvRowReader records = openCsvFile(source, null, null)) {
+                List<String> headerNames = records.getHeaderNames();
+                List<Integer> untypedColumns = new ArrayList<>();
+                for (int i = 0; i < headerNames.size(); i++) {
+                    String headerName = headerNames.get(i);
+                    if (!"Time".equalsIgnoreCase(filterBomHeader(headerName)) && !"Device".equalsIgnoreCase(headerName)
+                        && !typePattern.matcher(headerName).find()) {
+                        untypedColumns.add(i);
                     }
                 }
+                for (int row = 0; row < inferenceRows && !untypedColumns.isEmpty() && records.hasNext(); row++) {
+                    CsvRow record = records.next();
+                    for (int column : untypedColumns) {
+                        if (column < record.size()) {
+                            inference.add(headerNames.get(column), record.get(column));
+                        }
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                // the import of the file reports it
+                continue;
             }
-        } else {
-            textPrinter.println("File not found!");
+            if (inference.getTypes().isEmpty()) {
+                continue;
+            }
+            inferredTypes.put(source, inference.getTypes());
+            inference.getTypes().forEach((column, type) -> {
+                columns.get(0).add(source.getName());
+                columns.get(1).add(column);
+                columns.get(2).add(type.name());
+                columns.get(3).add(String.valueOf(inference.getValueCount(column)));
+            });
+        }
+        if (inferredTypes.isEmpty()) {
+            return inferredTypes;
         }
+        textPrinter.printTable(columns);
+
+        String[] titles = columns.stream().map(column -> column.get(0)).toArray(String[]::new);
+        Object[][] rows = new Object[columns.get(0).size() - 1][];
+        for (int i = 0; i < rows.length; i++) {
+            int row = i + 1;
+            rows[i] = columns.stream().map(column -> column.get(row)).toArray();
+        }
+        int[] option = {JOptionPane.NO_OPTION};
+        try {
+            SwingUtilities.invokeAndWait(() -> {
+                JTable table = new JTable(rows, titles);
+                table.setEnabled(false);
+                JScrollPane scrollPane = new JScrollPane(table);
+                scrollPane.setPreferredSize(new Dimension(600, Math.min(400, table.getRowHeight() * (rows.length + 2))));
+                JPanel panel = new JPanel(new BorderLayout(0, 8));
+                panel.add(new JLabel(LangUtil.getString("ConfirmInferredTypes")), BorderLayout.NORTH);
+                panel.add(scrollPane, BorderLayout.CENTER);
+                option[0] = JOptionPane.showConfirmDialog(rootPanel, panel, LangUtil.getString("InferredTypes"), JOptionPane.YES_NO_OPTION);
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (InvocationTargetException e) {
+            textPrinter.printException(e);
+            return null;
+        }
+        return option[0] == JOptionPane.YES_OPTION ? inferredTypes : null;
     }
 
-    private void importFromSqlFile(File file) {
-        textPrinter.println("Start import from file: " + file.getAbsolutePath());
-        ArrayList<List<Object>> failedRecords = new ArrayList<>();
-        String failedFilePath = null;
-        if (failedFileDirectory == null) {
-            failedFilePath = file.getAbsolutePath() + ".failed";
-        } else {
-            failedFilePath = failedFileDirectory + file.getName() + ".failed";
+    private void printImportSummary(List<FileImport> imports, long elapsedNanos) {
+        List<List<String>> columns = new ArrayList<>();
+        for (String title : List.of("File", "Status", "Records", "Points", "Seconds", "Points/s")) {
+            List<String> column = new ArrayList<>();
+            column.add(title);
+            columns.add(column);
         }
-        try (BufferedReader br = new BufferedReader(new FileReader(file.getAbsolutePath()))) {
-            String sql;
-            while ((sql = br.readLine()) != null) {
-                try {
-                    session.executeNonQueryStatement(sql);
-                } catch (IoTDBConnectionException | StatementExecutionException e) {
-                    failedRecords.add(List.of(sql));
+        long totalPoints = 0;
+        for (FileImport fileImport : imports) {
+            double seconds = fileImport.elapsedNanos / 1e9;
+            columns.get(0).add(fileImport.source.getName());
+            columns.get(1).add(fileImport.status);
+            columns.get(2).add(String.valueOf(fileImport.recordCount));
+            columns.get(3).add(String.valueOf(fileImport.points));
+            columns.get(4).add(String.format("%.1f", seconds));
+            columns.get(5).add(seconds > 0 ? String.format("%.0f", fileImport.points / seconds) : "-");
+            totalPoints += fileImport.points;
+        }
+        textPrinter.printTable(columns);
+        double seconds = elapsedNanos / 1e9;
+        textPrinter.printf("Total: %d points of %d files in %.1f s, %.0f points/s%n",
+            totalPoints, imports.size(), seconds, seconds > 0 ? totalPoints / seconds : 0);
+    }
+
+    /**
+     * Import of one file on its own connection, the files of a directory are imported concurrently.
+     */
+    private class FileImport {
+
+        private final ImportSource source;
+        private final int writers;
+        // types of the columns without a type in the header, sampled before the import
+        private final Map<String, TSDataType> inferredTypes;
+        private final AdaptiveBatchSize adaptiveBatchSize;
+        private PooledConnection connection;
+        private TabletWriterPool tabletWriters;
+        private String timeColumn = "Time";
+        private String deviceColumn = "Device";
+        private volatile String status = "Waiting";
+        private long recordCount = 0;
+        private long points = 0;
+        private long failedRecordCount = 0;
+        private long elapsedNanos = 0;
+        // bytes of the source added to the read bytes of the metrics
+        private long countedBytes = 0;
+        // bytes read from a gzip file, its progress is that of the compressed data
+        private final AtomicLong compressedBytes = new AtomicLong(0);
+        // position of the record being converted and the tablets not handed to the writers yet
+        private long currentRecord;
+        private long currentPosition;
+        private Map<String, TabletBuffer> openTablets = Map.of();
+        private TimestampParser timestampParser;
+        private long lastCheckpointTime = 0;
+
+        FileImport(ImportSource source, int writers, Map<String, TSDataType> inferredTypes) {
+            this.source = source;
+            this.writers = writers;
+            this.inferredTypes = inferredTypes;
+            this.adaptiveBatchSize = new AdaptiveBatchSize(batchSize, minBatchSize, maxBatchSize, targetLatency);
+        }
+
+        void run() {
+            long start = System.nanoTime();
+            status = "Running";
+            try (PooledConnection fileConnection = session.borrowConnection()) {
+                connection = fileConnection;
+                if (source.getName().endsWith(SQL_SUFFIXS)) {
+                    importFromSqlFile(source);
+                } else {
+                    importFromSingleFile(source);
+                }
+                if (adaptiveBatchSize.isAdaptive()) {
+                    textPrinter.println(source.getName() + ": " + adaptiveBatchSize.describe());
+                }
+                if ("Running".equals(status)) {
+                    status = failedRecordCount > 0 ? "Failed " + failedRecordCount : "Success";
+                }
+            } catch (CancellationException e) {
+                status = "Cancelled";
+            } catch (IoTDBConnectionException | RuntimeException e) {
+                status = "Error";
+                textPrinter.println(source.getName() + ": " + e.getMessage());
+            } finally {
+                connection = null;
+                elapsedNanos = System.nanoTime() - start;
+                // skipped and failed files are done as well
+                if (source.getLength() > countedBytes) {
+                    metrics.addBytes(source.getLength() - countedBytes);
                 }
             }
-            textPrinter.println(file.getName() + " Import completely!");
-        } catch (IOException e) {
-            textPrinter.println("SQL file read exception because: " + e.getMessage());
         }
-        if (!failedRecords.isEmpty()) {
-            Writer writer = null;
-            try {
-                writer = new FileWriter(failedFilePath);
-                for (List<Object> failedRecord : failedRecords) {
-                    writer.write(failedRecord.get(0).toString() + "\n");
+
+        /**
+         * Adds the characters read up to the position to the read bytes of the metrics, gzip files add
+         * the compressed bytes read so far instead.
+         */
+        private void countBytes(long characterPosition) {
+            long position = source.isGzip() ? compressedBytes.get() : characterPosition;
+            if (position > countedBytes) {
+                metrics.addBytes(position - countedBytes);
+                countedBytes = position;
+            }
+        }
+
+        private void importFromSqlFile(ImportSource source) {
+            textPrinter.println("Start import from file: " + source.getPath());
+            String failedFilePath = null;
+            if (failedFileDirectory == null) {
+                failedFilePath = source.getSiblingPath(".failed");
+            } else {
+                failedFilePath = failedFileDirectory + source.getSiblingName(".failed");
+            }
+            ImportCheckpoint checkpoint = resume ? ImportCheckpoint.load(source) : null;
+            long skipLines = 0;
+            if (checkpoint != null) {
+                skipLines = checkpoint.getRecordNumber() - 1;
+                textPrinter.printf("Resume %s from line '%s'%n", source.getName(), checkpoint.getRecordNumber());
+            }
+            // plain inserts are collected into batches and written on a sender thread while reading on,
+            // any other statement waits for the batches before it and runs on its own
+            ExecutorService sender = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "iotdb-import-sql-" + source.getName());
+                thread.setDaemon(true);
+                return thread;
+            });
+            long batches = 0;
+            long otherStatements = 0;
+            FailedRecordSpool failedRecords = new FailedRecordSpool(failedFilePath, null, linesPerFailedFile, maxFailedRecords, checkpoint != null, textPrinter, metrics);
+            try (BufferedReader br = new BufferedReader(new InputStreamReader(source.open(compressedBytes::addAndGet), StandardCharsets.UTF_8))) {
+                String sql;
+                long lineNumber = 0;
+                long characters = 0;
+                SqlInsertBatch batch = new SqlInsertBatch();
+                SqlInsertBatch sending = null;
+                Future<?> inFlight = null;
+                while ((sql = br.readLine()) != null) {
+                    characters += sql.length() + 1;
+                    countBytes(characters);
+                    if (++lineNumber <= skipLines) {
+                        continue;
+                    }
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new CancellationException();
+                    }
+                    if (StringUtils.isBlank(sql)) {
+                        continue;
+                    }
+                    recordCount++;
+                    metrics.addRows(1);
+                    SqlInsert insert = SqlInsert.parse(sql);
+                    if (insert != null) {
+                        batch.add(lineNumber, sql, insert);
+                        if (batch.getRowCount() < adaptiveBatchSize.get()) {
+                            continue;
+                        }
+                    }
+                    if (!batch.isEmpty()) {
+                        awaitSqlBatch(inFlight);
+                        SqlInsertBatch full = batch;
+                        sending = full;
+                        inFlight = sender.submit(() -> writeSqlBatch(full, failedRecords));
+                        batches++;
+                        batch = new SqlInsertBatch();
+                    }
+                    if (insert == null) {
+                        awaitSqlBatch(inFlight);
+                        inFlight = null;
+                        otherStatements++;
+                        try {
+                            long start = System.nanoTime();
+                            connection.executeNonQueryStatement(sql);
+                            metrics.recordLatency(System.nanoTime() - start);
+                        } catch (IoTDBConnectionException | StatementExecutionException e) {
+                            failedRecords.add(List.of(sql), e.getMessage());
+                        }
+                    }
+                    // lines before the batch in flight are done
+                    long nextLine = inFlight != null && !inFlight.isDone() ? sending.getFirstLine()
+                        : batch.isEmpty() ? lineNumber + 1 : batch.getFirstLine();
+                    saveCheckpointIfDue(new SourcePosition(nextLine, -1), nextLine - 1);
+                }
+                if (!batch.isEmpty()) {
+                    awaitSqlBatch(inFlight);
+                    SqlInsertBatch last = batch;
+                    inFlight = sender.submit(() -> writeSqlBatch(last, failedRecords));
+                    batches++;
                 }
+                awaitSqlBatch(inFlight);
+                ImportCheckpoint.delete(source);
+                textPrinter.printf("%s: %d inserts in %d batches, %d other statements%n",
+                    source.getName(), recordCount - otherStatements, batches, otherStatements);
+                textPrinter.println(source.getName() + " Import completely!");
             } catch (IOException e) {
-                textPrinter.println("Cannot dump fail result because: " + e.getMessage());
+                status = "Error";
+                textPrinter.println("SQL file read exception because: " + e.getMessage());
             } finally {
-                if (ObjectUtils.isNotEmpty(writer)) {
+                sender.shutdownNow();
+                closeFailedRecords(failedRecords);
+                // the statements may have created or deleted timeseries
+                session.getSchemaCache().clear();
+            }
+        }
+
+        /**
+         * Writes the batch, or runs its statements one by one if it fails to find the failed ones.
+         */
+        private void writeSqlBatch(SqlInsertBatch batch, FailedRecordSpool failedRecords) {
+            try {
+                long start = System.nanoTime();
+                batch.write(connection.getIotdbSession());
+                long latency = System.nanoTime() - start;
+                metrics.recordLatency(latency);
+                adaptiveBatchSize.onSuccess(batch.getRowCount(), latency);
+                metrics.addPoints(batch.getPointCount());
+            } catch (IoTDBConnectionException | StatementExecutionException | RuntimeException e) {
+                adaptiveBatchSize.onFailure(e instanceof IoTDBConnectionException ? "connection error" : "rejected");
+                for (String sql : batch.getStatements()) {
                     try {
-                        writer.flush();
-                        writer.close();
-                    } catch (IOException e) {
+                        connection.executeNonQueryStatement(sql);
+                    } catch (IoTDBConnectionException | StatementExecutionException ex) {
+                        failedRecords.add(List.of(sql), ex.getMessage());
                     }
                 }
             }
         }
-    }
 
-    /**
-     * import the CSV file and load headers and records.
-     *
-     * @param file the File object of the CSV file that you want to import.
-     */
-    private void importFromSingleFile(File file) {
-        if (file.getName().endsWith(CSV_SUFFIXS) || file.getName().endsWith(TXT_SUFFIXS)) {
-            textPrinter.println("Start import from file: " + file.getAbsolutePath());
-            try (CSVParser csvRecords = readCsvFile(file.getAbsolutePath())) {
-                List<String> headerNames = csvRecords.getHeaderNames();
-                Stream<CSVRecord> records = csvRecords.stream();
-                if (headerNames.isEmpty()) {
-                    textPrinter.println("Empty file!");
-                    return;
-                }
-                if (!timeColumn.equalsIgnoreCase(filterBomHeader(headerNames.get(0)))) {
-                    textPrinter.println("The first field of header must be `Time`!");
-                    return;
-                }
-                String failedFilePath = null;
-                if (failedFileDirectory == null) {
-                    failedFilePath = file.getAbsolutePath() + ".failed";
-                } else {
-                    failedFilePath = failedFileDirectory + file.getName() + ".failed";
+        private void closeFailedRecords(FailedRecordSpool failedRecords) {
+            try {
+                failedRecords.close();
+            } catch (IOException e) {
+                textPrinter.println("Cannot dump fail result because: " + e.getMessage());
+            }
+            failedRecordCount = failedRecords.getCount();
+            failedRecords.printSummary(source.getName());
+        }
+
+        private void awaitSqlBatch(@Nullable Future<?> inFlight) {
+            if (inFlight == null) {
+                return;
+            }
+            try {
+                inFlight.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException();
+            } catch (ExecutionException e) {
+                throw new RuntimeException(e.getCause());
+            }
+        }
+
+        /**
+         * import the CSV file and load headers and records.
+         * <p>
+         * Records are read on a reader thread, converted into tablets on this thread and written by the
+         * writer threads, each stage hands over through a bounded queue.
+         *
+         * @param source the CSV file that you want to import.
+         */
+        private void importFromSingleFile(ImportSource source) {
+            if (source.getName().endsWith(CSV_SUFFIXS) || source.getName().endsWith(TXT_SUFFIXS)) {
+                textPrinter.println("Start import from file: " + source.getPath());
+                ImportCheckpoint checkpoint = resume ? ImportCheckpoint.load(source) : null;
+                if (checkpoint != null) {
+                    textPrinter.printf("Resume %s from line '%s' after batch '%s'%n",
+                        source.getName(), checkpoint.getRecordNumber(), checkpoint.getConfirmedBatch());
                 }
-                if (!deviceColumn.equalsIgnoreCase(headerNames.get(1))) {
-                    writeDataAlignedByTime(headerNames, records, failedFilePath);
-                } else {
-                    writeDataAlignedByDevice(headerNames, records, failedFilePath);
+                FailedRecordSpool failedRecords = null;
+                try (CsvRowReader csvRecords = openCsvFile(source, checkpoint, compressedBytes::addAndGet);
+                     BackgroundIterator<CsvRow> recordIterator = new BackgroundIterator<>(csvRecords, READER_QUEUE_CHUNKS, "iotdb-import-reader")) {
+                    List<String> headerNames = csvRecords.getHeaderNames();
+                    Stream<CsvRow> records = StreamSupport.stream(Spliterators.spliteratorUnknownSize(recordIterator, Spliterator.ORDERED), false);
+                    if (headerNames.isEmpty()) {
+                        status = "Skipped";
+                        textPrinter.println("Empty file!");
+                        return;
+                    }
+                    if (!timeColumn.equalsIgnoreCase(filterBomHeader(headerNames.get(0)))) {
+                        status = "Skipped";
+                        textPrinter.println("The first field of header must be `Time`!");
+                        return;
+                    }
+                    String failedFilePath = null;
+                    if (failedFileDirectory == null) {
+                        failedFilePath = source.getSiblingPath(".failed");
+                    } else {
+                        failedFilePath = failedFileDirectory + source.getSiblingName(".failed");
+                    }
+
+                    // the file connection stays with this thread for schema queries, writers need their own
+                    tabletWriters = new TabletWriterPool(session, connection, aligned, writers, metrics, adaptiveBatchSize);
+                    failedRecords = new FailedRecordSpool(failedFilePath, headerNames, linesPerFailedFile, maxFailedRecords,
+                        checkpoint != null, textPrinter, metrics);
+                    timestampParser = new TimestampParser(zoneId, timestampPrecision);
+                    boolean hasRecords;
+                    try {
+                        if (!deviceColumn.equalsIgnoreCase(headerNames.get(1))) {
+                            hasRecords = writeDataAlignedByTime(headerNames, records, failedRecords);
+                        } else {
+                            hasRecords = writeDataAlignedByDevice(headerNames, records, failedRecords);
+                        }
+                    } catch (RuntimeException | IllegalPathException e) {
+                        tabletWriters.abort();
+                        throw e;
+                    }
+
+                    List<TabletWriterPool.Failure> failures = tabletWriters.finish();
+                    if (timestampParser.getLayout() != null) {
+                        textPrinter.printf("Timestamp layout: %s, %d timestamps by the generic parser%n",
+                            timestampParser.getLayout(), timestampParser.getFallbacks());
+                    }
+                    points = tabletWriters.getWrittenPoints();
+                    for (TabletWriterPool.Failure failure : failures) {
+                        textPrinter.printf("Lines '%s' to '%s': %s%s%n",
+                            failure.getFirstRecord(), failure.getLastRecord(), INSERT_CSV_MEET_ERROR_MSG, failure.getMessage());
+                    }
+                    if (!failures.isEmpty()) {
+                        collectFailedRecords(source, failures, failedRecords);
+                    }
+                    ImportCheckpoint.delete(source);
+                    if (hasRecords) {
+                        textPrinter.println("Import completely!");
+                    } else {
+                        textPrinter.println("No records!");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    tabletWriters.abort();
+                    status = "Cancelled";
+                } catch (IOException | IllegalPathException | IoTDBConnectionException | UncheckedIOException e) {
+                    status = "Error";
+                    textPrinter.println("CSV file read exception because: " + e.getMessage());
+                } finally {
+                    tabletWriters = null;
+                    if (failedRecords != null) {
+                        closeFailedRecords(failedRecords);
+                    }
                 }
-            } catch (IOException | IllegalPathException e) {
-                textPrinter.println("CSV file read exception because: " + e.getMessage());
+            } else {
+                status = "Skipped";
+                textPrinter.println("The file name must end with \"csv\" or \"txt\"!");
             }
-        } else {
-            textPrinter.println("The file name must end with \"csv\" or \"txt\"!");
         }
-    }
 
-    /**
-     * if the data is aligned by time, the data will be written by this method.
-     *
-     * @param headerNames    the header names of CSV file
-     * @param records        the records of CSV file
-     * @param failedFilePath the directory to save the failed files
-     */
-    private void writeDataAlignedByTime(
-        List<String> headerNames, Stream<CSVRecord> records, String failedFilePath)
-        throws IllegalPathException {
-        HashMap<String, List<String>> deviceAndMeasurementNames = new HashMap<>();
-        HashMap<String, TSDataType> headerTypeMap = new HashMap<>();
-        HashMap<String, String> headerNameMap = new HashMap<>();
-        parseHeaders(headerNames, deviceAndMeasurementNames, headerTypeMap, headerNameMap);
-
-        Set<String> devices = deviceAndMeasurementNames.keySet();
-        if (headerTypeMap.isEmpty()) {
-            queryType(devices, headerTypeMap, "Time");
+        /**
+         * Reads the records of failed batches from the file again, they follow the records that failed to convert.
+         */
+        private void collectFailedRecords(ImportSource source, List<TabletWriterPool.Failure> failures, FailedRecordSpool failedRecords) {
+            try (CsvRowReader csvRecords = openCsvFile(source, null, null)) {
+                Iterator<TabletWriterPool.Failure> failureIterator = failures.stream()
+                    .sorted(Comparator.comparingLong(TabletWriterPool.Failure::getFirstRecord))
+                    .iterator();
+                TabletWriterPool.Failure failure = failureIterator.next();
+                while (csvRecords.hasNext()) {
+                    CsvRow record = csvRecords.next();
+                    while (failure != null && record.getRecordNumber() > failure.getLastRecord()) {
+                        failure = failureIterator.hasNext() ? failureIterator.next() : null;
+                    }
+                    if (failure == null) {
+                        break;
+                    }
+                    // records that also failed to convert are in the failed files already
+                    if (record.getRecordNumber() >= failure.getFirstRecord() && !failedRecords.contains(record.getRecordNumber())) {
+                        failedRecords.add(record.toList(), failure.getMessage());
+                    }
+                }
+            } catch (IOException | UncheckedIOException e) {
+                textPrinter.println("Cannot dump fail result because: " + e.getMessage());
+            }
         }
 
-        List<String> deviceIds = new ArrayList<>();
-        List<Long> times = new ArrayList<>();
-        List<List<String>> measurementsList = new ArrayList<>();
-        List<List<TSDataType>> typesList = new ArrayList<>();
-        List<List<Object>> valuesList = new ArrayList<>();
+        /**
+         * if the data is aligned by time, the data will be written by this method.
+         *
+         * @param headerNames   the header names of CSV file
+         * @param records       the records of CSV file
+         * @param failedRecords the spool of the records that can not be converted
+         * @return whether the file has any record
+         */
+        private boolean writeDataAlignedByTime(
+            List<String> headerNames, Stream<CsvRow> records, FailedRecordSpool failedRecords)
+            throws IllegalPathException {
+            HashMap<String, List<String>> deviceAndMeasurementNames = new HashMap<>();
+            HashMap<String, TSDataType> headerTypeMap = new HashMap<>();
+            HashMap<String, String> headerNameMap = new HashMap<>();
+            parseHeaders(headerNames, deviceAndMeasurementNames, headerTypeMap, headerNameMap);
+            Map<String, Integer> headerIndexes = headerIndexes(headerNames);
+            int timeIndex = headerIndexes.get(timeColumn);
+
+            Set<String> devices = deviceAndMeasurementNames.keySet();
+            if (headerTypeMap.isEmpty()) {
+                queryType(devices, headerTypeMap, "Time");
+            }
 
-        AtomicReference<Boolean> hasStarted = new AtomicReference<>(false);
-        AtomicInteger pointSize = new AtomicInteger(0);
+            // one tablet per device, flushed together once any of them is full
+            Map<String, TabletBuffer> tablets = new HashMap<>();
+            openTablets = tablets;
+            Map<String, int[]> tabletColumns = new HashMap<>();
 
-        ArrayList<List<Object>> failedRecords = new ArrayList<>();
-        records.forEach(
-            recordObj -> {
-                if (Boolean.FALSE.equals(hasStarted.get())) {
-                    hasStarted.set(true);
-                } else if (pointSize.get() >= batchPointSize) {
-                    writeAndEmptyDataSet(deviceIds, times, typesList, valuesList, measurementsList, 3);
-                    pointSize.set(0);
-                }
+            AtomicReference<Boolean> hasStarted = new AtomicReference<>(false);
 
-                boolean isFail = false;
-
-                for (Map.Entry<String, List<String>> entry : deviceAndMeasurementNames.entrySet()) {
-                    String deviceId = entry.getKey();
-                    List<String> measurementNames = entry.getValue();
-                    ArrayList<TSDataType> types = new ArrayList<>();
-                    ArrayList<Object> values = new ArrayList<>();
-                    ArrayList<String> measurements = new ArrayList<>();
-                    for (String measurement : measurementNames) {
-                        String header = deviceId + "." + measurement;
-                        String value = recordObj.get(headerNameMap.get(header));
-                        if (!"".equals(value)) {
-                            TSDataType type;
+            records.forEach(
+                recordObj -> {
+                    hasStarted.set(true);
+                    recordCount++;
+                    metrics.addRows(1);
+                    currentRecord = recordObj.getRecordNumber();
+                    currentPosition = recordObj.getCharacterPosition();
+                    countBytes(currentPosition);
+                    String failReason = null;
+                    long timestamp = timestampParser.parse(recordObj, timeIndex);
+
+                    for (Map.Entry<String, List<String>> entry : deviceAndMeasurementNames.entrySet()) {
+                        String deviceId = entry.getKey();
+                        boolean typeChanged = false;
+                        for (String measurement : entry.getValue()) {
+                            String header = deviceId + "." + measurement;
                             if (!headerTypeMap.containsKey(header)) {
-                                type = typeInfer(value);
-                                if (type != null) {
-                                    headerTypeMap.put(header, type);
-                                } else {
-                                    textPrinter.printf(
-                                        "Line '%s', column '%s': '%s' unknown type%n",
-                                        recordObj.getRecordNumber(), header, value);
-                                    isFail = true;
+                                int index = headerIndexes.get(headerNameMap.get(header));
+                                if (!recordObj.isEmpty(index)) {
+                                    String value = recordObj.get(index);
+                                    TSDataType type = inferredTypes.get(header);
+                                    if (type == null) {
+                                        type = typeInfer(value);
+                                    }
+                                    if (type != null) {
+                                        headerTypeMap.put(header, type);
+                                        typeChanged = true;
+                                    } else {
+                                        if (failedRecords.isDetailed()) {
+                                            textPrinter.printf(
+                                                "Line '%s', column '%s': '%s' unknown type%n",
+                                                recordObj.getRecordNumber(), header, value);
+                                        }
+                                        failReason = "Column '" + header + "': unknown type";
+                                    }
                                 }
                             }
-                            type = headerTypeMap.get(header);
-                            if (type != null) {
-                                Object valueTrans = typeTrans(value, type);
-                                if (valueTrans == null) {
-                                    isFail = true;
+                        }
+
+                        TabletBuffer tablet = tablets.get(deviceId);
+                        if (tablet == null || typeChanged) {
+                            // the schema of a tablet is fixed, newly typed columns start a new tablet
+                            if (tablet != null) {
+                                flushTablets(new HashMap<>(Map.of(deviceId, tablets.remove(deviceId))));
+                            }
+                            List<String> measurements = new ArrayList<>();
+                            List<TSDataType> types = new ArrayList<>();
+                            List<Integer> columns = new ArrayList<>();
+                            for (String measurement : entry.getValue()) {
+                                String header = deviceId + "." + measurement;
+                                if (headerTypeMap.containsKey(header)) {
+                                    measurements.add(measurement);
+                                    types.add(headerTypeMap.get(header));
+                                    columns.add(headerNames.indexOf(headerNameMap.get(header)));
+                                }
+                            }
+                            if (measurements.isEmpty()) {
+                                continue;
+                            }
+                            tablet = new TabletBuffer(deviceId, measurements, types, adaptiveBatchSize.get());
+                            tablets.put(deviceId, tablet);
+                            tabletColumns.put(deviceId, columns.stream().mapToInt(Integer::intValue).toArray());
+                        }
+
+                        int[] columns = tabletColumns.get(deviceId);
+                        tablet.startRow(timestamp, currentRecord, currentPosition);
+                        for (int i = 0; i < columns.length; i++) {
+                            if (!recordObj.isEmpty(columns[i]) && !tablet.setValue(i, recordObj, columns[i])) {
+                                String header = deviceId + "." + tablet.getMeasurements().get(i);
+                                if (failedRecords.isDetailed()) {
                                     textPrinter.printf(
                                         "Line '%s', column '%s': '%s' can't convert to '%s'%n",
-                                        recordObj.getRecordNumber(), header, value, type);
-                                } else {
-                                    measurements.add(header.replace(deviceId + '.', ""));
-                                    types.add(type);
-                                    values.add(valueTrans);
-                                    pointSize.getAndIncrement();
+                                        recordObj.getRecordNumber(), header, recordObj.get(columns[i]), tablet.getTypes().get(i));
                                 }
+                                failReason = "Column '" + header + "': can't convert to '" + tablet.getTypes().get(i) + "'";
                             }
                         }
+                        tablet.endRow();
+                        if (tablet.isFull()) {
+                            flushTablets(tablets);
+                        }
                     }
-                    if (!measurements.isEmpty()) {
-                        times.add(parseTimestamp(recordObj.get(timeColumn)));
-                        deviceIds.add(deviceId);
-                        typesList.add(types);
-                        valuesList.add(values);
-                        measurementsList.add(measurements);
+                    if (failReason != null) {
+                        failedRecords.add(recordObj.getRecordNumber(), recordObj.toList(), failReason);
                     }
-                }
-                if (isFail) {
-                    failedRecords.add(recordObj.stream().collect(Collectors.toList()));
-                }
-            });
-        if (!deviceIds.isEmpty()) {
-            writeAndEmptyDataSet(deviceIds, times, typesList, valuesList, measurementsList, 3);
-            pointSize.set(0);
+                });
+            flushTablets(tablets);
+            return hasStarted.get();
         }
 
-        if (!failedRecords.isEmpty()) {
-            writeFailedLinesFile(headerNames, failedFilePath, failedRecords);
-        }
-        if (Boolean.TRUE.equals(hasStarted.get())) {
-            textPrinter.println("Import completely!");
-        } else {
-            textPrinter.println("No records!");
-        }
-    }
+        /**
+         * if the data is aligned by device, the data will be written by this method.
+         *
+         * @param headerNames   the header names of CSV file
+         * @param records       the records of CSV file
+         * @param failedRecords the spool of the records that can not be converted
+         * @return whether the file has any record
+         */
+        private boolean writeDataAlignedByDevice(
+            List<String> headerNames, Stream<CsvRow> records, FailedRecordSpool failedRecords) throws IllegalPathException {
+            HashMap<String, TSDataType> headerTypeMap = new HashMap<>();
+            HashMap<String, String> headerNameMap = new HashMap<>();
+            parseHeaders(headerNames, null, headerTypeMap, headerNameMap);
+            Map<String, Integer> headerIndexes = headerIndexes(headerNames);
+            int timeIndex = headerIndexes.get(timeColumn);
+
+            AtomicReference<String> deviceName = new AtomicReference<>(null);
+            // the tablet of the current device
+            Map<String, TabletBuffer> tablets = new HashMap<>();
+            openTablets = tablets;
+            AtomicReference<int[]> tabletColumns = new AtomicReference<>(null);
+
+            HashSet<String> typeQueriedDevice = new HashSet<>();
+
+            records.forEach(
+                recordObj -> {
+                    recordCount++;
+                    metrics.addRows(1);
+                    currentRecord = recordObj.getRecordNumber();
+                    currentPosition = recordObj.getCharacterPosition();
+                    countBytes(currentPosition);
+                    if (!Objects.equals(deviceName.get(), recordObj.get(1))) {
+                        // if device changed
+                        flushTablets(tablets);
+                        tablets.clear();
+                        deviceName.set(recordObj.get(1));
+                    }
 
-    /**
-     * if the data is aligned by device, the data will be written by this method.
-     *
-     * @param headerNames    the header names of CSV file
-     * @param records        the records of CSV file
-     * @param failedFilePath the directory to save the failed files
-     */
-    private void writeDataAlignedByDevice(
-        List<String> headerNames, Stream<CSVRecord> records, String failedFilePath) throws IllegalPathException {
-        HashMap<String, TSDataType> headerTypeMap = new HashMap<>();
-        HashMap<String, String> headerNameMap = new HashMap<>();
-        parseHeaders(headerNames, null, headerTypeMap, headerNameMap);
-
-        AtomicReference<String> deviceName = new AtomicReference<>(null);
-
-        HashSet<String> typeQueriedDevice = new HashSet<>();
-
-        // the data that interface need
-        List<Long> times = new ArrayList<>();
-        List<List<TSDataType>> typesList = new ArrayList<>();
-        List<List<Object>> valuesList = new ArrayList<>();
-        List<List<String>> measurementsList = new ArrayList<>();
-
-        AtomicInteger pointSize = new AtomicInteger(0);
-
-        ArrayList<List<Object>> failedRecords = new ArrayList<>();
-
-        records.forEach(
-            recordObj -> {
-                // only run in first record
-                if (deviceName.get() == null) {
-                    deviceName.set(recordObj.get(1));
-                } else if (!Objects.equals(deviceName.get(), recordObj.get(1))) {
-                    // if device changed
-                    writeAndEmptyDataSet(
-                        deviceName.get(), times, typesList, valuesList, measurementsList, 3);
-                    deviceName.set(recordObj.get(1));
-                    pointSize.set(0);
-                } else if (pointSize.get() >= batchPointSize) {
-                    // insert a batch
-                    writeAndEmptyDataSet(
-                        deviceName.get(), times, typesList, valuesList, measurementsList, 3);
-                    pointSize.set(0);
-                }
+                    String failReason = null;
 
-                // the data of the record
-                ArrayList<TSDataType> types = new ArrayList<>();
-                ArrayList<Object> values = new ArrayList<>();
-                ArrayList<String> measurements = new ArrayList<>();
-
-                AtomicReference<Boolean> isFail = new AtomicReference<>(false);
-
-                // read data from record
-                for (Map.Entry<String, String> headerNameEntry : headerNameMap.entrySet()) {
-                    // headerNameWithoutType is equal to headerName if the CSV column do not have data type.
-                    String headerNameWithoutType = headerNameEntry.getKey();
-                    String headerName = headerNameEntry.getValue();
-                    String value = recordObj.get(headerName);
-                    if (!"".equals(value)) {
-                        TSDataType type;
-                        // Get the data type directly if the CSV column have data type.
-                        if (!headerTypeMap.containsKey(headerNameWithoutType)) {
-                            boolean hasResult = false;
+                    // type the columns that get their first value in this record
+                    boolean typeChanged = false;
+                    for (Map.Entry<String, String> headerNameEntry : headerNameMap.entrySet()) {
+                        // headerNameWithoutType is equal to headerName if the CSV column do not have data type.
+                        String headerNameWithoutType = headerNameEntry.getKey();
+                        int index = headerIndexes.get(headerNameEntry.getValue());
+                        if (!recordObj.isEmpty(index) && !headerTypeMap.containsKey(headerNameWithoutType)) {
+                            String value = recordObj.get(index);
                             // query the data type in iotdb
                             if (!typeQueriedDevice.contains(deviceName.get())) {
                                 if (headerTypeMap.isEmpty()) {
@@ -615,249 +1139,226 @@ public class DataImport extends TabPanel {
                                 }
                                 typeQueriedDevice.add(deviceName.get());
                             }
-                            type = typeInfer(value);
+                            if (headerTypeMap.containsKey(headerNameWithoutType)) {
+                                typeChanged = true;
+                                continue;
+                            }
+                            TSDataType type = inferredTypes.get(headerNameWithoutType);
+                            if (type == null) {
+                                type = typeInfer(value);
+                            }
                             if (type != null) {
                                 headerTypeMap.put(headerNameWithoutType, type);
+                                typeChanged = true;
                             } else {
-                                textPrinter.printf(
-                                    "Line '%s', column '%s': '%s' unknown type%n",
-                                    recordObj.getRecordNumber(), headerNameWithoutType, value);
-                                isFail.set(true);
+                                if (failedRecords.isDetailed()) {
+                                    textPrinter.printf(
+                                        "Line '%s', column '%s': '%s' unknown type%n",
+                                        recordObj.getRecordNumber(), headerNameWithoutType, value);
+                                }
+                                failReason = "Column '" + headerNameWithoutType + "': unknown type";
                             }
                         }
-                        type = headerTypeMap.get(headerNameWithoutType);
-                        if (type != null) {
-                            Object valueTrans = typeTrans(value, type);
-                            if (valueTrans == null) {
-                                isFail.set(true);
-                                textPrinter.printf(
-                                    "Line '%s', column '%s': '%s' can't convert to '%s'%n",
-                                    recordObj.getRecordNumber(), headerNameWithoutType, value, type);
-                            } else {
-                                values.add(valueTrans);
-                                measurements.add(headerNameWithoutType);
+                    }
+
+                    if (tablets.isEmpty() || typeChanged) {
+                        // the schema of a tablet is fixed, newly typed columns start a new tablet
+                        flushTablets(tablets);
+                        tablets.clear();
+                        List<String> measurements = new ArrayList<>();
+                        List<TSDataType> types = new ArrayList<>();
+                        List<Integer> columns = new ArrayList<>();
+                        for (Map.Entry<String, String> headerNameEntry : headerNameMap.entrySet()) {
+                            TSDataType type = headerTypeMap.get(headerNameEntry.getKey());
+                            if (type != null) {
+                                measurements.add(headerNameEntry.getKey());
                                 types.add(type);
-                                pointSize.getAndIncrement();
+                                columns.add(headerNames.indexOf(headerNameEntry.getValue()));
                             }
                         }
+                        if (!measurements.isEmpty()) {
+                            tablets.put(deviceName.get(), new TabletBuffer(deviceName.get(), measurements, types, adaptiveBatchSize.get()));
+                        }
+                        tabletColumns.set(columns.stream().mapToInt(Integer::intValue).toArray());
                     }
-                }
-                if (Boolean.TRUE.equals(isFail.get())) {
-                    failedRecords.add(recordObj.stream().collect(Collectors.toList()));
-                }
-                if (!measurements.isEmpty()) {
-                    times.add(parseTimestamp(recordObj.get(timeColumn)));
-                    typesList.add(types);
-                    valuesList.add(values);
-                    measurementsList.add(measurements);
-                }
-            });
-        if (!times.isEmpty()) {
-            writeAndEmptyDataSet(deviceName.get(), times, typesList, valuesList, measurementsList, 3);
-            pointSize.set(0);
-        }
-        if (!failedRecords.isEmpty()) {
-            writeFailedLinesFile(headerNames, failedFilePath, failedRecords);
-        }
-        textPrinter.println("Import completely!");
-    }
 
-    private void writeFailedLinesFile(
-        List<String> headerNames, String failedFilePath, ArrayList<List<Object>> failedRecords) {
-        int fileIndex = 0;
-        int from = 0;
-        int failedRecordsSize = failedRecords.size();
-        int restFailedRecords = failedRecordsSize;
-        while (from < failedRecordsSize) {
-            int step = Math.min(restFailedRecords, linesPerFailedFile);
-            writeCsvFile(
-                headerNames,
-                failedRecords.subList(from, from + step),
-                failedFilePath + "_" + fileIndex++);
-            from += step;
-            restFailedRecords -= step;
+                    // read data from record
+                    TabletBuffer buffer = tablets.get(deviceName.get());
+                    if (buffer != null) {
+                        int[] columns = tabletColumns.get();
+                        buffer.startRow(timestampParser.parse(recordObj, timeIndex), currentRecord, currentPosition);
+                        for (int i = 0; i < columns.length; i++) {
+                            if (!recordObj.isEmpty(columns[i]) && !buffer.setValue(i, recordObj, columns[i])) {
+                                if (failedRecords.isDetailed()) {
+                                    textPrinter.printf(
+                                        "Line '%s', column '%s': '%s' can't convert to '%s'%n",
+                                        recordObj.getRecordNumber(), buffer.getMeasurements().get(i), recordObj.get(columns[i]), buffer.getTypes().get(i));
+                                }
+                                failReason = "Column '" + buffer.getMeasurements().get(i) + "': can't convert to '" + buffer.getTypes().get(i) + "'";
+                            }
+                        }
+                        buffer.endRow();
+                        if (buffer.isFull()) {
+                            // insert a batch
+                            flushTablets(tablets);
+                        }
+                    }
+                    if (failReason != null) {
+                        failedRecords.add(recordObj.getRecordNumber(), recordObj.toList(), failReason);
+                    }
+                });
+            flushTablets(tablets);
+            return deviceName.get() != null;
         }
-    }
 
-    private void writeAndEmptyDataSet(
-        String device,
-        List<Long> times,
-        List<List<TSDataType>> typesList,
-        List<List<Object>> valuesList,
-        List<List<String>> measurementsList,
-        int retryTime) {
-        try {
-            if (Boolean.FALSE.equals(aligned)) {
-                session.getIotdbSession().insertRecordsOfOneDevice(device, times, measurementsList, typesList, valuesList);
-            } else {
-                session.getIotdbSession().insertAlignedRecordsOfOneDevice(
-                    device, times, measurementsList, typesList, valuesList);
-            }
-        } catch (IoTDBConnectionException e) {
-            if (retryTime > 0) {
-                try {
-                    session.getIotdbSession().open();
-                } catch (IoTDBConnectionException ex) {
-                    textPrinter.println(INSERT_CSV_MEET_ERROR_MSG + e.getMessage());
+        /**
+         * Hands the filled tablets to the writers as one batch and replaces them with empty ones.
+         */
+        private void flushTablets(Map<String, TabletBuffer> tablets) {
+            tabletWriters.submit(new ArrayList<>(tablets.values()));
+            tablets.replaceAll((device, tablet) -> tablet.isEmpty() ? tablet : tablet.emptyCopy(adaptiveBatchSize.get()));
+
+            // records from the earliest one not written yet are read again on resume
+            SourcePosition position = new SourcePosition(currentRecord, currentPosition);
+            position = SourcePosition.earliest(position, tabletWriters.getPendingPosition());
+            for (TabletBuffer tablet : openTablets.values()) {
+                if (!tablet.isEmpty()) {
+                    position = SourcePosition.earliest(position, tablet.getFirstPosition());
                 }
-                writeAndEmptyDataSet(device, times, typesList, valuesList, measurementsList, --retryTime);
             }
-        } catch (StatementExecutionException e) {
-            textPrinter.println(INSERT_CSV_MEET_ERROR_MSG + e.getMessage());
-            cancelImport();
-        } finally {
-            times.clear();
-            typesList.clear();
-            valuesList.clear();
-            measurementsList.clear();
+            saveCheckpointIfDue(position, tabletWriters.getConfirmedBatch());
         }
-    }
 
-    private void writeAndEmptyDataSet(
-        List<String> deviceIds,
-        List<Long> times,
-        List<List<TSDataType>> typesList,
-        List<List<Object>> valuesList,
-        List<List<String>> measurementsList,
-        int retryTime) {
-        try {
-            if (Boolean.FALSE.equals(aligned)) {
-                session.getIotdbSession().insertRecords(deviceIds, times, measurementsList, typesList, valuesList);
-            } else {
-                session.getIotdbSession().insertAlignedRecords(deviceIds, times, measurementsList, typesList, valuesList);
+        private void saveCheckpointIfDue(SourcePosition position, long confirmedBatch) {
+            long now = System.currentTimeMillis();
+            if (now - lastCheckpointTime < CHECKPOINT_INTERVAL_MS) {
+                return;
             }
-        } catch (IoTDBConnectionException e) {
-            if (retryTime > 0) {
-                try {
-                    session.open();
-                } catch (IoTDBConnectionException ex) {
-                    textPrinter.println(INSERT_CSV_MEET_ERROR_MSG + e.getMessage());
-                }
-                writeAndEmptyDataSet(deviceIds, times, typesList, valuesList, measurementsList, --retryTime);
+            lastCheckpointTime = now;
+            try {
+                ImportCheckpoint.of(source, position, confirmedBatch).save(source);
+            } catch (IOException e) {
+                textPrinter.println("Cannot save the import checkpoint because: " + e.getMessage());
             }
-        } catch (StatementExecutionException e) {
-            textPrinter.println(INSERT_CSV_MEET_ERROR_MSG + e.getMessage());
-            cancelImport();
-        } finally {
-            deviceIds.clear();
-            times.clear();
-            typesList.clear();
-            valuesList.clear();
-            measurementsList.clear();
         }
-    }
 
-    /**
-     * query data type of timeseries from IoTDB
-     *
-     * @param deviceNames
-     * @param headerTypeMap
-     * @param alignedType
-     * @throws IoTDBConnectionException
-     * @throws StatementExecutionException
-     */
-    private void queryType(Set<String> deviceNames, HashMap<String, TSDataType> headerTypeMap, String alignedType) {
-        for (String deviceName : deviceNames) {
-            String sql = "show timeseries " + deviceName + ".*";
-            SessionDataSet sessionDataSet = null;
+        /**
+         * Data types of the existing timeseries of the devices from the schema cache of the session,
+         * devices that are not cached yet are loaded in batches first.
+         *
+         * @param deviceNames
+         * @param headerTypeMap
+         * @param alignedType
+         */
+        private void queryType(Set<String> deviceNames, HashMap<String, TSDataType> headerTypeMap, String alignedType) {
+            SchemaCache schemaCache = session.getSchemaCache();
+            long start = System.currentTimeMillis();
             try {
-                sessionDataSet = session.executeQueryStatement(sql);
-                int tsIndex = sessionDataSet.getColumnNames().indexOf(TIMESERIES);
-                int dtIndex = sessionDataSet.getColumnNames().indexOf(DATATYPE);
-                while (sessionDataSet.hasNext()) {
-                    RowRecord rowRecord = sessionDataSet.next();
-                    List<Field> fields = rowRecord.getFields();
-                    String timeseries = fields.get(tsIndex).getStringValue();
-                    String dataType = fields.get(dtIndex).getStringValue();
+                schemaCache.load(connection, deviceNames, SCHEMA_LOOKUP_THREADS);
+            } catch (StatementExecutionException | IoTDBConnectionException e) {
+                textPrinter.println(
+                    "Meet error when query the type of timeseries because " + e.getMessage());
+                cancelImport();
+                return;
+            }
+            if (deviceNames.size() > 1) {
+                textPrinter.printf("Schema of %d devices resolved in %d ms%n", deviceNames.size(), System.currentTimeMillis() - start);
+            }
+            for (String deviceName : deviceNames) {
+                Map<String, TSDataType> measurementTypes = schemaCache.get(deviceName);
+                if (measurementTypes == null) {
+                    continue;
+                }
+                measurementTypes.forEach((measurement, type) -> {
                     if (Objects.equals(alignedType, "Time")) {
-                        headerTypeMap.put(timeseries, getType(dataType));
+                        headerTypeMap.put(deviceName + TsFileConstant.PATH_SEPARATOR + measurement, type);
                     } else if (Objects.equals(alignedType, deviceColumn)) {
-                        String[] split = PathUtils.splitPathToDetachedNodes(timeseries);
-                        String measurement = split[split.length - 1];
-                        headerTypeMap.put(measurement, getType(dataType));
+                        headerTypeMap.put(measurement, type);
                     }
+                });
+            }
+        }
+
+        /**
+         * Index of each header name, the last one of duplicate names wins like in the header map of Commons CSV.
+         */
+        private Map<String, Integer> headerIndexes(List<String> headerNames) {
+            Map<String, Integer> headerIndexes = new HashMap<>();
+            for (int i = 0; i < headerNames.size(); i++) {
+                headerIndexes.put(headerNames.get(i), i);
+            }
+            return headerIndexes;
+        }
+
+        /**
+         * parse deviceNames, measurementNames(aligned by time), headerType from headers
+         *
+         * @param headerNames
+         * @param deviceAndMeasurementNames
+         * @param headerTypeMap
+         * @param headerNameMap
+         */
+        private void parseHeaders(
+            List<String> headerNames,
+            @Nullable HashMap<String, List<String>> deviceAndMeasurementNames,
+            HashMap<String, TSDataType> headerTypeMap,
+            HashMap<String, String> headerNameMap)
+            throws IllegalPathException {
+            String regex = "(?<=\\()\\S+(?=\\))";
+            Pattern pattern = Pattern.compile(regex);
+            for (String headerName : headerNames) {
+                if ("Time".equalsIgnoreCase(filterBomHeader(headerName))) {
+                    timeColumn = headerName;
+                    continue;
+                } else if ("Device".equalsIgnoreCase(headerName)) {
+                    deviceColumn = headerName;
+                    continue;
+                }
+                Matcher matcher = pattern.matcher(headerName);
+                String type;
+                String headerNameWithoutType;
+                if (matcher.find()) {
+                    type = matcher.group();
+                    headerNameWithoutType = headerName.replace("(" + type + ")", "").replaceAll("\\s+", "");
+                    headerNameMap.put(headerNameWithoutType, headerName);
+                    headerTypeMap.put(headerNameWithoutType, getType(type));
+                } else {
+                    headerNameWithoutType = headerName;
+                    headerNameMap.put(headerName, headerName);
+                }
+                String[] split = PathUtils.splitPathToDetachedNodes(headerNameWithoutType);
+                String measurementName = split[split.length - 1];
+                String deviceName = StringUtils.join(Arrays.copyOfRange(split, 0, split.length - 1), '.');
+                if (deviceAndMeasurementNames != null) {
+                    deviceAndMeasurementNames.putIfAbsent(deviceName, new ArrayList<>());
+                    deviceAndMeasurementNames.get(deviceName).add(measurementName);
                 }
-            } catch (StatementExecutionException | IoTDBConnectionException | IllegalPathException e) {
-                textPrinter.println(
-                    "Meet error when query the type of timeseries because " + e.getMessage());
-                cancelImport();
             }
         }
     }
 
     /**
-     * read data from the CSV file
+     * Opens the records of the CSV file from the checkpoint on, or from the start without one. Files are
+     * read as UTF-8 by the {@link CsvTokenizer}, the charset the export writes.
      *
-     * @param path
-     * @return CSVParser csv parser
-     * @throws IOException when reading the csv file failed.
+     * @param compressedBytes gets the bytes read from a gzip file
      */
-    private CSVParser readCsvFile(String path) throws IOException {
-        return CSVFormat.Builder.create(CSVFormat.DEFAULT)
-            .setHeader()
-            .setSkipHeaderRecord(true)
-            .setQuote('`')
-            .setEscape('\\')
-            .setIgnoreEmptyLines(true)
-            .build()
-            .parse(new InputStreamReader(new FileInputStream(path)));
+    private CsvRowReader openCsvFile(ImportSource source, @Nullable ImportCheckpoint checkpoint,
+                                     @Nullable LongConsumer compressedBytes) throws IOException {
+        return checkpoint == null
+            ? new CsvTokenizer(source.openChannel(compressedBytes), 0, 0)
+            : new CsvTokenizer(source.openChannel(compressedBytes), checkpoint.getCharacterPosition(), checkpoint.getRecordNumber());
     }
 
     private String filterBomHeader(String s) {
         byte[] bom = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
-        byte[] bytes = Arrays.copyOf(s.getBytes(), 3);
+        byte[] bytes = Arrays.copyOf(s.getBytes(StandardCharsets.UTF_8), 3);
         if (Arrays.equals(bom, bytes)) {
             return s.substring(1);
         }
         return s;
     }
 
-    /**
-     * parse deviceNames, measurementNames(aligned by time), headerType from headers
-     *
-     * @param headerNames
-     * @param deviceAndMeasurementNames
-     * @param headerTypeMap
-     * @param headerNameMap
-     */
-    private void parseHeaders(
-        List<String> headerNames,
-        @Nullable HashMap<String, List<String>> deviceAndMeasurementNames,
-        HashMap<String, TSDataType> headerTypeMap,
-        HashMap<String, String> headerNameMap)
-        throws IllegalPathException {
-        String regex = "(?<=\\()\\S+(?=\\))";
-        Pattern pattern = Pattern.compile(regex);
-        for (String headerName : headerNames) {
-            if ("Time".equalsIgnoreCase(filterBomHeader(headerName))) {
-                timeColumn = headerName;
-                continue;
-            } else if ("Device".equalsIgnoreCase(headerName)) {
-                deviceColumn = headerName;
-                continue;
-            }
-            Matcher matcher = pattern.matcher(headerName);
-            String type;
-            String headerNameWithoutType;
-            if (matcher.find()) {
-                type = matcher.group();
-                headerNameWithoutType = headerName.replace("(" + type + ")", "").replaceAll("\\s+", "");
-                headerNameMap.put(headerNameWithoutType, headerName);
-                headerTypeMap.put(headerNameWithoutType, getType(type));
-            } else {
-                headerNameWithoutType = headerName;
-                headerNameMap.put(headerName, headerName);
-            }
-            String[] split = PathUtils.splitPathToDetachedNodes(headerNameWithoutType);
-            String measurementName = split[split.length - 1];
-            String deviceName = StringUtils.join(Arrays.copyOfRange(split, 0, split.length - 1), '.');
-            if (deviceAndMeasurementNames != null) {
-                deviceAndMeasurementNames.putIfAbsent(deviceName, new ArrayList<>());
-                deviceAndMeasurementNames.get(deviceName).add(measurementName);
-            }
-        }
-    }
-
     /**
      * return the TSDataType
      *
@@ -924,55 +1425,12 @@ public class DataImport extends TabPanel {
     }
 
     private boolean isConvertFloatPrecisionLack(String s) {
-        return Long.parseLong(s) > (2 << 24);
-    }
-
-    /**
-     * @param value
-     * @param type
-     * @return
-     */
-    private Object typeTrans(String value, TSDataType type) {
-        try {
-            switch (type) {
-                case TEXT:
-                case STRING:
-                    if (value.startsWith("\"") && value.endsWith("\"")) {
-                        return value.substring(1, value.length() - 1);
-                    }
-                    return value;
-                case BOOLEAN:
-                    if (!"true".equalsIgnoreCase(value) && !"false".equalsIgnoreCase(value)) {
-                        return null;
-                    }
-                    return Boolean.parseBoolean(value);
-                case INT32:
-                    return Integer.parseInt(value);
-                case INT64:
-                    return Long.parseLong(value);
-                case FLOAT:
-                    return Float.parseFloat(value);
-                case DOUBLE:
-                    return Double.parseDouble(value);
-                case TIMESTAMP:
-                case DATE:
-                case BLOB:
-                default:
-                    return null;
-            }
-        } catch (NumberFormatException e) {
-            return null;
-        }
-    }
-
-    private long parseTimestamp(String str) {
-        long timestamp;
         try {
-            timestamp = Long.parseLong(str);
+            return Long.parseLong(s) > (2 << 24);
         } catch (NumberFormatException e) {
-            timestamp = DateTimeUtils.convertDatetimeStrToLong(str, zoneId, timestampPrecision);
+            // exponents and integers beyond long
+            return true;
         }
-        return timestamp;
     }
 
     /**
@@ -1032,7 +1490,7 @@ public class DataImport extends TabPanel {
      */
     private void $$$setupUI$$$() {
         rootPanel = new JPanel();
-        rootPanel.setLayout(new FormLayout("fill:d:noGrow,left:4dlu:noGrow,fill:p:noGrow,left:4dlu:noGrow,fill:p:noGrow,fill:max(d;4px):grow", "center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:25dlu:noGrow,top:4dlu:noGrow,center:max(d;4px):grow,top:4dlu:noGrow,center:max(d;4px):noGrow"));
+        rootPanel.setLayout(new FormLayout("fill:d:noGrow,left:4dlu:noGrow,fill:p:noGrow,left:4dlu:noGrow,fill:p:noGrow,fill:max(d;4px):grow", "center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:25dlu:noGrow,top:4dlu:noGrow,center:max(d;4px):grow,top:4dlu:noGrow,center:max(d;4px):noGrow"));
         rootPanel.setBorder(BorderFactory.createTitledBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10), null, TitledBorder.DEFAULT_JUSTIFICATION, TitledBorder.DEFAULT_POSITION, null, null));
         fileOrDirectoryLabel = new JLabel();
         fileOrDirectoryLabel.setHorizontalAlignment(11);
@@ -1044,15 +1502,21 @@ public class DataImport extends TabPanel {
         linesPerFailedFileLabel = new JLabel();
         linesPerFailedFileLabel.setHorizontalAlignment(11);
         linesPerFailedFileLabel.setText("Lines Per Failed File");
-        rootPanel.add(linesPerFailedFileLabel, cc.xy(1, 11));
+        rootPanel.add(linesPerFailedFileLabel, cc.xy(1, 21));
         linesPerFailedFileField = new JSpinner();
-        rootPanel.add(linesPerFailedFileField, cc.xy(3, 11, CellConstraints.FILL, CellConstraints.DEFAULT));
+        rootPanel.add(linesPerFailedFileField, cc.xy(3, 21, CellConstraints.FILL, CellConstraints.DEFAULT));
+        maxFailedRecordsLabel = new JLabel();
+        maxFailedRecordsLabel.setHorizontalAlignment(11);
+        maxFailedRecordsLabel.setText("Max Failed Records");
+        rootPanel.add(maxFailedRecordsLabel, cc.xy(1, 23));
+        maxFailedRecordsField = new JSpinner();
+        rootPanel.add(maxFailedRecordsField, cc.xy(3, 23, CellConstraints.FILL, CellConstraints.DEFAULT));
         outputLabel = new JLabel();
         outputLabel.setHorizontalAlignment(11);
         outputLabel.setText("Output");
-        rootPanel.add(outputLabel, cc.xy(1, 15, CellConstraints.DEFAULT, CellConstraints.TOP));
+        rootPanel.add(outputLabel, cc.xy(1, 27, CellConstraints.DEFAULT, CellConstraints.TOP));
         final JScrollPane scrollPane1 = new JScrollPane();
-        rootPanel.add(scrollPane1, cc.xyw(3, 15, 4, CellConstraints.FILL, CellConstraints.FILL));
+        rootPanel.add(scrollPane1, cc.xyw(3, 27, 4, CellConstraints.FILL, CellConstraints.FILL));
         outputArea = new JTextArea();
         outputArea.setEditable(false);
         scrollPane1.setViewportView(outputArea);
@@ -1062,14 +1526,14 @@ public class DataImport extends TabPanel {
         defaultComboBoxModel1.addElement("ns");
         defaultComboBoxModel1.addElement("us");
         timePrecisionField.setModel(defaultComboBoxModel1);
-        rootPanel.add(timePrecisionField, cc.xy(3, 9));
+        rootPanel.add(timePrecisionField, cc.xy(3, 19));
         timePrecisionLabel = new JLabel();
         timePrecisionLabel.setHorizontalAlignment(11);
         timePrecisionLabel.setText("Time Precision");
-        rootPanel.add(timePrecisionLabel, cc.xy(1, 9));
+        rootPanel.add(timePrecisionLabel, cc.xy(1, 19));
         executeButton = new JButton();
         executeButton.setText("Execute");
-        rootPanel.add(executeButton, cc.xy(3, 17));
+        rootPanel.add(executeButton, cc.xy(3, 29));
         failedDirectoryLabel = new JLabel();
         failedDirectoryLabel.setHorizontalAlignment(11);
         failedDirectoryLabel.setText("Failed Directory");
@@ -1079,11 +1543,14 @@ public class DataImport extends TabPanel {
         alignedCheckBox = new JCheckBox();
         alignedCheckBox.setText("Aligned");
         rootPanel.add(alignedCheckBox, cc.xy(3, 5));
+        resumeCheckBox = new JCheckBox();
+        resumeCheckBox.setText("Resume");
+        rootPanel.add(resumeCheckBox, cc.xy(5, 5));
         typeInferenceRulesLabel = new JLabel();
         typeInferenceRulesLabel.setText("Type Inference Rules");
-        rootPanel.add(typeInferenceRulesLabel, cc.xy(1, 13, CellConstraints.DEFAULT, CellConstraints.TOP));
+        rootPanel.add(typeInferenceRulesLabel, cc.xy(1, 25, CellConstraints.DEFAULT, CellConstraints.TOP));
         final JScrollPane scrollPane2 = new JScrollPane();
-        rootPanel.add(scrollPane2, cc.xyw(3, 13, 4, CellConstraints.FILL, CellConstraints.FILL));
+        rootPanel.add(scrollPane2, cc.xyw(3, 25, 4, CellConstraints.FILL, CellConstraints.FILL));
         rulesArea = new JTextArea();
         scrollPane2.setViewportView(rulesArea);
         batchSizeLabel = new JLabel();
@@ -1092,6 +1559,38 @@ public class DataImport extends TabPanel {
         rootPanel.add(batchSizeLabel, cc.xy(1, 7));
         batchSizeField = new JSpinner();
         rootPanel.add(batchSizeField, cc.xy(3, 7, CellConstraints.FILL, CellConstraints.DEFAULT));
+        targetLatencyLabel = new JLabel();
+        targetLatencyLabel.setHorizontalAlignment(11);
+        targetLatencyLabel.setText("Target Latency (ms)");
+        rootPanel.add(targetLatencyLabel, cc.xy(1, 9));
+        targetLatencyField = new JSpinner();
+        rootPanel.add(targetLatencyField, cc.xy(3, 9, CellConstraints.FILL, CellConstraints.DEFAULT));
+        batchSizeRangeLabel = new JLabel();
+        batchSizeRangeLabel.setHorizontalAlignment(11);
+        batchSizeRangeLabel.setText("Batch Size Range");
+        rootPanel.add(batchSizeRangeLabel, cc.xy(1, 11));
+        minBatchSizeField = new JSpinner();
+        rootPanel.add(minBatchSizeField, cc.xy(3, 11, CellConstraints.FILL, CellConstraints.DEFAULT));
+        maxBatchSizeField = new JSpinner();
+        rootPanel.add(maxBatchSizeField, cc.xy(5, 11, CellConstraints.FILL, CellConstraints.DEFAULT));
+        writerThreadsLabel = new JLabel();
+        writerThreadsLabel.setHorizontalAlignment(11);
+        writerThreadsLabel.setText("Writer Threads");
+        rootPanel.add(writerThreadsLabel, cc.xy(1, 13));
+        writerThreadsField = new JSpinner();
+        rootPanel.add(writerThreadsField, cc.xy(3, 13, CellConstraints.FILL, CellConstraints.DEFAULT));
+        fileThreadsLabel = new JLabel();
+        fileThreadsLabel.setHorizontalAlignment(11);
+        fileThreadsLabel.setText("File Threads");
+        rootPanel.add(fileThreadsLabel, cc.xy(1, 15));
+        fileThreadsField = new JSpinner();
+        rootPanel.add(fileThreadsField, cc.xy(3, 15, CellConstraints.FILL, CellConstraints.DEFAULT));
+        inferenceRowsLabel = new JLabel();
+        inferenceRowsLabel.setHorizontalAlignment(11);
+        inferenceRowsLabel.setText("Inference Rows");
+        rootPanel.add(inferenceRowsLabel, cc.xy(1, 17));
+        inferenceRowsField = new JSpinner();
+        rootPanel.add(inferenceRowsField, cc.xy(3, 17, CellConstraints.FILL, CellConstraints.DEFAULT));
     }
 
     /**
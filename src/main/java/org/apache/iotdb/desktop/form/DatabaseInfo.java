@@ -8,6 +8,7 @@ import org.apache.iotdb.desktop.model.Database;
 import org.apache.iotdb.desktop.model.QueryResult;
 import org.apache.iotdb.desktop.model.Session;
 import org.apache.iotdb.desktop.util.Utils;
+import org.apache.tsfile.enums.TSDataType;
 
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
@@ -68,16 +69,15 @@ public class DatabaseInfo extends TabPanel {
                 QueryResult result = database.getSession().query("show devices " + database.getName() + ".**",
                     Configuration.instance().options().isLogInternalSql()
                 );
-                result.getColumns().add("MetricCount");
-                result.getColumnTypes().add("INT32");
-                result.getDatas().forEach(row -> {
+                int countColumn = result.addColumn("MetricCount", TSDataType.INT32);
+                for (int row = 0; row < result.getRowCount(); row++) {
                     try {
-                        int count = database.getSession().countOne("count timeseries " + row.get("Device") + ".**");
-                        row.put("MetricCount", count);
+                        int count = database.getSession().countOne("count timeseries " + result.getValue(row, "Device") + ".**");
+                        result.setValue(row, countColumn, count);
                     } catch (Exception e) {
-                        row.put("MetricCount", 0);
+                        result.setValue(row, countColumn, 0);
                     }
-                });
+                }
                 return result.columnNamesLocalization();
             }
         };
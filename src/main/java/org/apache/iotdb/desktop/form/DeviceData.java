@@ -3,6 +3,7 @@ package org.apache.iotdb.desktop.form;
 import cn.hutool.core.util.StrUtil;
 import com.jgoodies.forms.layout.CellConstraints;
 import com.jgoodies.forms.layout.FormLayout;
+import org.apache.iotdb.desktop.component.PagePrefetcher;
 import org.apache.iotdb.desktop.component.QueryResultTable;
 import org.apache.iotdb.desktop.component.QueryResultTableModel;
 import org.apache.iotdb.desktop.component.SingleLineBorder;
@@ -27,6 +28,8 @@ import javax.swing.event.RowSorterEvent;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
 import java.util.List;
 
 public class DeviceData extends TabPanel {
@@ -49,7 +52,17 @@ public class DeviceData extends TabPanel {
 
     private long limit;
     private long offset = 0;
-    private long total = 0;
+    /**
+     * Cached row count, {@code null} until the background count has finished.
+     */
+    private Long total;
+    private SwingWorker<Long, Void> countWorker;
+    /**
+     * Time of the last loaded row, pages sorted by time continue from it instead of skipping an offset.
+     */
+    private Long lastTimestamp;
+    private boolean lastPageFull = false;
+    private final PagePrefetcher prefetcher = new PagePrefetcher();
     private String sortColumn;
     private String sortOrder;
 
@@ -71,6 +84,7 @@ public class DeviceData extends TabPanel {
         Utils.UI.buttonText(nextPageButton, LangUtil.getString("NextPage"));
         Utils.UI.buttonText(showAllButton, LangUtil.getString("ShowAll"));
 
+        loadTotal();
         loadDeviceData(false);
     }
 
@@ -137,67 +151,159 @@ public class DeviceData extends TabPanel {
                 if (!options.getTheme().equals(oldOptions.getTheme())) {
                     topPanel.setBorder(new SingleLineBorder(UIManager.getColor("Component.borderColor"), false, false, true, false));
                 }
+                if (!options.isEditorPrefetch() || options.isEditorAligned() != oldOptions.isEditorAligned()) {
+                    prefetcher.cancel();
+                }
             }
         };
         AppEvents.instance().addEventListener(appEventListener);
+
+        addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentHidden(ComponentEvent e) {
+                prefetcher.cancel();
+            }
+        });
     }
 
     private void updatePagingInfo() {
-        if (dataModel.getDataSize() < total) {
-            pagingLabel.setText(LangUtil.format("LimitedPagingInfo", total, defaultPageSize, offset + defaultPageSize));
-            nextPageButton.setEnabled(true);
-            showAllButton.setEnabled(true);
+        int loaded = dataModel.getDataSize();
+        boolean hasMore = limit > 0 && (total != null ? loaded < total : lastPageFull);
+        if (hasMore) {
+            if (total != null) {
+                pagingLabel.setText(LangUtil.format("LimitedPagingInfo", total, defaultPageSize, loaded));
+            } else {
+                pagingLabel.setText(LangUtil.format("CountingPagingInfo", defaultPageSize, loaded));
+            }
         } else {
-            pagingLabel.setText(LangUtil.format("FullPagingInfo", total));
-            nextPageButton.setEnabled(false);
-            showAllButton.setEnabled(false);
+            pagingLabel.setText(LangUtil.format("FullPagingInfo", total != null ? total : loaded));
+        }
+        nextPageButton.setEnabled(hasMore);
+        showAllButton.setEnabled(hasMore);
+    }
+
+    /**
+     * Counts the rows once in the background, paging does not wait for it.
+     */
+    private void loadTotal() {
+        total = null;
+        countWorker = new SwingWorker<>() {
+            @Override
+            protected void done() {
+                if (countWorker != this) {
+                    return;
+                }
+                countWorker = null;
+                try {
+                    total = get();
+                    updatePagingInfo();
+                } catch (Exception ex) {
+                    Utils.Message.error(ex.getMessage(), ex);
+                }
+            }
+
+            @Override
+            protected Long doInBackground() throws Exception {
+                return device.getSession().countRows(device, true);
+            }
+        };
+        countWorker.execute();
+    }
+
+    private boolean isTimeOrdered() {
+        return sortOrder == null || "Time".equalsIgnoreCase(sortColumn);
+    }
+
+    /**
+     * Builds the query of the page starting after cursor, or at pageOffset when paging by offset.
+     */
+    private String buildPageSql(Long cursor, long pageOffset) {
+        boolean keyset = limit > 0 && isTimeOrdered();
+        StringBuilder sql = new StringBuilder();
+        sql.append("select * from ")
+            .append(device.getDatabase())
+            .append(".")
+            .append(device.getName());
+
+        if (keyset && cursor != null) {
+            sql.append(" where time ")
+                .append("desc".equals(sortOrder) ? "<" : ">")
+                .append(" ")
+                .append(cursor);
+        }
+        if (sortOrder != null) {
+            sql.append(" order by ").append(sortColumn).append(" ").append(sortOrder);
+        }
+        if (limit > 0) {
+            sql.append(" limit ").append(defaultPageSize);
+            if (!keyset) {
+                sql.append(" offset ").append(pageOffset);
+            }
         }
+        if (defaultAligned) {
+            sql.append(" align by device");
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Loads the next page in the background when prefetching is enabled, next page reuses it if nothing changed meanwhile.
+     */
+    private void prefetchNextPage() {
+        if (!Configuration.instance().options().isEditorPrefetch() || !nextPageButton.isEnabled()) {
+            return;
+        }
+        String sql = buildPageSql(lastTimestamp, offset + defaultPageSize);
+        prefetcher.prefetch(sql, () -> device.getSession().query(sql, true));
     }
 
     private void loadDeviceData(final boolean clearPreviousResult) {
+        if (clearPreviousResult) {
+            lastTimestamp = null;
+            prefetcher.cancel();
+        }
+        final String sql = buildPageSql(lastTimestamp, offset);
+        pagingLabel.setText(LangUtil.getString("Loading"));
+        // the next page starts after the last row loaded, it is known once this page is done
+        nextPageButton.setEnabled(false);
+        showAllButton.setEnabled(false);
         SwingWorker<QueryResult, Integer> worker = new SwingWorker<>() {
             @Override
             protected void done() {
                 try {
+                    QueryResult result = get();
                     if (clearPreviousResult && dataModel.hasResult()) {
                         dataModel.clear();
                     }
-                    dataModel.appendResult(get());
+                    dataModel.appendResult(result);
+                    if (!result.hasException()) {
+                        lastPageFull = limit > 0 && result.getRowCount() >= defaultPageSize;
+                        if (result.getRowCount() > 0) {
+                            lastTimestamp = result.getTimestamp(result.getRowCount() - 1);
+                        }
+                    }
                     updatePagingInfo();
                     if (sortOrder != null) {
                         int col = dataTable.convertColumnIndexToView(dataModel.getColumnIndex(sortColumn));
                         dataTable.setSortOrder(col, "desc".equals(sortOrder) ? SortOrder.DESCENDING : SortOrder.ASCENDING);
                     }
                     Utils.autoResizeTableColumns(dataTable, 400);
+                    if (!result.hasException()) {
+                        prefetchNextPage();
+                    }
                 } catch (Exception ex) {
+                    updatePagingInfo();
                     Utils.Message.error(ex.getMessage(), ex);
                 }
             }
 
             @Override
             protected QueryResult doInBackground() throws Exception {
-                pagingLabel.setText(LangUtil.getString("Loading"));
-
-                total = device.getSession().countRows(device, true);
-
-                StringBuilder sql = new StringBuilder();
-                sql.append("select * from ")
-                    .append(device.getDatabase())
-                    .append(".")
-                    .append(device.getName());
-
-                if (sortOrder != null) {
-                    sql.append(" order by ").append(sortColumn).append(" ").append(sortOrder);
-                }
-                if (limit > 0) {
-                    sql.append(" limit ").append(defaultPageSize)
-                        .append(" offset ").append(offset);
-                }
-                if (defaultAligned) {
-                    sql.append(" align by device");
+                QueryResult prefetched = prefetcher.take(sql);
+                if (prefetched != null) {
+                    return prefetched;
                 }
-
-                return device.getSession().query(sql.toString(), true);
+                return device.getSession().query(sql, true);
             }
         };
         worker.execute();
@@ -249,10 +355,21 @@ public class DeviceData extends TabPanel {
     }
 
     private void removeDeviceDatas(long[] timestamps) {
+        // a count running while rows are deleted may or may not include them
+        final boolean counting = countWorker != null;
         SwingWorker<Exception, Integer> worker = new SwingWorker<>() {
+            // rows deleted so far, the paging state is adjusted on the EDT once the deletes are done
+            private int deleted = 0;
+
             @Override
             protected void done() {
                 try {
+                    offset = Math.max(0, offset - deleted);
+                    if (counting || countWorker != null) {
+                        loadTotal();
+                    } else if (total != null) {
+                        total -= deleted;
+                    }
                     Exception exception = get();
                     if (exception != null) {
                         Utils.Message.error(exception.getMessage(), exception);
@@ -275,8 +392,7 @@ public class DeviceData extends TabPanel {
                             .append(".* where time = ")
                             .append(timestamp);
                         device.getSession().execute(deleteSql.toString());
-                        total--;
-                        offset--;
+                        deleted++;
                     }
                     return null;
                 } catch (Exception e) {
@@ -305,11 +421,14 @@ public class DeviceData extends TabPanel {
     @Override
     public void refresh() {
         offset = 0;
+        loadTotal();
         loadDeviceData(true);
     }
 
     @Override
     public void dispose() {
+        countWorker = null;
+        prefetcher.cancel();
         if (appEventListener != null) {
             AppEvents.instance().removeEventListener(appEventListener);
         }
@@ -1,6 +1,5 @@
 package org.apache.iotdb.desktop.form;
 
-import cn.hutool.core.date.DateUtil;
 import cn.hutool.core.io.FileUtil;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.intellij.uiDesigner.core.GridConstraints;
@@ -11,7 +10,6 @@ import com.jgoodies.forms.layout.FormLayout;
 import org.apache.iotdb.desktop.IotdbDesktopApp;
 import org.apache.iotdb.desktop.component.QueryResultTable;
 import org.apache.iotdb.desktop.component.QueryResultTableModel;
-import org.apache.iotdb.desktop.config.Configuration;
 import org.apache.iotdb.desktop.util.LangUtil;
 import org.apache.iotdb.desktop.util.Utils;
 import org.apache.iotdb.tool.data.CSVPrinterWrapper;
@@ -98,28 +96,16 @@ public class ExportDialog extends JDialog {
         LangUtil.buttonText(closeButton, "&Close");
     }
 
-    private List<Map<String, Object>> getExportingRows() {
-        List<Map<String, Object>> exportingRows;
+    private int[] getExportingRows() {
         if (selectionRadio.isSelected()) {
-            int[] rows = table.getSelectedRows();
-            exportingRows = Arrays.stream(rows)
-                    .map(table::convertColumnIndexToModel)
-                    .mapToObj(i -> tableModel.getResult().getDatas().get(i))
-                    .toList();
+            return Arrays.stream(table.getSelectedRows())
+                    .map(table::convertRowIndexToModel)
+                    .toArray();
         } else {
-            exportingRows = tableModel.getResult().getDatas();
+            int[] rows = new int[tableModel.getResult().getRowCount()];
+            Arrays.setAll(rows, i -> i);
+            return rows;
         }
-        exportingRows.forEach(row -> {
-            row.entrySet().forEach((entry) -> {
-                if (entry.getKey().equalsIgnoreCase("Time") && entry.getValue() != null) {
-                    try {
-                        entry.setValue(DateUtil.format(new Date((Long) entry.getValue()), Configuration.instance().options().getTimeFormat()));
-                    } catch (Exception ignored) {
-                    }
-                }
-            });
-        });
-        return exportingRows;
     }
 
     private void exportToJson() {
@@ -151,7 +137,9 @@ public class ExportDialog extends JDialog {
             textPrinter.println(LangUtil.format("ExportTargetFormat", "JSON"));
             try {
                 startButton.setEnabled(false);
-                List<Map<String, Object>> exportingRows = getExportingRows();
+                List<Map<String, Object>> exportingRows = Arrays.stream(getExportingRows())
+                        .mapToObj(tableModel::getFormattedRow)
+                        .toList();
                 FileUtil.writeString(Utils.JSON.toString(exportingRows), file, StandardCharsets.UTF_8);
                 textPrinter.println(LangUtil.format("SuccessfullyExportedRows", exportingRows.size()));
             } catch (JsonProcessingException ex) {
@@ -196,23 +184,24 @@ public class ExportDialog extends JDialog {
                     csvPrinter.printRecord(columnNames);
                 }
                 // data
-                List<Map<String, Object>> exportingRows = getExportingRows();
-                for (Map<String, Object> data : exportingRows) {
-                    final Map<String, Object> rowData = data;
-                    csvPrinter.printRecord(
-                            columnNames.stream().map(columnName -> {
-                                Object cellValue = rowData.get(columnName);
-                                String stringValue = cellValue == null ? "" : cellValue.toString();
-                                if (removeLinebreaksCheckBox.isSelected()) {
-                                    stringValue = stringValue.replaceAll("\n", "");
-                                }
-                                return stringValue;
-                            }).toList()
-                    );
+                int[] exportingRows = getExportingRows();
+                boolean removeLinebreaks = removeLinebreaksCheckBox.isSelected();
+                List<String> record = new ArrayList<>(columnNames.size());
+                for (int row : exportingRows) {
+                    record.clear();
+                    for (int column = 0; column < columnNames.size(); column++) {
+                        Object cellValue = tableModel.getFormattedValue(row, column);
+                        String stringValue = cellValue == null ? "" : cellValue.toString();
+                        if (removeLinebreaks) {
+                            stringValue = stringValue.replaceAll("\n", "");
+                        }
+                        record.add(stringValue);
+                    }
+                    csvPrinter.printRecord(record);
                 }
                 csvPrinter.flush();
                 csvPrinter.close();
-                textPrinter.println(LangUtil.format("SuccessfullyExportedRows", exportingRows.size()));
+                textPrinter.println(LangUtil.format("SuccessfullyExportedRows", exportingRows.length));
             } catch (Exception ex) {
                 textPrinter.printException(ex);
                 startButton.setEnabled(true);
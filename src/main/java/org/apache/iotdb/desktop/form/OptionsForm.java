@@ -66,6 +66,7 @@ public class OptionsForm extends JDialog {
     private JLabel rowsPerPageLabel;
     private JLabel orderByTimeLabel;
     private JCheckBox alwaysAlignByDeviceCheckBox;
+    private JCheckBox prefetchNextPageCheckBox;
     private JCheckBox flattenDeviceNodesCheckBox;
 
     public static void open() {
@@ -130,6 +131,8 @@ public class OptionsForm extends JDialog {
         alwaysAlignByDeviceCheckBox.setText(LangUtil.getString("AlwaysAlignByDevice"));
         orderByTimeLabel.setText(LangUtil.getString("OrderByTime"));
         rowsPerPageLabel.setText(LangUtil.getString("RowsPerPage"));
+        prefetchNextPageCheckBox.setText(LangUtil.getString("PrefetchNextPage"));
+        prefetchNextPageCheckBox.setToolTipText("<html>" + LangUtil.getString("PrefetchNextPageToolTip") + "</html>");
 
         LangUtil.buttonText(buttonOK, "&Ok");
         LangUtil.buttonText(buttonCancel, "&Cancel");
@@ -224,6 +227,10 @@ public class OptionsForm extends JDialog {
         boolean editorAligned = Configuration.instance().options().isEditorAligned();
         alwaysAlignByDeviceCheckBox.setSelected(editorAligned);
         alwaysAlignByDeviceCheckBox.addActionListener(e -> optionsChanged = true);
+
+        boolean editorPrefetch = Configuration.instance().options().isEditorPrefetch();
+        prefetchNextPageCheckBox.setSelected(editorPrefetch);
+        prefetchNextPageCheckBox.addActionListener(e -> optionsChanged = true);
     }
 
     private Set<String> loadMonospaceFonts() {
@@ -260,6 +267,7 @@ public class OptionsForm extends JDialog {
             Configuration.instance().options().setEditorPageSize((int) pageSizeField.getValue());
             Configuration.instance().options().setEditorSortOrder(descRadioButton.isSelected() ? "desc" : "asc");
             Configuration.instance().options().setEditorAligned(alwaysAlignByDeviceCheckBox.isSelected());
+            Configuration.instance().options().setEditorPrefetch(prefetchNextPageCheckBox.isSelected());
 
             ThemeUtil.setupTheme();
             Configuration.instance().saveOptions();
@@ -352,13 +360,13 @@ public class OptionsForm extends JDialog {
         label1.setText("ms");
         panel2.add(label1, cc.xy(7, 7));
         final JPanel panel3 = new JPanel();
-        panel3.setLayout(new FormLayout("fill:max(p;60dlu):noGrow,left:4dlu:noGrow,fill:p:noGrow,left:p:noGrow,fill:p:noGrow,left:4dlu:noGrow,fill:p:noGrow,left:4dlu:noGrow,fill:p:grow", "center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:d:noGrow"));
+        panel3.setLayout(new FormLayout("fill:max(p;60dlu):noGrow,left:4dlu:noGrow,fill:p:noGrow,left:p:noGrow,fill:p:noGrow,left:4dlu:noGrow,fill:p:noGrow,left:4dlu:noGrow,fill:p:grow", "center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:d:noGrow"));
         tabbedPane.addTab("Other", panel3);
         panel3.setBorder(BorderFactory.createTitledBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10), null, TitledBorder.DEFAULT_JUSTIFICATION, TitledBorder.DEFAULT_POSITION, null, null));
         timeFormatLabel = new JLabel();
         timeFormatLabel.setHorizontalAlignment(11);
         timeFormatLabel.setText("Time Format");
-        panel3.add(timeFormatLabel, cc.xy(1, 17));
+        panel3.add(timeFormatLabel, cc.xy(1, 19));
         timeFormatField = new JComboBox();
         final DefaultComboBoxModel defaultComboBoxModel1 = new DefaultComboBoxModel();
         defaultComboBoxModel1.addElement("yyyy-MM-dd HH:mm:ss.SSS");
@@ -375,7 +383,7 @@ public class OptionsForm extends JDialog {
         defaultComboBoxModel1.addElement("yyyy/MM/dd HH:mm:ssz");
         defaultComboBoxModel1.addElement("timestamp");
         timeFormatField.setModel(defaultComboBoxModel1);
-        panel3.add(timeFormatField, cc.xyw(3, 17, 7));
+        panel3.add(timeFormatField, cc.xyw(3, 19, 7));
         autoLoadDeviceNodesCheckBox = new JCheckBox();
         autoLoadDeviceNodesCheckBox.setText("Auto Load Device Nodes");
         panel3.add(autoLoadDeviceNodesCheckBox, cc.xyw(3, 1, 7));
@@ -386,13 +394,13 @@ public class OptionsForm extends JDialog {
         sqlLogLabel = new JLabel();
         sqlLogLabel.setHorizontalAlignment(11);
         sqlLogLabel.setText("SQL Log");
-        panel3.add(sqlLogLabel, cc.xy(1, 13));
+        panel3.add(sqlLogLabel, cc.xy(1, 15));
         logInternalSQLCheckBox = new JCheckBox();
         logInternalSQLCheckBox.setText("Log Internal SQL");
-        panel3.add(logInternalSQLCheckBox, cc.xyw(3, 13, 7));
+        panel3.add(logInternalSQLCheckBox, cc.xyw(3, 15, 7));
         addTimestampToLogsCheckBox = new JCheckBox();
         addTimestampToLogsCheckBox.setText("Add Timestamp to All Log Messages");
-        panel3.add(addTimestampToLogsCheckBox, cc.xyw(3, 15, 7));
+        panel3.add(addTimestampToLogsCheckBox, cc.xyw(3, 17, 7));
         dblClickOpenDeviceDataCheckBox = new JCheckBox();
         dblClickOpenDeviceDataCheckBox.setText("Double Click The Device Node To Open The Data Editor");
         panel3.add(dblClickOpenDeviceDataCheckBox, cc.xyw(3, 3, 7));
@@ -413,6 +421,9 @@ public class OptionsForm extends JDialog {
         alwaysAlignByDeviceCheckBox = new JCheckBox();
         alwaysAlignByDeviceCheckBox.setText("Always Align By Device");
         panel3.add(alwaysAlignByDeviceCheckBox, cc.xyw(5, 7, 5));
+        prefetchNextPageCheckBox = new JCheckBox();
+        prefetchNextPageCheckBox.setText("Prefetch Next Page");
+        panel3.add(prefetchNextPageCheckBox, cc.xyw(5, 13, 5));
         deviceDataLabel = new JLabel();
         deviceDataLabel.setHorizontalAlignment(11);
         deviceDataLabel.setText("Device Data");
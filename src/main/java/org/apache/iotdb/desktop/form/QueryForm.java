@@ -33,6 +33,7 @@ public class QueryForm extends TabPanel {
     private JPanel editorPanel;
     private JToolBar editorToolbar;
     private JButton executeButton;
+    private JButton stopButton;
     private JTabbedPane tabbedPanel;
     private JButton saveButton;
     private JButton openButton;
@@ -40,6 +41,7 @@ public class QueryForm extends TabPanel {
     private TextEditor sqlEditor;
     private TextEditor queryInfoEditor;
     private AppEventListener appEventListener;
+    private QueryHandle runningQuery;
 
     public QueryForm(Sessionable sessionable, boolean autoExecute) {
         super();
@@ -111,6 +113,11 @@ public class QueryForm extends TabPanel {
         executeButton.setText(LangUtil.getString("Execute"));
         executeButton.addActionListener(e -> this.executeQuery());
 
+        stopButton.setIcon(Icons.STOP);
+        stopButton.setText(LangUtil.getString("Stop"));
+        stopButton.setEnabled(false);
+        stopButton.addActionListener(e -> stopQuery());
+
         saveButton.setIcon(Icons.SAVE);
         saveButton.setText(LangUtil.getString("Save"));
         saveButton.addActionListener(e -> saveSqlAs());
@@ -164,10 +171,12 @@ public class QueryForm extends TabPanel {
 
     private void executeQuery() {
         String sql = sqlEditor.getText();
-        if (StrUtil.isNotBlank(sql)) {
+        if (StrUtil.isNotBlank(sql) && runningQuery == null) {
+            QueryHandle handle = startQuery();
             SwingWorker<List<QueryResult>, Integer> worker = new SwingWorker<>() {
                 @Override
                 protected void done() {
+                    finishQuery();
                     try {
                         displayResults(get());
                     } catch (Exception ex) {
@@ -177,7 +186,7 @@ public class QueryForm extends TabPanel {
 
                 @Override
                 protected List<QueryResult> doInBackground() {
-                    return sessionable.getSession().batchQuery(sql, true);
+                    return sessionable.getSession().batchQuery(sql, true, handle);
                 }
             };
             worker.execute();
@@ -186,10 +195,12 @@ public class QueryForm extends TabPanel {
 
     private void executeExplain(boolean withAnalyze) {
         String sql = sqlEditor.getText();
-        if (StrUtil.isNotBlank(sql)) {
+        if (StrUtil.isNotBlank(sql) && runningQuery == null) {
+            QueryHandle handle = startQuery();
             SwingWorker<List<QueryResult>, Integer> worker = new SwingWorker<>() {
                 @Override
                 protected void done() {
+                    finishQuery();
                     try {
                         displayResults(get());
                     } catch (Exception ex) {
@@ -199,13 +210,33 @@ public class QueryForm extends TabPanel {
 
                 @Override
                 protected List<QueryResult> doInBackground() {
-                    return sessionable.getSession().batchExplain(sql, withAnalyze);
+                    return sessionable.getSession().batchExplain(sql, withAnalyze, handle);
                 }
             };
             worker.execute();
         }
     }
 
+    private QueryHandle startQuery() {
+        runningQuery = new QueryHandle();
+        executeButton.setEnabled(false);
+        stopButton.setEnabled(true);
+        return runningQuery;
+    }
+
+    private void finishQuery() {
+        runningQuery = null;
+        executeButton.setEnabled(true);
+        stopButton.setEnabled(false);
+    }
+
+    private void stopQuery() {
+        if (runningQuery != null) {
+            runningQuery.cancel();
+            stopButton.setEnabled(false);
+        }
+    }
+
     public void displayResults(List<QueryResult> results) {
         StringJoiner info = new StringJoiner("\n");
         for (int i = tabbedPanel.getTabCount() - 1; i > 0; i--) {
@@ -223,6 +254,8 @@ public class QueryForm extends TabPanel {
             info.add(result.getSql());
             if (result.hasException()) {
                 info.add("-- Error: " + result.getException().getMessage());
+            } else if (result.isCancelled()) {
+                info.add("-- " + LangUtil.getString("QueryCancelled"));
             } else {
                 info.add("-- OK");
             }
@@ -299,6 +332,7 @@ public class QueryForm extends TabPanel {
 
     @Override
     public void dispose() {
+        stopQuery();
         for (int i = tabbedPanel.getTabCount() - 1; i > 0; i--) {
             Component tabComponent = tabbedPanel.getComponentAt(i);
             if (tabComponent instanceof QueryResultPanel queryResultPanel) {
@@ -334,6 +368,9 @@ public class QueryForm extends TabPanel {
         executeButton = new JButton();
         executeButton.setText("Execute");
         editorToolbar.add(executeButton);
+        stopButton = new JButton();
+        stopButton.setText("Stop");
+        editorToolbar.add(stopButton);
         final JToolBar.Separator toolBar$Separator1 = new JToolBar.Separator();
         editorToolbar.add(toolBar$Separator1);
         openButton = new JButton();
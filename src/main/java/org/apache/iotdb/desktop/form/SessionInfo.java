@@ -6,6 +6,7 @@ import org.apache.iotdb.desktop.model.QueryResult;
 import org.apache.iotdb.desktop.model.Session;
 import org.apache.iotdb.desktop.util.LangUtil;
 import org.apache.iotdb.desktop.util.Utils;
+import org.apache.tsfile.enums.TSDataType;
 import org.jdesktop.swingx.JXTable;
 import org.jdesktop.swingx.renderer.DefaultTableRenderer;
 
@@ -100,8 +101,8 @@ public class SessionInfo extends TabPanel {
                 List<PropertyTableModel.Property> properties = new ArrayList<>();
 
                 QueryResult versionResult = session.query("show version", Configuration.instance().options().isLogInternalSql());
-                if (!versionResult.getDatas().isEmpty()) {
-                    for (Map.Entry<String, Object> entry : versionResult.getDatas().get(0).entrySet()) {
+                if (versionResult.getRowCount() > 0) {
+                    for (Map.Entry<String, Object> entry : versionResult.getRow(0).entrySet()) {
                         properties.add(PropertyTableModel.Property.of(LangUtil.getString(entry.getKey()), entry.getValue().toString()));
                     }
                 }
@@ -167,16 +168,15 @@ public class SessionInfo extends TabPanel {
                     result = session.query("show databases details", Configuration.instance().options().isLogInternalSql());
                 } else {
                     result = session.query("show storage group", Configuration.instance().options().isLogInternalSql());
-                    result.getColumns().add("DeviceCount");
-                    result.getColumnTypes().add("INT32");
-                    result.getDatas().forEach(row -> {
+                    int countColumn = result.addColumn("DeviceCount", TSDataType.INT32);
+                    for (int row = 0; row < result.getRowCount(); row++) {
                         try {
-                            int count = session.countOne("count devices " + row.get("Database") + ".**");
-                            row.put("DeviceCount", count);
+                            int count = session.countOne("count devices " + result.getValue(row, "Database") + ".**");
+                            result.setValue(row, countColumn, count);
                         } catch (Exception e) {
-                            row.put("DeviceCount", 0);
+                            result.setValue(row, countColumn, 0);
                         }
-                    });
+                    }
                 }
 
                 return result.columnNamesLocalization();
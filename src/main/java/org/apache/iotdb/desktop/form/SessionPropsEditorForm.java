@@ -57,6 +57,8 @@ public class SessionPropsEditorForm extends JDialog {
     private JLabel fetchSizeLabel;
     private JLabel modelLabel;
     private JComboBox modelField;
+    private JLabel poolSizeLabel;
+    private JSpinner poolSizeField;
 
     private SessionProps editingProps;
     private final Consumer<SessionProps> consumer;
@@ -100,6 +102,9 @@ public class SessionPropsEditorForm extends JDialog {
 
         fetchSizeField.setModel(new SpinnerNumberModel(5000, 1000, 99999999, 1));
         fetchSizeField.setEditor(new JSpinner.NumberEditor(fetchSizeField, "####"));
+
+        poolSizeField.setModel(new SpinnerNumberModel(SessionProps.DEFAULT_POOL_SIZE, 1, 64, 1));
+        poolSizeField.setEditor(new JSpinner.NumberEditor(poolSizeField, "####"));
     }
 
     private void initComponentsAction() {
@@ -129,6 +134,7 @@ public class SessionPropsEditorForm extends JDialog {
         sslCheckBox.setSelected(editingProps.isUseSSL());
         fetchSizeField.setValue(editingProps.getFetchSize());
         modelField.setSelectedItem(editingProps.getSqlDialect());
+        poolSizeField.setValue(editingProps.getPoolSize());
     }
 
     public void localization() {
@@ -140,6 +146,8 @@ public class SessionPropsEditorForm extends JDialog {
         useSSL.setText(LangUtil.getString("UseSSL"));
         fetchSizeLabel.setText(LangUtil.getString("FetchSize"));
         modelLabel.setText(LangUtil.getString("SQLModel"));
+        poolSizeLabel.setText(LangUtil.getString("PoolSize"));
+        Utils.UI.tooltip(poolSizeLabel, LangUtil.getString("PoolSizeTip"));
 
         LangUtil.buttonText(buttonTest, "TestConnection");
         LangUtil.buttonText(buttonOk, "&Ok");
@@ -164,6 +172,7 @@ public class SessionPropsEditorForm extends JDialog {
         props.setUseSSL(sslCheckBox.isSelected());
         props.setFetchSize((Integer) fetchSizeField.getValue());
         props.setSqlDialect(modelField.getSelectedItem().toString());
+        props.setPoolSize((Integer) poolSizeField.getValue());
 
         return props;
     }
@@ -246,7 +255,7 @@ public class SessionPropsEditorForm extends JDialog {
         contentPanel = new JPanel();
         contentPanel.setLayout(new GridLayoutManager(2, 1, new Insets(10, 10, 10, 10), -1, -1));
         generalPanel = new JPanel();
-        generalPanel.setLayout(new FormLayout("fill:p:noGrow,left:4dlu:noGrow,fill:p:noGrow,left:4dlu:noGrow,fill:p:noGrow,fill:max(d;4px):noGrow,left:4dlu:noGrow,fill:60px:grow(0.7)", "center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow"));
+        generalPanel.setLayout(new FormLayout("fill:p:noGrow,left:4dlu:noGrow,fill:p:noGrow,left:4dlu:noGrow,fill:p:noGrow,fill:max(d;4px):noGrow,left:4dlu:noGrow,fill:60px:grow(0.7)", "center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow,top:4dlu:noGrow,center:max(d;4px):noGrow"));
         contentPanel.add(generalPanel, new GridConstraints(0, 0, 1, 1, GridConstraints.ANCHOR_CENTER, GridConstraints.FILL_BOTH, GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW, GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW, null, null, null, 0, false));
         generalPanel.setBorder(BorderFactory.createTitledBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10), null, TitledBorder.DEFAULT_JUSTIFICATION, TitledBorder.DEFAULT_POSITION, null, null));
         hostLabel = new JLabel();
@@ -302,6 +311,12 @@ public class SessionPropsEditorForm extends JDialog {
         defaultComboBoxModel1.addElement("Table");
         modelField.setModel(defaultComboBoxModel1);
         generalPanel.add(modelField, cc.xy(3, 15));
+        poolSizeLabel = new JLabel();
+        poolSizeLabel.setHorizontalAlignment(11);
+        poolSizeLabel.setText("Pool Size");
+        generalPanel.add(poolSizeLabel, cc.xy(1, 17));
+        poolSizeField = new JSpinner();
+        generalPanel.add(poolSizeField, cc.xy(3, 17, CellConstraints.FILL, CellConstraints.DEFAULT));
         bottomPanel = new JPanel();
         bottomPanel.setLayout(new GridLayoutManager(1, 3, new Insets(0, 0, 0, 0), -1, -1));
         contentPanel.add(bottomPanel, new GridConstraints(1, 0, 1, 1, GridConstraints.ANCHOR_CENTER, GridConstraints.FILL_BOTH, GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW, 1, null, null, null, 0, false));
@@ -3,6 +3,7 @@ package org.apache.iotdb.desktop.form;
 import cn.hutool.core.util.StrUtil;
 import com.jgoodies.forms.layout.CellConstraints;
 import com.jgoodies.forms.layout.FormLayout;
+import org.apache.iotdb.desktop.component.PagePrefetcher;
 import org.apache.iotdb.desktop.component.QueryResultTable;
 import org.apache.iotdb.desktop.component.QueryResultTableModel;
 import org.apache.iotdb.desktop.component.SingleLineBorder;
@@ -13,6 +14,7 @@ import org.apache.iotdb.desktop.event.AppEventListener;
 import org.apache.iotdb.desktop.event.AppEventListenerAdapter;
 import org.apache.iotdb.desktop.event.AppEvents;
 import org.apache.iotdb.desktop.event.DataEventListener;
+import org.apache.iotdb.desktop.model.Column;
 import org.apache.iotdb.desktop.model.QueryResult;
 import org.apache.iotdb.desktop.model.Session;
 import org.apache.iotdb.desktop.model.Table;
@@ -27,7 +29,11 @@ import javax.swing.event.RowSorterEvent;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.StringJoiner;
 
 public class TableData extends TabPanel {
 
@@ -48,7 +54,21 @@ public class TableData extends TabPanel {
 
     private long limit;
     private long offset = 0;
-    private long total = 0;
+    /**
+     * Cached row count, {@code null} until the background count has finished.
+     */
+    private Long total;
+    private SwingWorker<Long, Void> countWorker;
+    /**
+     * Sort key of the table, time followed by the TAG columns, loaded once.
+     */
+    private List<String> keyColumns;
+    /**
+     * Sort key values of the last loaded row, pages sorted by time continue after it instead of skipping an offset.
+     */
+    private Object[] lastKey;
+    private boolean lastPageFull = false;
+    private final PagePrefetcher prefetcher = new PagePrefetcher();
     private String sortColumn;
     private String sortOrder;
 
@@ -69,6 +89,7 @@ public class TableData extends TabPanel {
         Utils.UI.buttonText(nextPageButton, LangUtil.getString("NextPage"));
         Utils.UI.buttonText(showAllButton, LangUtil.getString("ShowAll"));
 
+        loadTotal();
         loadTableData(false);
     }
 
@@ -135,76 +156,251 @@ public class TableData extends TabPanel {
                 if (!options.getTheme().equals(oldOptions.getTheme())) {
                     topPanel.setBorder(new SingleLineBorder(UIManager.getColor("Component.borderColor"), false, false, true, false));
                 }
+                if (!options.isEditorPrefetch()) {
+                    prefetcher.cancel();
+                }
             }
         };
         AppEvents.instance().addEventListener(appEventListener);
+
+        addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentHidden(ComponentEvent e) {
+                prefetcher.cancel();
+            }
+        });
     }
 
     private void updatePagingInfo() {
-        if (dataModel.getDataSize() < total) {
-            pagingLabel.setText(LangUtil.format("LimitedPagingInfo", total, defaultPageSize, offset + defaultPageSize));
-            nextPageButton.setEnabled(true);
-            showAllButton.setEnabled(true);
+        int loaded = dataModel.getDataSize();
+        boolean hasMore = limit > 0 && (total != null ? loaded < total : lastPageFull);
+        if (hasMore) {
+            if (total != null) {
+                pagingLabel.setText(LangUtil.format("LimitedPagingInfo", total, defaultPageSize, loaded));
+            } else {
+                pagingLabel.setText(LangUtil.format("CountingPagingInfo", defaultPageSize, loaded));
+            }
+        } else {
+            pagingLabel.setText(LangUtil.format("FullPagingInfo", total != null ? total : loaded));
+        }
+        nextPageButton.setEnabled(hasMore);
+        showAllButton.setEnabled(hasMore);
+    }
+
+    /**
+     * Counts the rows once in the background, paging does not wait for it.
+     */
+    private void loadTotal() {
+        total = null;
+        countWorker = new SwingWorker<>() {
+            @Override
+            protected void done() {
+                if (countWorker != this) {
+                    return;
+                }
+                countWorker = null;
+                try {
+                    total = get();
+                    updatePagingInfo();
+                } catch (Exception ex) {
+                    Utils.Message.error(ex.getMessage(), ex);
+                }
+            }
+
+            @Override
+            protected Long doInBackground() throws Exception {
+                return table.getSession().countRows(table);
+            }
+        };
+        countWorker.execute();
+    }
+
+    private boolean isTimeOrdered() {
+        return sortOrder == null || "time".equalsIgnoreCase(sortColumn);
+    }
+
+    private List<String> loadKeyColumns() throws Exception {
+        List<String> columns = new ArrayList<>();
+        columns.add("time");
+        table.getSession().loadTableColumns(table.getPath()).stream()
+            .filter(column -> "TAG".equalsIgnoreCase(column.getCategory()))
+            .map(Column::getName)
+            .forEach(columns::add);
+        return columns;
+    }
+
+    /**
+     * Condition selecting the rows after the given sort key in (time, tag...) order, tags sort with nulls last.
+     * Returns {@code null} when no row can follow at this level.
+     */
+    private String keysetCondition(List<String> columns, Object[] key, int index, String operator) {
+        String column = quoteIdentifier(columns.get(index));
+        Object value = key[index];
+        String after;
+        String equal;
+        if (value == null) {
+            after = null;
+            equal = column + " is null";
+        } else if (index == 0) {
+            after = column + " " + operator + " " + sqlLiteral(value);
+            equal = column + " = " + sqlLiteral(value);
+        } else {
+            after = "(" + column + " " + operator + " " + sqlLiteral(value) + " or " + column + " is null)";
+            equal = column + " = " + sqlLiteral(value);
+        }
+        if (index == columns.size() - 1) {
+            return after;
+        }
+        String rest = keysetCondition(columns, key, index + 1, operator);
+        String tie = rest == null ? null : equal + " and (" + rest + ")";
+        if (after == null) {
+            return tie;
+        } else if (tie == null) {
+            return after;
         } else {
-            pagingLabel.setText(LangUtil.format("FullPagingInfo", total));
-            nextPageButton.setEnabled(false);
-            showAllButton.setEnabled(false);
+            return after + " or (" + tie + ")";
         }
     }
 
+    private static String quoteIdentifier(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+
+    private static String sqlLiteral(Object value) {
+        if (value instanceof Number) {
+            return value.toString();
+        } else {
+            return "'" + value.toString().replace("'", "''") + "'";
+        }
+    }
+
+    private boolean isKeysetPaged() {
+        return limit > 0 && isTimeOrdered() && !"information_schema".equalsIgnoreCase(table.getDatabase());
+    }
+
+    /**
+     * Builds the query of the page following cursor, or at pageOffset when paging by offset.
+     * Key columns must be loaded when paging by key.
+     */
+    private String buildPageSql(Object[] cursor, long pageOffset) {
+        StringBuilder sql = new StringBuilder();
+        sql.append("select * from ")
+            .append(table.getDatabase())
+            .append(".")
+            .append(table.getName());
+
+        if (isKeysetPaged()) {
+            String direction = sortOrder == null ? "asc" : sortOrder;
+            if (cursor != null) {
+                String condition = keysetCondition(keyColumns, cursor, 0, "desc".equals(direction) ? "<" : ">");
+                sql.append(" where ").append(condition == null ? "false" : condition);
+            }
+            StringJoiner orderBy = new StringJoiner(", ", " order by ", "");
+            for (int i = 0; i < keyColumns.size(); i++) {
+                orderBy.add(quoteIdentifier(keyColumns.get(i)) + " " + direction + (i > 0 ? " nulls last" : ""));
+            }
+            sql.append(orderBy).append(" limit ").append(defaultPageSize);
+        } else if (!"information_schema".equalsIgnoreCase(table.getDatabase())) {
+            if (sortOrder != null) {
+                sql.append(" order by ").append(sortColumn).append(" ").append(sortOrder);
+            }
+            if (limit > 0) {
+                sql.append(" limit ").append(defaultPageSize)
+                    .append(" offset ").append(pageOffset);
+            }
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Loads the next page in the background when prefetching is enabled, next page reuses it if nothing changed meanwhile.
+     */
+    private void prefetchNextPage() {
+        if (!Configuration.instance().options().isEditorPrefetch() || !nextPageButton.isEnabled()) {
+            return;
+        }
+        if (isKeysetPaged() && keyColumns == null) {
+            return;
+        }
+        String sql = buildPageSql(lastKey, offset + defaultPageSize);
+        prefetcher.prefetch(sql, () -> table.getSession().query(sql, true));
+    }
+
     private void loadTableData(final boolean clearPreviousResult) {
+        if (clearPreviousResult) {
+            lastKey = null;
+            prefetcher.cancel();
+        }
+        final Object[] cursor = lastKey;
+        final long pageOffset = offset;
+        final boolean keyset = isKeysetPaged();
+        pagingLabel.setText(LangUtil.getString("Loading"));
+        // the next page starts after the last row loaded, it is known once this page is done
+        nextPageButton.setEnabled(false);
+        showAllButton.setEnabled(false);
         SwingWorker<QueryResult, Integer> worker = new SwingWorker<>() {
             @Override
             protected void done() {
                 try {
+                    QueryResult result = get();
                     if (clearPreviousResult && dataModel.hasResult()) {
                         dataModel.clear();
                     }
-                    dataModel.appendResult(get());
+                    dataModel.appendResult(result);
+                    if (!result.hasException()) {
+                        lastPageFull = limit > 0 && result.getRowCount() >= defaultPageSize;
+                        if (keyset && result.getRowCount() > 0) {
+                            int lastRow = result.getRowCount() - 1;
+                            lastKey = keyColumns.stream().map(column -> result.getValue(lastRow, column)).toArray();
+                        }
+                    }
                     updatePagingInfo();
                     if (sortOrder != null) {
                         int col = dataTable.convertColumnIndexToView(dataModel.getColumnIndex(sortColumn));
                         dataTable.setSortOrder(col, "desc".equals(sortOrder) ? SortOrder.DESCENDING : SortOrder.ASCENDING);
                     }
                     Utils.autoResizeTableColumns(dataTable, 400);
+                    if (!result.hasException()) {
+                        prefetchNextPage();
+                    }
                 } catch (Exception ex) {
+                    updatePagingInfo();
                     Utils.Message.error(ex.getMessage(), ex);
                 }
             }
 
             @Override
             protected QueryResult doInBackground() throws Exception {
-                pagingLabel.setText(LangUtil.getString("Loading"));
-
-                total = table.getSession().countRows(table);
-
-                StringBuilder sql = new StringBuilder();
-                sql.append("select * from ")
-                    .append(table.getDatabase())
-                    .append(".")
-                    .append(table.getName());
-
-                if (!"information_schema".equalsIgnoreCase(table.getDatabase())) {
-                    if (sortOrder != null) {
-                        sql.append(" order by ").append(sortColumn).append(" ").append(sortOrder);
-                    }
-                    if (limit > 0) {
-                        sql.append(" limit ").append(defaultPageSize)
-                            .append(" offset ").append(offset);
-                    }
+                if (keyset && keyColumns == null) {
+                    keyColumns = loadKeyColumns();
                 }
-
-                return table.getSession().query(sql.toString(), true);
+                String sql = buildPageSql(cursor, pageOffset);
+                QueryResult prefetched = prefetcher.take(sql);
+                if (prefetched != null) {
+                    return prefetched;
+                }
+                return table.getSession().query(sql, true);
             }
         };
         worker.execute();
     }
 
     private void removeTableDatas(long[] timestamps) {
+        // a count running while rows are deleted may or may not include them
+        final boolean counting = countWorker != null;
         SwingWorker<Exception, Integer> worker = new SwingWorker<>() {
+            // rows deleted so far, the paging state is adjusted on the EDT once the deletes are done
+            private int deleted = 0;
+
             @Override
             protected void done() {
                 try {
+                    offset = Math.max(0, offset - deleted);
+                    if (counting || countWorker != null) {
+                        loadTotal();
+                    } else if (total != null) {
+                        total -= deleted;
+                    }
                     Exception exception = get();
                     if (exception != null) {
                         Utils.Message.error(exception.getMessage(), exception);
@@ -227,8 +423,7 @@ public class TableData extends TabPanel {
                             .append(" where time = ")
                             .append(timestamp);
                         table.getSession().execute(deleteSql.toString());
-                        total--;
-                        offset--;
+                        deleted++;
                     }
                     return null;
                 } catch (Exception e) {
@@ -257,11 +452,15 @@ public class TableData extends TabPanel {
     @Override
     public void refresh() {
         offset = 0;
+        keyColumns = null;
+        loadTotal();
         loadTableData(true);
     }
 
     @Override
     public void dispose() {
+        countWorker = null;
+        prefetcher.cancel();
         if (appEventListener != null) {
             AppEvents.instance().removeEventListener(appEventListener);
         }
@@ -0,0 +1,132 @@
+package org.apache.iotdb.desktop.model;
+
+import lombok.Getter;
+import org.apache.iotdb.desktop.config.SessionProps;
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bounded pool of IoTDB sessions built from the same {@link SessionProps}.
+ * <p>
+ * The underlying thrift transport is not thread-safe, so each borrower gets an exclusive
+ * connection and must give it back by closing the returned {@link PooledConnection}.
+ */
+public class ConnectionPool {
+
+    private static final long BORROW_TIMEOUT_MS = 60_000;
+
+    private final SessionProps props;
+    @Getter
+    private final int maxSize;
+    private final Semaphore permits;
+    /**
+     * Connections held by streaming query results, half of the pool at most, so result tabs left open
+     * do not take the connections that jobs and short statements need.
+     */
+    private final Semaphore cursorPermits;
+    private final LinkedBlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+
+    /**
+     * Incremented on {@link #close()}, connections of an older generation are discarded on release.
+     */
+    private volatile int generation = 0;
+
+    public ConnectionPool(SessionProps props) {
+        this.props = props;
+        this.maxSize = Math.max(1, props.getPoolSize());
+        this.permits = new Semaphore(maxSize, true);
+        this.cursorPermits = new Semaphore(maxSize / 2);
+    }
+
+    public PooledConnection borrow() throws IoTDBConnectionException {
+        try {
+            if (!permits.tryAcquire(BORROW_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                throw new IoTDBConnectionException("Timed out waiting for an idle connection, pool size: " + maxSize);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IoTDBConnectionException("Interrupted while waiting for an idle connection");
+        }
+        return open();
+    }
+
+    /**
+     * Borrows a connection only if one is available without waiting.
+     *
+     * @return {@code null} if all connections are borrowed
+     */
+    public PooledConnection tryBorrow() throws IoTDBConnectionException {
+        if (!permits.tryAcquire()) {
+            return null;
+        }
+        return open();
+    }
+
+    /**
+     * Hands out an idle connection or opens a new one for an acquired permit.
+     */
+    private PooledConnection open() throws IoTDBConnectionException {
+        PooledConnection connection = idleConnections.pollFirst();
+        if (connection != null) {
+            connection.reuse();
+            return connection;
+        }
+        try {
+            org.apache.iotdb.session.Session iotdbSession = new org.apache.iotdb.session.Session(props.toBuilder());
+            iotdbSession.open();
+            return new PooledConnection(this, iotdbSession, generation);
+        } catch (IoTDBConnectionException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Connections that can be borrowed right now without waiting.
+     */
+    public int availableConnections() {
+        return permits.availablePermits();
+    }
+
+    /**
+     * Lets a streaming result keep the borrowed connection if fewer than half of the connections are
+     * held by results and one is left for other borrowers. The cursor is given up with the connection.
+     *
+     * @return {@code false} if the result has to be fetched completely
+     */
+    public boolean tryHoldForCursor(PooledConnection connection) {
+        if (permits.availablePermits() == 0 || !cursorPermits.tryAcquire()) {
+            return false;
+        }
+        connection.setCursor(true);
+        return true;
+    }
+
+    void release(PooledConnection connection) {
+        if (connection.isCursor()) {
+            connection.setCursor(false);
+            cursorPermits.release();
+        }
+        if (connection.isBroken() || connection.getGeneration() != generation) {
+            connection.closeQuietly();
+        } else {
+            idleConnections.offerFirst(connection);
+        }
+        permits.release();
+    }
+
+    /**
+     * Closes all idle connections. Connections currently borrowed are closed when they are released.
+     * The pool stays usable, the next {@link #borrow()} opens a fresh connection.
+     */
+    public synchronized void close() {
+        generation++;
+        PooledConnection connection;
+        while ((connection = idleConnections.pollFirst()) != null) {
+            connection.closeQuietly();
+        }
+    }
+}
@@ -0,0 +1,493 @@
+package org.apache.iotdb.desktop.model;
+
+import org.apache.iotdb.isession.SessionDataSet;
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.tsfile.enums.TSDataType;
+
+import java.util.*;
+
+/**
+ * A column of {@link QueryResult}. Values are kept in a primitive array of the column data type
+ * and nulls in a bitmap, so a cell costs a few bytes instead of a boxed value in a row map.
+ */
+public abstract class DataColumn {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    protected final BitSet nulls = new BitSet();
+    protected int size = 0;
+
+    public static DataColumn create(TSDataType dataType) {
+        switch (dataType) {
+            case BOOLEAN:
+                return new BooleanColumn();
+            case INT32:
+            case DATE:
+                return new IntColumn();
+            case INT64:
+            case TIMESTAMP:
+                return new LongColumn();
+            case FLOAT:
+                return new FloatColumn();
+            case DOUBLE:
+                return new DoubleColumn();
+            case TEXT:
+            case BLOB:
+            case STRING:
+                return new StringColumn();
+            default:
+                return new ObjectColumn();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isNull(int row) {
+        return nulls.get(row);
+    }
+
+    /**
+     * Boxed value for display, {@code null} for null cells.
+     */
+    public Object get(int row) {
+        return nulls.get(row) ? null : getValue(row);
+    }
+
+    public void set(int row, Object value) {
+        if (value == null) {
+            nulls.set(row);
+        } else {
+            setValue(row, value);
+            nulls.clear(row);
+        }
+    }
+
+    public void add(Object value) {
+        ensureCapacity(size + 1);
+        size++;
+        set(size - 1, value);
+    }
+
+    public void addNull() {
+        ensureCapacity(size + 1);
+        nulls.set(size);
+        size++;
+    }
+
+    /**
+     * Appends the current row of the iterator.
+     *
+     * @param columnIndex 1-based column index of the data set
+     * @param nullable    the time column is never null and is not checked
+     */
+    public void read(SessionDataSet.DataIterator iterator, int columnIndex, boolean nullable) throws StatementExecutionException {
+        if (nullable && iterator.isNull(columnIndex)) {
+            addNull();
+        } else {
+            ensureCapacity(size + 1);
+            readValue(iterator, columnIndex, size);
+            nulls.clear(size);
+            size++;
+        }
+    }
+
+    public void addAll(DataColumn other) {
+        int offset = size;
+        ensureCapacity(size + other.size);
+        if (other.getClass() == getClass()) {
+            appendValues(other, offset);
+        } else {
+            for (int i = 0; i < other.size; i++) {
+                if (!other.isNull(i)) {
+                    setValue(offset + i, other.getValue(i));
+                }
+            }
+        }
+        nulls.clear(offset, offset + other.size);
+        for (int i = other.nulls.nextSetBit(0); i >= 0 && i < other.size; i = other.nulls.nextSetBit(i + 1)) {
+            nulls.set(offset + i);
+        }
+        size += other.size;
+    }
+
+    public void remove(int row) {
+        removeValue(row);
+        BitSet tail = nulls.get(row + 1, size);
+        nulls.clear(row, size);
+        for (int i = tail.nextSetBit(0); i >= 0; i = tail.nextSetBit(i + 1)) {
+            nulls.set(row + i);
+        }
+        size--;
+    }
+
+    public void clear() {
+        nulls.clear();
+        size = 0;
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        int capacity = capacity();
+        if (minCapacity > capacity) {
+            grow(Math.max(minCapacity, Math.max(INITIAL_CAPACITY, capacity + (capacity >> 1))));
+        }
+    }
+
+    protected abstract int capacity();
+
+    protected abstract void grow(int newCapacity);
+
+    protected abstract Object getValue(int row);
+
+    protected abstract void setValue(int row, Object value);
+
+    protected abstract void readValue(SessionDataSet.DataIterator iterator, int columnIndex, int row) throws StatementExecutionException;
+
+    /**
+     * Copies all values of a column of the same type to this column starting at offset.
+     */
+    protected abstract void appendValues(DataColumn other, int offset);
+
+    protected abstract void removeValue(int row);
+
+    static final class BooleanColumn extends DataColumn {
+        private boolean[] values = new boolean[0];
+
+        @Override
+        protected int capacity() {
+            return values.length;
+        }
+
+        @Override
+        protected void grow(int newCapacity) {
+            values = Arrays.copyOf(values, newCapacity);
+        }
+
+        @Override
+        protected Object getValue(int row) {
+            return values[row];
+        }
+
+        @Override
+        protected void setValue(int row, Object value) {
+            values[row] = value instanceof Boolean b ? b : Boolean.parseBoolean(value.toString());
+        }
+
+        @Override
+        protected void readValue(SessionDataSet.DataIterator iterator, int columnIndex, int row) throws StatementExecutionException {
+            values[row] = iterator.getBoolean(columnIndex);
+        }
+
+        @Override
+        protected void appendValues(DataColumn other, int offset) {
+            System.arraycopy(((BooleanColumn) other).values, 0, values, offset, other.size);
+        }
+
+        @Override
+        protected void removeValue(int row) {
+            System.arraycopy(values, row + 1, values, row, size - row - 1);
+        }
+    }
+
+    static final class IntColumn extends DataColumn {
+        private int[] values = new int[0];
+
+        @Override
+        protected int capacity() {
+            return values.length;
+        }
+
+        @Override
+        protected void grow(int newCapacity) {
+            values = Arrays.copyOf(values, newCapacity);
+        }
+
+        @Override
+        protected Object getValue(int row) {
+            return values[row];
+        }
+
+        @Override
+        protected void setValue(int row, Object value) {
+            values[row] = value instanceof Number n ? n.intValue() : Integer.parseInt(value.toString());
+        }
+
+        @Override
+        protected void readValue(SessionDataSet.DataIterator iterator, int columnIndex, int row) throws StatementExecutionException {
+            values[row] = iterator.getInt(columnIndex);
+        }
+
+        @Override
+        protected void appendValues(DataColumn other, int offset) {
+            System.arraycopy(((IntColumn) other).values, 0, values, offset, other.size);
+        }
+
+        @Override
+        protected void removeValue(int row) {
+            System.arraycopy(values, row + 1, values, row, size - row - 1);
+        }
+    }
+
+    static final class LongColumn extends DataColumn {
+        private long[] values = new long[0];
+
+        public long getLong(int row) {
+            return values[row];
+        }
+
+        @Override
+        protected int capacity() {
+            return values.length;
+        }
+
+        @Override
+        protected void grow(int newCapacity) {
+            values = Arrays.copyOf(values, newCapacity);
+        }
+
+        @Override
+        protected Object getValue(int row) {
+            return values[row];
+        }
+
+        @Override
+        protected void setValue(int row, Object value) {
+            values[row] = value instanceof Number n ? n.longValue() : Long.parseLong(value.toString());
+        }
+
+        @Override
+        protected void readValue(SessionDataSet.DataIterator iterator, int columnIndex, int row) throws StatementExecutionException {
+            values[row] = iterator.getLong(columnIndex);
+        }
+
+        @Override
+        protected void appendValues(DataColumn other, int offset) {
+            System.arraycopy(((LongColumn) other).values, 0, values, offset, other.size);
+        }
+
+        @Override
+        protected void removeValue(int row) {
+            System.arraycopy(values, row + 1, values, row, size - row - 1);
+        }
+    }
+
+    static final class FloatColumn extends DataColumn {
+        private float[] values = new float[0];
+
+        @Override
+        protected int capacity() {
+            return values.length;
+        }
+
+        @Override
+        protected void grow(int newCapacity) {
+            values = Arrays.copyOf(values, newCapacity);
+        }
+
+        @Override
+        protected Object getValue(int row) {
+            return values[row];
+        }
+
+        @Override
+        protected void setValue(int row, Object value) {
+            values[row] = value instanceof Number n ? n.floatValue() : Float.parseFloat(value.toString());
+        }
+
+        @Override
+        protected void readValue(SessionDataSet.DataIterator iterator, int columnIndex, int row) throws StatementExecutionException {
+            values[row] = iterator.getFloat(columnIndex);
+        }
+
+        @Override
+        protected void appendValues(DataColumn other, int offset) {
+            System.arraycopy(((FloatColumn) other).values, 0, values, offset, other.size);
+        }
+
+        @Override
+        protected void removeValue(int row) {
+            System.arraycopy(values, row + 1, values, row, size - row - 1);
+        }
+    }
+
+    static final class DoubleColumn extends DataColumn {
+        private double[] values = new double[0];
+
+        @Override
+        protected int capacity() {
+            return values.length;
+        }
+
+        @Override
+        protected void grow(int newCapacity) {
+            values = Arrays.copyOf(values, newCapacity);
+        }
+
+        @Override
+        protected Object getValue(int row) {
+            return values[row];
+        }
+
+        @Override
+        protected void setValue(int row, Object value) {
+            values[row] = value instanceof Number n ? n.doubleValue() : Double.parseDouble(value.toString());
+        }
+
+        @Override
+        protected void readValue(SessionDataSet.DataIterator iterator, int columnIndex, int row) throws StatementExecutionException {
+            values[row] = iterator.getDouble(columnIndex);
+        }
+
+        @Override
+        protected void appendValues(DataColumn other, int offset) {
+            System.arraycopy(((DoubleColumn) other).values, 0, values, offset, other.size);
+        }
+
+        @Override
+        protected void removeValue(int row) {
+            System.arraycopy(values, row + 1, values, row, size - row - 1);
+        }
+    }
+
+    /**
+     * Dictionary encoded strings, falls back to plain storage once there are too many distinct values
+     * for the dictionary to pay off.
+     */
+    static final class StringColumn extends DataColumn {
+        private static final int DICTIONARY_LIMIT = 1 << 16;
+
+        private List<String> dictionary = new ArrayList<>();
+        private Map<String, Integer> codes = new HashMap<>();
+        private int[] indexes = new int[0];
+        private String[] plain;
+
+        @Override
+        protected int capacity() {
+            return plain != null ? plain.length : indexes.length;
+        }
+
+        @Override
+        protected void grow(int newCapacity) {
+            if (plain != null) {
+                plain = Arrays.copyOf(plain, newCapacity);
+            } else {
+                indexes = Arrays.copyOf(indexes, newCapacity);
+            }
+        }
+
+        @Override
+        protected Object getValue(int row) {
+            return plain != null ? plain[row] : dictionary.get(indexes[row]);
+        }
+
+        @Override
+        protected void setValue(int row, Object value) {
+            String text = value.toString();
+            if (plain == null) {
+                Integer code = codes.get(text);
+                if (code == null && dictionary.size() < DICTIONARY_LIMIT) {
+                    code = dictionary.size();
+                    dictionary.add(text);
+                    codes.put(text, code);
+                }
+                if (code != null) {
+                    indexes[row] = code;
+                    return;
+                }
+                toPlain(Math.max(size, row));
+            }
+            plain[row] = text;
+        }
+
+        /**
+         * @param rows rows with a value, rows past the size are those an {@link #addAll(DataColumn)}
+         *             appended before the dictionary overflowed
+         */
+        private void toPlain(int rows) {
+            String[] values = new String[indexes.length];
+            for (int i = 0; i < rows; i++) {
+                if (!nulls.get(i)) {
+                    values[i] = dictionary.get(indexes[i]);
+                }
+            }
+            plain = values;
+            indexes = null;
+            dictionary = null;
+            codes = null;
+        }
+
+        @Override
+        protected void readValue(SessionDataSet.DataIterator iterator, int columnIndex, int row) throws StatementExecutionException {
+            setValue(row, Objects.toString(iterator.getString(columnIndex), ""));
+        }
+
+        @Override
+        protected void appendValues(DataColumn other, int offset) {
+            for (int i = 0; i < other.size; i++) {
+                if (!other.isNull(i)) {
+                    setValue(offset + i, other.getValue(i));
+                }
+            }
+        }
+
+        @Override
+        protected void removeValue(int row) {
+            if (plain != null) {
+                System.arraycopy(plain, row + 1, plain, row, size - row - 1);
+                plain[size - 1] = null;
+            } else {
+                System.arraycopy(indexes, row + 1, indexes, row, size - row - 1);
+            }
+        }
+
+        @Override
+        public void clear() {
+            super.clear();
+            dictionary = new ArrayList<>();
+            codes = new HashMap<>();
+            indexes = new int[0];
+            plain = null;
+        }
+    }
+
+    static final class ObjectColumn extends DataColumn {
+        private Object[] values = new Object[0];
+
+        @Override
+        protected int capacity() {
+            return values.length;
+        }
+
+        @Override
+        protected void grow(int newCapacity) {
+            values = Arrays.copyOf(values, newCapacity);
+        }
+
+        @Override
+        protected Object getValue(int row) {
+            return values[row];
+        }
+
+        @Override
+        protected void setValue(int row, Object value) {
+            values[row] = value;
+        }
+
+        @Override
+        protected void readValue(SessionDataSet.DataIterator iterator, int columnIndex, int row) throws StatementExecutionException {
+            values[row] = iterator.getObject(columnIndex);
+        }
+
+        @Override
+        protected void appendValues(DataColumn other, int offset) {
+            System.arraycopy(((ObjectColumn) other).values, 0, values, offset, other.size);
+        }
+
+        @Override
+        protected void removeValue(int row) {
+            System.arraycopy(values, row + 1, values, row, size - row - 1);
+            values[size - 1] = null;
+        }
+    }
+}
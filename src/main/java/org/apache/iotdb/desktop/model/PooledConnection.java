@@ -0,0 +1,161 @@
+package org.apache.iotdb.desktop.model;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.iotdb.isession.SessionDataSet;
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.StatementExecutionException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A connection borrowed from {@link ConnectionPool}, closing it returns the connection to the pool.
+ * <p>
+ * Data sets opened through {@link #executeQueryStatement(String)} are bound to this connection
+ * and are closed before the connection is handed back.
+ */
+public class PooledConnection implements AutoCloseable {
+
+    private static final Pattern USE_DATABASE = Pattern.compile("^\\s*use\\s+([^\\s;]+)\\s*;?\\s*$", Pattern.CASE_INSENSITIVE);
+
+    private final ConnectionPool pool;
+    @Getter
+    private final org.apache.iotdb.session.Session iotdbSession;
+    @Getter
+    private final int generation;
+    @Getter
+    private String database;
+    @Getter
+    private volatile boolean broken = false;
+    private boolean released = false;
+    @Getter
+    @Setter(AccessLevel.PACKAGE)
+    private boolean cursor = false;
+
+    private final List<SessionDataSet> openedDataSets = new ArrayList<>();
+
+    PooledConnection(ConnectionPool pool, org.apache.iotdb.session.Session iotdbSession, int generation) {
+        this.pool = pool;
+        this.iotdbSession = iotdbSession;
+        this.generation = generation;
+    }
+
+    public void useDatabase(String database) throws IoTDBConnectionException, StatementExecutionException {
+        if (database != null && !Objects.equals(this.database, database)) {
+            iotdbSession.executeNonQueryStatement("use " + database);
+            this.database = database;
+        }
+    }
+
+    public SessionDataSet executeQueryStatement(String sql) throws IoTDBConnectionException, StatementExecutionException {
+        return track(iotdbSession.executeQueryStatement(sql));
+    }
+
+    public SessionDataSet executeQueryStatement(String sql, long timeoutInMs) throws IoTDBConnectionException, StatementExecutionException {
+        return track(iotdbSession.executeQueryStatement(sql, timeoutInMs));
+    }
+
+    /**
+     * Executes the statement, a {@code use} statement switches the database of this connection.
+     */
+    public void executeNonQueryStatement(String sql) throws IoTDBConnectionException, StatementExecutionException {
+        iotdbSession.executeNonQueryStatement(sql);
+        String usedDatabase = usedDatabase(sql);
+        if (usedDatabase != null) {
+            this.database = usedDatabase;
+        }
+    }
+
+    /**
+     * The database a {@code use} statement switches to.
+     *
+     * @return {@code null} if the statement is not a {@code use} statement
+     */
+    static String usedDatabase(String sql) {
+        Matcher matcher = USE_DATABASE.matcher(sql);
+        return matcher.matches() ? matcher.group(1) : null;
+    }
+
+    private SessionDataSet track(SessionDataSet dataSet) {
+        openedDataSets.add(dataSet);
+        return dataSet;
+    }
+
+    /**
+     * Reopens the underlying session after a connection failure.
+     */
+    public void reopen() throws IoTDBConnectionException {
+        closeDataSets();
+        try {
+            iotdbSession.close();
+        } catch (IoTDBConnectionException ignored) {
+        }
+        database = null;
+        iotdbSession.open();
+    }
+
+    /**
+     * Marks this connection as unusable, it will be closed instead of returned to the pool.
+     */
+    public void markBroken() {
+        broken = true;
+    }
+
+    /**
+     * Aborts a statement blocked on this connection by closing the session from another thread,
+     * the connection is discarded when its borrower releases it.
+     */
+    public void abort() {
+        markBroken();
+        Thread thread = new Thread(() -> {
+            try {
+                iotdbSession.close();
+            } catch (Exception ignored) {
+            }
+        }, "iotdb-connection-abort");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void closeDataSets() {
+        for (SessionDataSet dataSet : openedDataSets) {
+            try {
+                dataSet.close();
+            } catch (Exception ignored) {
+            }
+        }
+        openedDataSets.clear();
+    }
+
+    /**
+     * Called by the pool when an idle connection is handed out again.
+     */
+    synchronized void reuse() {
+        released = false;
+    }
+
+    void closeQuietly() {
+        closeDataSets();
+        try {
+            iotdbSession.close();
+        } catch (Exception ignored) {
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (released) {
+            return;
+        }
+        released = true;
+        if (!broken) {
+            closeDataSets();
+        }
+        pool.release(this);
+    }
+}
@@ -0,0 +1,40 @@
+package org.apache.iotdb.desktop.model;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Cancels queries started with {@link Session#batchQuery(String, boolean, QueryHandle)} and
+ * {@link Session#batchExplain(String, boolean, QueryHandle)} from another thread.
+ * <p>
+ * A statement still blocked in the execute call is aborted by closing its connection, a statement
+ * that is fetching stops before the next row, closes its server operation handle and keeps the rows
+ * fetched so far. Remaining statements of the batch are skipped.
+ */
+public class QueryHandle {
+
+    private volatile boolean cancelled = false;
+    private PooledConnection executingConnection;
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public synchronized void cancel() {
+        cancelled = true;
+        if (executingConnection != null) {
+            executingConnection.abort();
+            executingConnection = null;
+        }
+    }
+
+    synchronized void attach(PooledConnection connection) {
+        if (cancelled) {
+            throw new CancellationException();
+        }
+        executingConnection = connection;
+    }
+
+    synchronized void detach() {
+        executingConnection = null;
+    }
+}
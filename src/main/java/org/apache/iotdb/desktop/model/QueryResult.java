@@ -1,6 +1,7 @@
 package org.apache.iotdb.desktop.model;
 
 import cn.hutool.core.date.DateUtil;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.iotdb.desktop.util.LangUtil;
@@ -18,20 +19,141 @@ public class QueryResult {
     private long endTime;
 
     private Exception exception;
+    /**
+     * Stopped by a {@link QueryHandle}, rows fetched before that are kept.
+     */
+    private boolean cancelled = false;
 
     private List<String> columns;
     private List<String> columnTypes;
-    private List<Map<String, Object>> datas = new ArrayList<>();
+    @Getter(AccessLevel.NONE)
+    private final List<DataColumn> dataColumns = new ArrayList<>();
+    private int rowCount = 0;
 
     private Map<String, String> localeColumnNames = new HashMap<>();
 
+    /**
+     * Connection and iterator of a streaming result, released once the result is fully fetched.
+     */
+    @Getter(AccessLevel.NONE)
+    private PooledConnection cursorConnection;
+    @Getter(AccessLevel.NONE)
+    private SessionDataSet.DataIterator cursorIterator;
+    private int fetchSize;
+    @Getter(AccessLevel.NONE)
+    private volatile boolean hasMore = false;
+
     public QueryResult(String sql) {
         this.sql = sql;
         this.startTime = System.currentTimeMillis();
     }
 
     public void clearDatas() {
-        this.datas.clear();
+        this.dataColumns.forEach(DataColumn::clear);
+        this.rowCount = 0;
+    }
+
+    public Object getValue(int row, int column) {
+        return dataColumns.get(column).get(row);
+    }
+
+    public Object getValue(int row, String columnName) {
+        int column = columns.indexOf(columnName);
+        return column < 0 ? null : getValue(row, column);
+    }
+
+    public void setValue(int row, int column, Object value) {
+        dataColumns.get(column).set(row, value);
+    }
+
+    /**
+     * Index of the time column, -1 if the result has none.
+     */
+    public int getTimeColumnIndex() {
+        if (columns != null) {
+            for (int i = 0; i < columns.size(); i++) {
+                if ("Time".equalsIgnoreCase(columns.get(i))) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    public long getTimestamp(int row) {
+        int column = getTimeColumnIndex();
+        if (column >= 0 && dataColumns.get(column) instanceof DataColumn.LongColumn timeColumn && !timeColumn.isNull(row)) {
+            return timeColumn.getLong(row);
+        } else {
+            return -1L;
+        }
+    }
+
+    /**
+     * Copies a row into a map keyed by column name, in column order.
+     */
+    public Map<String, Object> getRow(int row) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            data.put(columns.get(i), getValue(row, i));
+        }
+        return data;
+    }
+
+    public void removeRow(int row) {
+        dataColumns.forEach(column -> column.remove(row));
+        rowCount--;
+    }
+
+    /**
+     * Adds a column filled with nulls, values are set with {@link #setValue(int, int, Object)}.
+     */
+    public int addColumn(String columnName, TSDataType dataType) {
+        columns.add(columnName);
+        columnTypes.add(dataType.name());
+        DataColumn column = DataColumn.create(dataType);
+        for (int i = 0; i < rowCount; i++) {
+            column.addNull();
+        }
+        dataColumns.add(column);
+        return columns.size() - 1;
+    }
+
+    /**
+     * Appends the rows of another result, columns are matched by name.
+     */
+    public void append(QueryResult other) {
+        if (other.hasException() || other.columns == null) {
+            return;
+        }
+        for (int i = 0; i < columns.size(); i++) {
+            DataColumn column = dataColumns.get(i);
+            int otherIndex = other.columns.equals(columns) ? i : other.columns.indexOf(columns.get(i));
+            if (otherIndex >= 0) {
+                column.addAll(other.dataColumns.get(otherIndex));
+            } else {
+                for (int row = 0; row < other.rowCount; row++) {
+                    column.addNull();
+                }
+            }
+        }
+        rowCount += other.rowCount;
+    }
+
+    private void initColumns(List<String> columnNames, List<String> columnTypes) {
+        this.columns = new ArrayList<>(columnNames);
+        this.columnTypes = new ArrayList<>(columnTypes);
+        this.dataColumns.clear();
+        for (String columnType : this.columnTypes) {
+            this.dataColumns.add(DataColumn.create(TSDataType.valueOf(columnType)));
+        }
+        this.rowCount = 0;
+    }
+
+    private void singleTextRow(String columnName, String text) {
+        initColumns(List.of(columnName), List.of(TSDataType.TEXT.name()));
+        this.dataColumns.get(0).add(text);
+        this.rowCount = 1;
     }
 
     public String getLocaleColumnName(int index) {
@@ -57,70 +179,118 @@ public class QueryResult {
 
     public QueryResult error(Exception exception) {
         this.endTime = System.currentTimeMillis();
-        this.columns = List.of("Error");
-        this.columnTypes = List.of("TEXT");
-        Map<String, Object> rowData = new HashMap<>();
-        rowData.put("Error", exception.getMessage());
-        this.datas = List.of(rowData);
+        singleTextRow("Error", exception.getMessage());
         this.exception = exception;
         return this;
     }
 
     public QueryResult success() {
         this.endTime = System.currentTimeMillis();
-        this.columns = List.of("Info");
-        this.columnTypes = List.of("TEXT");
-        Map<String, Object> rowData = new HashMap<>();
-        rowData.put("Info", "语句执行成功但无返回结果集");
-        this.datas = List.of(rowData);
+        singleTextRow("Info", "语句执行成功但无返回结果集");
+        return this;
+    }
+
+    /**
+     * The statement was cancelled before it returned a data set.
+     */
+    public QueryResult cancelled() {
+        this.endTime = System.currentTimeMillis();
+        singleTextRow("Info", LangUtil.getString("QueryCancelled"));
+        this.cancelled = true;
         return this;
     }
 
     public QueryResult success(SessionDataSet dataset) throws IoTDBConnectionException, StatementExecutionException {
+        return success(dataset, null);
+    }
+
+    public QueryResult success(SessionDataSet dataset, QueryHandle handle) throws IoTDBConnectionException, StatementExecutionException {
         this.endTime = System.currentTimeMillis();
 
-        this.columns = dataset.getColumnNames();
-        this.columnTypes = dataset.getColumnTypes();
+        initColumns(dataset.getColumnNames(), dataset.getColumnTypes());
         SessionDataSet.DataIterator iterator = dataset.iterator();
-        while (iterator.next()) {
-            Map<String, Object> data = new HashMap<>();
-            for (int i = 0; i < this.columns.size(); i++) {
-                TSDataType dataType = TSDataType.valueOf(this.getColumnTypes().get(i));
-                String columnName = this.columns.get(i);
-                if (!"Time".equalsIgnoreCase(columnName) && iterator.isNull(columnName)) {
-                    data.put(columnName, null);
-                } else {
-                    switch (dataType) {
-                        case BOOLEAN:
-                            data.put(columnName, iterator.getBoolean(columnName));
-                            break;
-                        case INT32:
-                        case DATE:
-                            data.put(columnName, iterator.getInt(columnName));
-                            break;
-                        case INT64:
-                        case TIMESTAMP:
-                            data.put(columnName, iterator.getLong(columnName));
-                            break;
-                        case FLOAT:
-                            data.put(columnName, iterator.getFloat(columnName));
-                            break;
-                        case DOUBLE:
-                            data.put(columnName, iterator.getDouble(columnName));
-                            break;
-                        case TEXT:
-                        case BLOB:
-                        case STRING:
-                            data.put(columnName, iterator.getString(columnName));
-                            break;
-                        default:
-                            data.put(columnName, iterator.getObject(columnName));
-                    }
+        while (!cancelRequested(handle) && iterator.next()) {
+            readRow(iterator);
+        }
+        if (cancelRequested(handle)) {
+            dataset.closeOperationHandle();
+            this.cancelled = true;
+        }
+        return this;
+    }
+
+    /**
+     * Publishes only the first block of the data set, the remaining rows are pulled with {@link #fetchNext()}.
+     * The connection stays bound to this result until it is fully fetched or {@link #closeCursor()} is called.
+     */
+    public QueryResult streaming(PooledConnection connection, SessionDataSet dataset, int fetchSize, QueryHandle handle) throws IoTDBConnectionException, StatementExecutionException {
+        initColumns(dataset.getColumnNames(), dataset.getColumnTypes());
+        this.fetchSize = Math.max(1, fetchSize);
+        this.cursorConnection = connection;
+        this.cursorIterator = dataset.iterator();
+        this.hasMore = true;
+        append(fetchBlock(handle));
+        if (cancelRequested(handle)) {
+            // closing the connection closes the data set and its server operation handle
+            closeCursor();
+            this.cancelled = true;
+        }
+        this.endTime = System.currentTimeMillis();
+        return this;
+    }
+
+    public boolean hasMore() {
+        return hasMore;
+    }
+
+    /**
+     * Reads the next block of at most fetchSize rows into a separate result with the same columns,
+     * so it can be called off the EDT, the caller appends the block with {@link #append(QueryResult)}.
+     */
+    public QueryResult fetchNext() throws IoTDBConnectionException, StatementExecutionException {
+        return fetchBlock(null);
+    }
+
+    private synchronized QueryResult fetchBlock(QueryHandle handle) throws IoTDBConnectionException, StatementExecutionException {
+        QueryResult block = new QueryResult(sql);
+        block.initColumns(columns, columnTypes);
+        if (!hasMore) {
+            return block;
+        }
+        try {
+            while (block.rowCount < fetchSize && !cancelRequested(handle)) {
+                if (!cursorIterator.next()) {
+                    closeCursor();
+                    break;
                 }
+                block.readRow(cursorIterator);
             }
-            this.datas.add(data);
+        } catch (IoTDBConnectionException | StatementExecutionException | RuntimeException e) {
+            closeCursor();
+            throw e;
         }
-        return this;
+        return block;
+    }
+
+    public synchronized void closeCursor() {
+        hasMore = false;
+        if (cursorConnection != null) {
+            cursorConnection.close();
+            cursorConnection = null;
+            cursorIterator = null;
+        }
+    }
+
+    private static boolean cancelRequested(QueryHandle handle) {
+        return handle != null && handle.isCancelled();
+    }
+
+    private void readRow(SessionDataSet.DataIterator iterator) throws StatementExecutionException {
+        for (int i = 0; i < this.columns.size(); i++) {
+            // data set columns are 1-based, the time column is never null
+            dataColumns.get(i).read(iterator, i + 1, !"Time".equalsIgnoreCase(this.columns.get(i)));
+        }
+        rowCount++;
     }
 
     public boolean hasException() {
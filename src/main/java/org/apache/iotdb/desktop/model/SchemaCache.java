@@ -0,0 +1,369 @@
+package org.apache.iotdb.desktop.model;
+
+import lombok.AllArgsConstructor;
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.utils.PathUtils;
+import org.apache.iotdb.isession.SessionDataSet;
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+/**
+ * Data types of the timeseries of tree model devices, kept for the session so later imports do not
+ * query them again. The encodings and compressions of the timeseries come with them, and whether the
+ * devices are aligned is loaded on request, for writing TsFiles.
+ * <p>
+ * Devices are loaded in batches: devices with the same parent are fetched together with one
+ * {@code show timeseries <parent>.*.*} or {@code show devices <parent>.*} if they are at least half of
+ * the devices of the parent, other devices are fetched one by one. The queries run in parallel on the
+ * connection of the caller and on connections of the pool that are idle. Devices without timeseries
+ * are cached as empty. Statements of the session that may change the schema clear the cache.
+ */
+public class SchemaCache {
+
+    private static final String TIMESERIES = "Timeseries";
+    private static final String DATATYPE = "DataType";
+    private static final String ENCODING = "Encoding";
+    private static final String COMPRESSION = "Compression";
+    private static final String DEVICE = "Device";
+    private static final String IS_ALIGNED = "IsAligned";
+    /**
+     * Fewer devices of a parent are queried one by one, without counting the devices of the parent.
+     */
+    private static final int WILDCARD_MIN_DEVICES = 4;
+    /**
+     * Share of the devices of a parent the queried ones need for a wildcard, a parent with many other
+     * devices is not listed completely for a few of them.
+     */
+    private static final double WILDCARD_MIN_SHARE = 0.5;
+
+    private final Session session;
+    private final Map<String, Map<String, TSDataType>> devices = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, IMeasurementSchema>> schemas = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> alignedDevices = new ConcurrentHashMap<>();
+
+    SchemaCache(Session session) {
+        this.session = session;
+    }
+
+    /**
+     * Data types of the measurements of a loaded device.
+     *
+     * @return {@code null} if the device was not loaded
+     */
+    public Map<String, TSDataType> get(String device) {
+        return devices.get(device);
+    }
+
+    /**
+     * Schemas with the encoding and compression of the timeseries of a loaded device, timeseries
+     * written by this session after the load are missing.
+     *
+     * @return {@code null} if the device was not loaded
+     */
+    public Map<String, IMeasurementSchema> getSchemas(String device) {
+        return schemas.get(device);
+    }
+
+    /**
+     * Whether a device loaded with {@link #loadWithAlignment} is aligned.
+     *
+     * @return {@code null} if the alignment of the device was not loaded
+     */
+    public Boolean isAligned(String device) {
+        return alignedDevices.get(device);
+    }
+
+    /**
+     * Loads the devices that are not cached yet.
+     *
+     * @param connection connection of the caller, it runs queries too
+     * @param threads    queries run in parallel at most, idle connections of the pool are borrowed for them
+     */
+    public void load(PooledConnection connection, Collection<String> deviceNames, int threads)
+        throws IoTDBConnectionException, StatementExecutionException {
+        load(connection, deviceNames, threads, false);
+    }
+
+    /**
+     * Loads the devices again, cached ones too, timeseries may have been created since they were
+     * cached. Cached devices are replaced when their new types are there, lookups in the meantime
+     * still find the old ones.
+     */
+    public void reload(PooledConnection connection, Collection<String> deviceNames, int threads)
+        throws IoTDBConnectionException, StatementExecutionException {
+        load(connection, deviceNames, threads, true);
+    }
+
+    /**
+     * Loads the timeseries of the devices and whether they are aligned, both for the devices not
+     * cached yet. The queries of both run in parallel together.
+     */
+    public void loadWithAlignment(PooledConnection connection, Collection<String> deviceNames, int threads)
+        throws IoTDBConnectionException, StatementExecutionException {
+        Queue<Query> queries = new ConcurrentLinkedQueue<>(group(deviceNames, devices::containsKey, true));
+        queries.addAll(group(deviceNames, alignedDevices::containsKey, false));
+        run(connection, queries, threads);
+    }
+
+    private void load(PooledConnection connection, Collection<String> deviceNames, int threads, boolean cached)
+        throws IoTDBConnectionException, StatementExecutionException {
+        run(connection, new ConcurrentLinkedQueue<>(group(deviceNames, device -> !cached && devices.containsKey(device), true)), threads);
+    }
+
+    /**
+     * Queries for the devices, devices with the same parent are listed together.
+     *
+     * @param skipped    devices that are not queried
+     * @param timeseries whether to query the timeseries of the devices or the devices themselves
+     */
+    private static List<Query> group(Collection<String> deviceNames, Predicate<String> skipped, boolean timeseries) {
+        Map<String, List<String>> parents = new LinkedHashMap<>();
+        List<String> singles = new ArrayList<>();
+        for (String device : new LinkedHashSet<>(deviceNames)) {
+            if (skipped.test(device)) {
+                continue;
+            }
+            String parent = parentOf(device);
+            if (parent == null) {
+                singles.add(device);
+            } else {
+                parents.computeIfAbsent(parent, key -> new ArrayList<>()).add(device);
+            }
+        }
+        List<Query> queries = new ArrayList<>();
+        parents.forEach((parent, children) -> {
+            if (children.size() >= WILDCARD_MIN_DEVICES) {
+                queries.add(new Query(timeseries, parent + (timeseries ? ".*.*" : ".*"), children, parent));
+            } else {
+                singles.addAll(children);
+            }
+        });
+        singles.forEach(device -> queries.add(single(timeseries, device)));
+        return queries;
+    }
+
+    private static Query single(boolean timeseries, String device) {
+        return new Query(timeseries, timeseries ? device + ".*" : device, List.of(device), null);
+    }
+
+    private void run(PooledConnection connection, Queue<Query> requested, int threads)
+        throws IoTDBConnectionException, StatementExecutionException {
+        Queue<Query> queries = resolveWildcards(connection, requested);
+        if (queries.isEmpty()) {
+            return;
+        }
+
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        List<Thread> workers = new ArrayList<>();
+        int extraWorkers = Math.min(threads, queries.size()) - 1;
+        for (int i = 0; i < extraWorkers; i++) {
+            PooledConnection borrowed;
+            try {
+                borrowed = session.tryBorrowConnection();
+            } catch (IoTDBConnectionException e) {
+                break;
+            }
+            if (borrowed == null) {
+                break;
+            }
+            Thread thread = new Thread(() -> {
+                try (borrowed) {
+                    fetchAll(borrowed, queries, failure);
+                }
+            }, "iotdb-schema-lookup-" + i);
+            thread.setDaemon(true);
+            workers.add(thread);
+            thread.start();
+        }
+        fetchAll(connection, queries, failure);
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IoTDBConnectionException("Interrupted while loading the schema");
+            }
+        }
+
+        Exception e = failure.get();
+        if (e instanceof StatementExecutionException) {
+            throw (StatementExecutionException) e;
+        } else if (e instanceof IoTDBConnectionException) {
+            throw (IoTDBConnectionException) e;
+        }
+    }
+
+    /**
+     * Keeps the wildcard queries whose devices are a large enough share of the devices of their parent,
+     * the devices of the others are queried one by one. The devices of each parent are counted once.
+     */
+    private static Queue<Query> resolveWildcards(PooledConnection connection, Queue<Query> queries)
+        throws IoTDBConnectionException, StatementExecutionException {
+        Queue<Query> resolved = new ConcurrentLinkedQueue<>();
+        Map<String, Long> deviceCounts = new HashMap<>();
+        for (Query query : queries) {
+            if (query.parent == null) {
+                resolved.add(query);
+                continue;
+            }
+            Long count = deviceCounts.get(query.parent);
+            if (count == null) {
+                count = countDevices(connection, query.parent);
+                deviceCounts.put(query.parent, count);
+            }
+            if (query.devices.size() >= count * WILDCARD_MIN_SHARE) {
+                resolved.add(query);
+            } else {
+                query.devices.forEach(device -> resolved.add(single(query.timeseries, device)));
+            }
+        }
+        return resolved;
+    }
+
+    private static long countDevices(PooledConnection connection, String parent)
+        throws IoTDBConnectionException, StatementExecutionException {
+        try (SessionDataSet dataSet = connection.executeQueryStatement("count devices " + parent + ".*")) {
+            SessionDataSet.DataIterator iterator = dataSet.iterator();
+            return iterator.next() ? Long.parseLong(iterator.getString(1)) : 0;
+        }
+    }
+
+    /**
+     * Adds the timeseries written to a loaded device, they exist with these types now.
+     * Devices that were not loaded stay unloaded, their other timeseries are unknown.
+     */
+    public void update(String device, List<String> measurements, List<TSDataType> types) {
+        devices.computeIfPresent(device, (key, measurementTypes) -> {
+            for (int i = 0; i < measurements.size(); i++) {
+                measurementTypes.putIfAbsent(measurements.get(i), types.get(i));
+            }
+            return measurementTypes;
+        });
+    }
+
+    public void clear() {
+        devices.clear();
+        schemas.clear();
+        alignedDevices.clear();
+    }
+
+    private void fetchAll(PooledConnection connection, Queue<Query> queries, AtomicReference<Exception> failure) {
+        Query query;
+        while (failure.get() == null && (query = queries.poll()) != null) {
+            try {
+                fetch(connection, query);
+            } catch (IoTDBConnectionException | StatementExecutionException e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+    }
+
+    private void fetch(PooledConnection connection, Query query) throws IoTDBConnectionException, StatementExecutionException {
+        if (query.timeseries) {
+            fetchTimeseries(connection, query);
+        } else {
+            fetchDevices(connection, query);
+        }
+    }
+
+    private void fetchTimeseries(PooledConnection connection, Query query) throws IoTDBConnectionException, StatementExecutionException {
+        Map<String, Map<String, TSDataType>> result = new HashMap<>();
+        Map<String, Map<String, IMeasurementSchema>> resultSchemas = new HashMap<>();
+        for (String device : query.devices) {
+            result.put(device, new ConcurrentHashMap<>());
+            resultSchemas.put(device, new ConcurrentHashMap<>());
+        }
+        try (SessionDataSet dataSet = connection.executeQueryStatement("show timeseries " + query.pattern)) {
+            SessionDataSet.DataIterator iterator = dataSet.iterator();
+            while (iterator.next()) {
+                String timeseries = iterator.getString(TIMESERIES);
+                TSDataType type = toType(iterator.getString(DATATYPE));
+                String measurement = lastNodeOf(timeseries);
+                if (type == null || measurement.length() == timeseries.length()) {
+                    continue;
+                }
+                // the devices of a wildcard are listed completely, other devices of the parent are kept too
+                String device = timeseries.substring(0, timeseries.length() - measurement.length() - 1);
+                result.computeIfAbsent(device, key -> new ConcurrentHashMap<>()).put(measurement, type);
+                IMeasurementSchema schema = toSchema(measurement, type, iterator.getString(ENCODING), iterator.getString(COMPRESSION));
+                if (schema != null) {
+                    resultSchemas.computeIfAbsent(device, key -> new ConcurrentHashMap<>()).put(measurement, schema);
+                }
+            }
+        }
+        // the schemas first, a device with types has its schemas
+        schemas.putAll(resultSchemas);
+        devices.putAll(result);
+    }
+
+    private void fetchDevices(PooledConnection connection, Query query) throws IoTDBConnectionException, StatementExecutionException {
+        Map<String, Boolean> result = new HashMap<>();
+        for (String device : query.devices) {
+            result.put(device, false);
+        }
+        try (SessionDataSet dataSet = connection.executeQueryStatement("show devices " + query.pattern)) {
+            SessionDataSet.DataIterator iterator = dataSet.iterator();
+            while (iterator.next()) {
+                result.put(iterator.getString(DEVICE), "true".equalsIgnoreCase(iterator.getString(IS_ALIGNED)));
+            }
+        }
+        alignedDevices.putAll(result);
+    }
+
+    private static String parentOf(String device) {
+        try {
+            String[] nodes = PathUtils.splitPathToDetachedNodes(device);
+            if (nodes.length < 3) {
+                return null;
+            }
+            return device.substring(0, device.length() - nodes[nodes.length - 1].length() - 1);
+        } catch (IllegalPathException e) {
+            return null;
+        }
+    }
+
+    private static String lastNodeOf(String timeseries) {
+        try {
+            String[] nodes = PathUtils.splitPathToDetachedNodes(timeseries);
+            return nodes[nodes.length - 1];
+        } catch (IllegalPathException e) {
+            return timeseries.substring(timeseries.lastIndexOf('.') + 1);
+        }
+    }
+
+    private static TSDataType toType(String type) {
+        try {
+            return TSDataType.valueOf(type);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static IMeasurementSchema toSchema(String measurement, TSDataType type, String encoding, String compression) {
+        try {
+            return new MeasurementSchema(measurement, type, TSEncoding.valueOf(encoding), CompressionType.valueOf(compression));
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    @AllArgsConstructor
+    private static class Query {
+        private final boolean timeseries;
+        private final String pattern;
+        private final List<String> devices;
+        // parent of the devices of a wildcard pattern
+        private final String parent;
+    }
+}
@@ -16,24 +16,28 @@ import org.apache.iotdb.rpc.StatementExecutionException;
 import org.apache.thrift.TException;
 
 import java.time.Duration;
+import java.time.ZoneId;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Getter
 public class Session implements Sessionable {
 
     @Getter
     private final SessionProps props;
-    private final org.apache.iotdb.session.Session iotdbSession;
-    private boolean opened = false;
+    private final ConnectionPool pool;
+    private volatile boolean opened = false;
     @Setter
     private boolean databasesLoaded = false;
 
-    private String activeDatabase;
+    private volatile String activeDatabase;
+
+    private final SchemaCache schemaCache = new SchemaCache(this);
 
     public Session(SessionProps props) {
         this.props = props;
-        this.iotdbSession = new org.apache.iotdb.session.Session(props.toBuilder());
+        this.pool = new ConnectionPool(props);
     }
 
     @Override
@@ -45,8 +49,8 @@ public class Session implements Sessionable {
     public void changeDatabase(String database) {
         if (activeDatabase == null || !activeDatabase.equals(database)) {
             activeDatabase = database;
-            try {
-                executeNonQueryStatement("use " + database);
+            try (PooledConnection connection = borrowConnection()) {
+                connection.useDatabase(database);
             } catch (Exception e) {
                 Utils.Message.error(e.getMessage(), e);
             }
@@ -68,20 +72,59 @@ public class Session implements Sessionable {
 
     public void open() throws IoTDBConnectionException {
         if (!opened) {
-            iotdbSession.open();
+            // borrowing opens the first pooled connection and verifies the server is reachable
+            pool.borrow().close();
         }
         opened = true;
     }
 
     public void close() {
-        try {
-            if (opened) {
-                iotdbSession.close();
+        if (opened) {
+            pool.close();
+        }
+        opened = false;
+        schemaCache.clear();
+    }
+
+    /**
+     * Borrows an exclusive connection from the session pool, switched to the active database.
+     * The connection must be closed to return it to the pool.
+     */
+    public PooledConnection borrowConnection() throws IoTDBConnectionException {
+        if (!opened) {
+            open();
+        }
+        PooledConnection connection = pool.borrow();
+        if (activeDatabase != null) {
+            try {
+                connection.useDatabase(activeDatabase);
+            } catch (StatementExecutionException e) {
+                connection.close();
+                throw new IoTDBConnectionException(e.getMessage());
             }
-            opened = false;
-        } catch (IoTDBConnectionException e) {
-            Utils.Message.error(e.getMessage(), e);
         }
+        return connection;
+    }
+
+    /**
+     * Like {@link #borrowConnection()}, but only if the pool has an idle connection left.
+     *
+     * @return {@code null} if all connections are borrowed
+     */
+    public PooledConnection tryBorrowConnection() throws IoTDBConnectionException {
+        if (!opened) {
+            open();
+        }
+        PooledConnection connection = pool.tryBorrow();
+        if (connection != null && activeDatabase != null) {
+            try {
+                connection.useDatabase(activeDatabase);
+            } catch (StatementExecutionException e) {
+                connection.close();
+                throw new IoTDBConnectionException(e.getMessage());
+            }
+        }
+        return connection;
     }
 
     public Set<Database> loadDatabases() throws Exception {
@@ -89,8 +132,8 @@ public class Session implements Sessionable {
         if (result.hasException()) {
             throw result.getException();
         } else {
-            return result.getDatas().stream()
-                .map(row -> new Database(row.get("Database").toString(), false, this))
+            return IntStream.range(0, result.getRowCount())
+                .mapToObj(row -> new Database(result.getValue(row, "Database").toString(), false, this))
                 .sorted(Comparator.comparing(Database::getName))
                 .collect(Collectors.toCollection(LinkedHashSet::new));
         }
@@ -103,15 +146,15 @@ public class Session implements Sessionable {
         if (result.hasException()) {
             throw result.getException();
         } else {
-            return result.getDatas().stream()
-                .map(row -> {
-                    String device = row.get("Device").toString();
+            return IntStream.range(0, result.getRowCount())
+                .mapToObj(row -> {
+                    String device = result.getValue(row, "Device").toString();
                     String name = device.substring(database.length() + 1);
-                    boolean aligned = Boolean.parseBoolean(row.get("IsAligned").toString());
-                    String template = Optional.ofNullable(row.get("Template"))
+                    boolean aligned = Boolean.parseBoolean(result.getValue(row, "IsAligned").toString());
+                    String template = Optional.ofNullable(result.getValue(row, "Template"))
                         .map(Object::toString)
                         .orElse("");
-                    String ttl = Optional.ofNullable(row.get("TTL(ms)"))
+                    String ttl = Optional.ofNullable(result.getValue(row, "TTL(ms)"))
                         .map(Object::toString)
                         .map(s -> {
                             if (NumberUtil.isNumber(s)) {
@@ -135,10 +178,10 @@ public class Session implements Sessionable {
         if (result.hasException()) {
             throw result.getException();
         } else {
-            return result.getDatas().stream()
-                .map(row -> {
-                    String tableName = row.get("TableName").toString();
-                    String ttl = Optional.ofNullable(row.get("TTL(ms)"))
+            return IntStream.range(0, result.getRowCount())
+                .mapToObj(row -> {
+                    String tableName = result.getValue(row, "TableName").toString();
+                    String ttl = Optional.ofNullable(result.getValue(row, "TTL(ms)"))
                         .map(Object::toString)
                         .map(s -> {
                             if (NumberUtil.isNumber(s)) {
@@ -156,18 +199,14 @@ public class Session implements Sessionable {
     }
 
     public List<Metric> loadTimeseries(String devicePath) throws IoTDBConnectionException, StatementExecutionException {
-        if (!opened) {
-            open();
-        }
-        SessionDataSet dataSet = null;
-        try {
+        try (PooledConnection connection = borrowConnection()) {
 
             String querySql = "show timeseries " + devicePath + (devicePath.endsWith(".**") ? "" : ".**");
             if (Configuration.instance().options().isLogInternalSql()) {
                 AppEvents.instance().applyEvent(l -> l.appendSqlLog(querySql));
             }
 
-            dataSet = iotdbSession.executeQueryStatement(querySql);
+            SessionDataSet dataSet = connection.executeQueryStatement(querySql);
 
             List<Metric> metrics = new ArrayList<>();
             SessionDataSet.DataIterator iterator = dataSet.iterator();
@@ -192,24 +231,18 @@ public class Session implements Sessionable {
                 metrics.add(metric);
             }
             return metrics;
-        } finally {
-            closeDataSet(dataSet);
         }
     }
 
     public List<Column> loadTableColumns(String tableName) throws IoTDBConnectionException, StatementExecutionException {
-        if (!opened) {
-            open();
-        }
-        SessionDataSet dataSet = null;
-        try {
+        try (PooledConnection connection = borrowConnection()) {
 
             String querySql = "desc " + tableName + " details";
             if (Configuration.instance().options().isLogInternalSql()) {
                 AppEvents.instance().applyEvent(l -> l.appendSqlLog(querySql));
             }
 
-            dataSet = iotdbSession.executeQueryStatement(querySql);
+            SessionDataSet dataSet = connection.executeQueryStatement(querySql);
 
             List<Column> columns = new ArrayList<>();
             SessionDataSet.DataIterator iterator = dataSet.iterator();
@@ -223,8 +256,6 @@ public class Session implements Sessionable {
                 columns.add(column);
             }
             return columns;
-        } finally {
-            closeDataSet(dataSet);
         }
     }
 
@@ -267,38 +298,32 @@ public class Session implements Sessionable {
     }
 
     public String queryDatabaseTtl(String database) throws IoTDBConnectionException, StatementExecutionException {
-        SessionDataSet dataSet = null;
-        try {
+        try (PooledConnection connection = borrowConnection()) {
             String sql = String.format("show ttl on %s", database);
             if (Configuration.instance().options().isLogInternalSql()) {
                 AppEvents.instance().applyEvent(l -> l.appendSqlLog(sql));
             }
-            dataSet = iotdbSession.executeQueryStatement(sql);
+            SessionDataSet dataSet = connection.executeQueryStatement(sql);
             if (dataSet.iterator().next()) {
                 return dataSet.iterator().getString("TTL(ms)");
             } else {
                 return "0";
             }
-        } finally {
-            closeDataSet(dataSet);
         }
     }
 
     public String queryTtl(String path) throws IoTDBConnectionException, StatementExecutionException {
-        SessionDataSet dataSet = null;
-        try {
+        try (PooledConnection connection = borrowConnection()) {
             String sql = String.format("show ttl on %s", path.endsWith(".**") ? path : path + ".**");
             if (Configuration.instance().options().isLogInternalSql()) {
                 AppEvents.instance().applyEvent(l -> l.appendSqlLog(sql));
             }
-            dataSet = iotdbSession.executeQueryStatement(sql);
+            SessionDataSet dataSet = connection.executeQueryStatement(sql);
             if (dataSet.iterator().next()) {
                 return dataSet.iterator().getString("TTL(ms)");
             } else {
                 return "0";
             }
-        } finally {
-            closeDataSet(dataSet);
         }
     }
 
@@ -306,40 +331,57 @@ public class Session implements Sessionable {
         if (Configuration.instance().options().isLogInternalSql()) {
             AppEvents.instance().applyEvent(l -> l.appendSqlLog(sql));
         }
-        iotdbSession.executeNonQueryStatement(sql);
+        executeNonQueryStatement(sql);
     }
 
-    public List<QueryResult> batchExplain(String sqlText, boolean withAnalyze) {
+    public List<QueryResult> batchExplain(String sqlText, boolean withAnalyze, QueryHandle handle) {
         List<QueryResult> results = new ArrayList<>();
         List<String> sqls = StringUtils.split(sqlText, ';', true, true);
         for (String sql : sqls) {
+            if (handle.isCancelled()) {
+                break;
+            }
             String lowerCaseSql = StrUtil.trim(sql).toLowerCase();
             if (!lowerCaseSql.startsWith("explain")) {
                 sql = "explain " + (withAnalyze ? "analyze " : "") + sql;
             }
-            results.add(query(sql, true));
+            results.add(query(sql, true, false, handle));
         }
         return results;
     }
 
-    public List<QueryResult> batchQuery(String sqlText, boolean enableLog) {
+    /**
+     * Executes the statements one by one, a cancelled handle stops the batch at the current statement
+     * and the results collected so far are returned.
+     */
+    public List<QueryResult> batchQuery(String sqlText, boolean enableLog, QueryHandle handle) {
         List<QueryResult> results = new ArrayList<>();
         List<String> sqls = StrSplitter.splitByRegex(sqlText, ";\\s*\\n", -1, true, true);
         for (String sql : sqls) {
-            results.add(query(sql, enableLog));
+            if (handle.isCancelled()) {
+                break;
+            }
+            results.add(query(sql, enableLog, true, handle));
         }
         return results;
     }
 
     public QueryResult query(String sql, boolean enableLog) {
+        return query(sql, enableLog, false, null);
+    }
+
+    /**
+     * @param streaming publish only the first fetchSize block, the rest is fetched on demand by the result.
+     *                  Falls back to a fully fetched result when no spare connection is left in the pool
+     *                  or half of the pool is already held by streaming results.
+     * @param handle    optional handle to cancel the statement with
+     */
+    public QueryResult query(String sql, boolean enableLog, boolean streaming, QueryHandle handle) {
         String querySql = StrUtil.trim(sql).replaceAll("\n", "");
         QueryResult result = new QueryResult(querySql);
-        SessionDataSet dataSet = null;
+        PooledConnection connection = null;
         try {
-            if (!opened) {
-                open();
-            }
-
+            connection = borrowConnection();
             if (enableLog) {
                 AppEvents.instance().applyEvent(l -> l.appendSqlLog(querySql));
             }
@@ -352,20 +394,57 @@ public class Session implements Sessionable {
                     !lowerCaseSql.startsWith("count") &&
                     !lowerCaseSql.startsWith("tracing") &&
                     !lowerCaseSql.startsWith("desc")) {
-                iotdbSession.executeNonQueryStatement(querySql);
+                attach(handle, connection);
+                try {
+                    connection.executeNonQueryStatement(querySql);
+                } finally {
+                    detach(handle);
+                    schemaCache.clear();
+                }
+                useDatabase(querySql);
                 result.success();
             } else {
-                dataSet = iotdbSession.executeQueryStatement(querySql);
-                result.success(dataSet);
+                SessionDataSet dataSet;
+                attach(handle, connection);
+                try {
+                    dataSet = connection.executeQueryStatement(querySql);
+                } finally {
+                    detach(handle);
+                }
+                if (streaming && pool.tryHoldForCursor(connection)) {
+                    result.streaming(connection, dataSet, props.getFetchSize(), handle);
+                    // the connection is owned by the result cursor now
+                    connection = null;
+                } else {
+                    result.success(dataSet, handle);
+                }
             }
         } catch (Exception e) {
-            result.error(e);
+            if (handle != null && handle.isCancelled()) {
+                result.cancelled();
+            } else {
+                result.error(e);
+            }
         } finally {
-            closeDataSet(dataSet);
+            if (connection != null) {
+                connection.close();
+            }
         }
         return result;
     }
 
+    private void attach(QueryHandle handle, PooledConnection connection) {
+        if (handle != null) {
+            handle.attach(connection);
+        }
+    }
+
+    private void detach(QueryHandle handle) {
+        if (handle != null) {
+            handle.detach();
+        }
+    }
+
     public int countDevices(String database) throws IoTDBConnectionException, StatementExecutionException {
         return countOne("count devices " + database + (database.endsWith(".**") ? "" : ".**"));
     }
@@ -375,25 +454,21 @@ public class Session implements Sessionable {
     }
 
     public int countOne(String countSql) throws IoTDBConnectionException, StatementExecutionException {
-        SessionDataSet dataSet = null;
-        try {
+        try (PooledConnection connection = borrowConnection()) {
             if (Configuration.instance().options().isLogInternalSql()) {
                 AppEvents.instance().applyEvent(l -> l.appendSqlLog(countSql));
             }
-            dataSet = iotdbSession.executeQueryStatement(countSql);
+            SessionDataSet dataSet = connection.executeQueryStatement(countSql);
             if (dataSet.iterator().next()) {
                 return dataSet.iterator().getInt(1);
             } else {
                 return 0;
             }
-        } finally {
-            closeDataSet(dataSet);
         }
     }
 
     public long countRows(Device device, boolean aligned) throws IoTDBConnectionException, StatementExecutionException {
-        SessionDataSet dataSet = null;
-        try {
+        try (PooledConnection connection = borrowConnection()) {
             StringBuilder countSql = new StringBuilder();
             countSql.append("select count_time(*) as total_rows from ")
                 .append(device.getDatabase())
@@ -406,20 +481,17 @@ public class Session implements Sessionable {
             if (Configuration.instance().options().isLogInternalSql()) {
                 AppEvents.instance().applyEvent(l -> l.appendSqlLog(countSql.toString()));
             }
-            dataSet = iotdbSession.executeQueryStatement(countSql.toString());
+            SessionDataSet dataSet = connection.executeQueryStatement(countSql.toString());
             if (dataSet.iterator().next()) {
                 return dataSet.iterator().getLong("total_rows");
             } else {
                 return 0;
             }
-        } finally {
-            closeDataSet(dataSet);
         }
     }
 
     public long countRows(Table table) throws IoTDBConnectionException, StatementExecutionException {
-        SessionDataSet dataSet = null;
-        try {
+        try (PooledConnection connection = borrowConnection()) {
             StringBuilder countSql = new StringBuilder();
             countSql.append("select count(*) as total_rows from ")
                 .append(table.getDatabase())
@@ -429,45 +501,46 @@ public class Session implements Sessionable {
             if (Configuration.instance().options().isLogInternalSql()) {
                 AppEvents.instance().applyEvent(l -> l.appendSqlLog(countSql.toString()));
             }
-            dataSet = iotdbSession.executeQueryStatement(countSql.toString());
+            SessionDataSet dataSet = connection.executeQueryStatement(countSql.toString());
             if (dataSet.iterator().next()) {
                 return dataSet.iterator().getLong("total_rows");
             } else {
                 return 0;
             }
-        } finally {
-            closeDataSet(dataSet);
         }
     }
 
-    public SessionDataSet executeQueryStatement(String sql) throws IoTDBConnectionException, StatementExecutionException {
-        return iotdbSession.executeQueryStatement(sql);
-    }
-
-    public SessionDataSet executeQueryStatement(String sql, long timeoutInMs) throws IoTDBConnectionException, StatementExecutionException {
-        return iotdbSession.executeQueryStatement(sql, timeoutInMs);
-    }
-
     public void executeNonQueryStatement(String sql) throws IoTDBConnectionException, StatementExecutionException {
-        iotdbSession.executeNonQueryStatement(sql);
+        try (PooledConnection connection = borrowConnection()) {
+            connection.executeNonQueryStatement(sql);
+        } finally {
+            // the statement may have created or deleted timeseries
+            schemaCache.clear();
+        }
+        useDatabase(sql);
     }
 
-    private void closeDataSet(SessionDataSet dataSet) {
-        try {
-            if (dataSet != null) {
-                dataSet.close();
-            }
-        } catch (Exception e) {
-            Utils.Message.error(e.getMessage(), e);
+    /**
+     * A {@code use} statement executed on one connection applies to the whole session, the other
+     * connections switch to the database when they are borrowed next.
+     */
+    private void useDatabase(String sql) {
+        String database = PooledConnection.usedDatabase(sql);
+        if (database != null) {
+            activeDatabase = database;
         }
     }
 
     public String getTimeZone() {
-        return iotdbSession.getTimeZone();
+        return Optional.ofNullable(props.getZoneId())
+            .orElse(ZoneId.systemDefault())
+            .getId();
     }
 
-    public String getTimestampPrecision() throws TException {
-        return iotdbSession.getTimestampPrecision();
+    public String getTimestampPrecision() throws TException, IoTDBConnectionException {
+        try (PooledConnection connection = borrowConnection()) {
+            return connection.getIotdbSession().getTimestampPrecision();
+        }
     }
 
     /**
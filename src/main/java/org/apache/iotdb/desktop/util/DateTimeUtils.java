@@ -447,26 +447,33 @@ public class DateTimeUtils {
         try {
             ZonedDateTime zonedDateTime = ZonedDateTime.parse(str, formatter);
             Instant instant = zonedDateTime.toInstant();
-            if ("us".equals(timestampPrecision)) {
-                if (instant.getEpochSecond() < 0 && instant.getNano() > 0) {
-                    // adjustment can reduce the loss of the division
-                    long millis = Math.multiplyExact(instant.getEpochSecond() + 1, 1000_000L);
-                    long adjustment = instant.getNano() / 1000 - 1L;
-                    return Math.addExact(millis, adjustment);
-                } else {
-                    long millis = Math.multiplyExact(instant.getEpochSecond(), 1000_000L);
-                    return Math.addExact(millis, instant.getNano() / 1000);
-                }
-            } else if ("ns".equals(timestampPrecision)) {
-                long millis = Math.multiplyExact(instant.getEpochSecond(), 1000_000_000L);
-                return Math.addExact(millis, instant.getNano());
-            }
-            return instant.toEpochMilli();
+            return toTimestamp(instant.getEpochSecond(), instant.getNano(), timestampPrecision);
         } catch (DateTimeParseException e) {
             throw new RuntimeException(e.getMessage());
         }
     }
 
+    /**
+     * Timestamp of the instant in the precision.
+     */
+    public static long toTimestamp(long epochSecond, int nano, String timestampPrecision) {
+        if ("us".equals(timestampPrecision)) {
+            if (epochSecond < 0 && nano > 0) {
+                // adjustment can reduce the loss of the division
+                long millis = Math.multiplyExact(epochSecond + 1, 1000_000L);
+                long adjustment = nano / 1000 - 1L;
+                return Math.addExact(millis, adjustment);
+            } else {
+                long millis = Math.multiplyExact(epochSecond, 1000_000L);
+                return Math.addExact(millis, nano / 1000);
+            }
+        } else if ("ns".equals(timestampPrecision)) {
+            long millis = Math.multiplyExact(epochSecond, 1000_000_000L);
+            return Math.addExact(millis, nano);
+        }
+        return Instant.ofEpochSecond(epochSecond, nano).toEpochMilli();
+    }
+
     public static ZoneOffset toZoneOffset(ZoneId zoneId) {
         return zoneId.getRules().getOffset(Instant.now());
     }
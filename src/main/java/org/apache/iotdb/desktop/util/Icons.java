@@ -39,6 +39,7 @@ public final class Icons {
     public static final Icon ADD = new FlatSVGIcon("svg/icons/add.svg");
     public static final Icon DELETE = new FlatSVGIcon("svg/icons/delete.svg");
     public static final Icon EXECUTE = new FlatSVGIcon("svg/icons/execute.svg");
+    public static final Icon STOP = new FlatSVGIcon("svg/icons/stop.svg");
     public static final Icon SAVE = new FlatSVGIcon("svg/icons/save.svg");
     public static final Icon OPEN = new FlatSVGIcon("svg/icons/folder_open.svg");
     public static final Icon QUERY = new FlatSVGIcon("svg/icons/toolbar_query.svg", 16, 16);
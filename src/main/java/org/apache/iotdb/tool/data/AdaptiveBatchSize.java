@@ -0,0 +1,140 @@
+package org.apache.iotdb.tool.data;
+
+import lombok.AllArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rows per insert batch of an import, adapted to hold a target insert latency.
+ * <p>
+ * The latency of each written batch is scaled to the current size and smoothed, a size whose
+ * batches take longer than the target shrinks and one whose batches are well below it grows, by at
+ * most half of the size per step and within the configured bounds. A failed insert halves the size
+ * at once, a server that rejects or drops large requests gets smaller ones. Batches less than half
+ * full, like the last one of a file, tell little about the size and are ignored. Without a target
+ * the size stays fixed.
+ */
+public class AdaptiveBatchSize {
+
+    private static final double SMOOTHING = 0.3;
+    private static final double TOLERANCE = 0.2;
+    private static final double MIN_CHANGE = 0.1;
+    private static final double MAX_GROWTH = 1.5;
+    private static final double MAX_SHRINK = 0.5;
+    /**
+     * Batches measured after a change before the next one, batches in flight still have the old size.
+     */
+    private static final int SETTLE_SAMPLES = 3;
+    private static final int MAX_HISTORY = 50;
+
+    private final int minSize;
+    private final int maxSize;
+    private final long targetNanos;
+    private final long startNanos = System.nanoTime();
+    private final List<Change> history = new ArrayList<>();
+    private volatile int size;
+    private double latencyNanos = -1;
+    private int samples = 0;
+    private int changes = 0;
+
+    /**
+     * @param initialSize     size of the first batches, kept within the bounds
+     * @param targetLatencyMs latency to hold, {@code 0} for a fixed size
+     */
+    public AdaptiveBatchSize(int initialSize, int minSize, int maxSize, long targetLatencyMs) {
+        this.minSize = Math.min(minSize, maxSize);
+        this.maxSize = maxSize;
+        this.targetNanos = targetLatencyMs * 1_000_000;
+        this.size = targetLatencyMs > 0 ? Math.max(this.minSize, Math.min(maxSize, initialSize)) : initialSize;
+    }
+
+    /**
+     * Rows of the next batch.
+     */
+    public int get() {
+        return size;
+    }
+
+    public boolean isAdaptive() {
+        return targetNanos > 0;
+    }
+
+    /**
+     * Takes the latency of a written batch.
+     *
+     * @param rows rows of the batch, per device for tablets
+     */
+    public synchronized void onSuccess(int rows, long nanos) {
+        if (!isAdaptive() || rows * 2 < size) {
+            return;
+        }
+        double scaled = (double) nanos * size / rows;
+        latencyNanos = latencyNanos < 0 ? scaled : latencyNanos + SMOOTHING * (scaled - latencyNanos);
+        if (++samples < SETTLE_SAMPLES) {
+            return;
+        }
+        double ratio = targetNanos / latencyNanos;
+        if (ratio > 1 - TOLERANCE && ratio < 1 + TOLERANCE) {
+            return;
+        }
+        ratio = Math.max(MAX_SHRINK, Math.min(MAX_GROWTH, ratio));
+        resize((int) (size * ratio), String.format("%d ms", Math.round(latencyNanos / 1e6)));
+    }
+
+    /**
+     * Takes a batch the server rejected or did not answer.
+     */
+    public synchronized void onFailure(String reason) {
+        if (isAdaptive()) {
+            resize((int) (size * MAX_SHRINK), reason);
+        }
+    }
+
+    /**
+     * The current size with the changes made so far, for the output of the import.
+     */
+    public synchronized String describe() {
+        if (!isAdaptive()) {
+            return "batch size " + size;
+        }
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("batch size %d (%d to %d for %d ms), %d changes",
+            size, minSize, maxSize, targetNanos / 1_000_000, changes));
+        if (changes > history.size()) {
+            builder.append(String.format("%n  ... %d earlier changes", changes - history.size()));
+        }
+        for (Change change : history) {
+            builder.append(String.format("%n  %.1f s: %d -> %d, %s", change.seconds, change.from, change.to, change.reason));
+        }
+        return builder.toString();
+    }
+
+    private void resize(int newSize, String reason) {
+        newSize = Math.max(minSize, Math.min(maxSize, newSize));
+        samples = 0;
+        latencyNanos = -1;
+        if (Math.abs(newSize - size) < size * MIN_CHANGE) {
+            return;
+        }
+        if (history.size() == MAX_HISTORY) {
+            history.remove(0);
+        }
+        history.add(new Change((System.nanoTime() - startNanos) / 1e9, size, newSize, reason));
+        changes++;
+        size = newSize;
+    }
+
+    @AllArgsConstructor
+    private static class Change {
+
+        private final double seconds;
+
+        private final int from;
+
+        private final int to;
+
+        private final String reason;
+
+    }
+}
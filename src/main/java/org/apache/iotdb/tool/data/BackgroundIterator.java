@@ -0,0 +1,101 @@
+package org.apache.iotdb.tool.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Drains an iterator on a separate thread into a bounded queue, so reading the source overlaps with
+ * the consumer. Elements are handed over in chunks to keep the queue off the per element path.
+ * A failure of the source is rethrown to the consumer once the elements read before it are consumed.
+ */
+public class BackgroundIterator<T> implements Iterator<T>, AutoCloseable {
+
+    private static final int CHUNK_SIZE = 1024;
+    private static final List<Object> END = Collections.emptyList();
+
+    private final BlockingQueue<List<T>> queue;
+    private final Thread thread;
+    private volatile RuntimeException failure;
+    private Iterator<T> chunk = Collections.emptyIterator();
+    private boolean ended = false;
+
+    public BackgroundIterator(Iterator<T> source, int queueChunks, String threadName) {
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueChunks));
+        this.thread = new Thread(() -> read(source), threadName);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void read(Iterator<T> source) {
+        try {
+            List<T> elements = new ArrayList<>(CHUNK_SIZE);
+            while (source.hasNext()) {
+                elements.add(source.next());
+                if (elements.size() >= CHUNK_SIZE) {
+                    queue.put(elements);
+                    elements = new ArrayList<>(CHUNK_SIZE);
+                }
+            }
+            if (!elements.isEmpty()) {
+                queue.put(elements);
+            }
+        } catch (InterruptedException e) {
+            return;
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        try {
+            queue.put((List<T>) END);
+        } catch (InterruptedException ignored) {
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!chunk.hasNext()) {
+            if (ended) {
+                return false;
+            }
+            List<T> elements;
+            try {
+                elements = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException();
+            }
+            if (elements == END) {
+                ended = true;
+                if (failure != null) {
+                    throw failure;
+                }
+                return false;
+            }
+            chunk = elements.iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return chunk.next();
+    }
+
+    /**
+     * Stops the reading thread, the source itself is closed by its owner.
+     */
+    @Override
+    public void close() {
+        thread.interrupt();
+        queue.clear();
+    }
+}
@@ -4,19 +4,37 @@ import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
 import org.apache.commons.csv.QuoteMode;
 
+import org.apache.thrift.annotation.Nullable;
+
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 
 public class CSVPrinterWrapper {
 
     private final String filePath;
     private final CSVFormat csvFormat;
     private final TextPrinter textPrinter;
+    private final int bufferSize;
+    private final JobMetrics metrics;
     private CSVPrinter csvPrinter;
 
     public CSVPrinterWrapper(String filePath, TextPrinter textPrinter) {
+        this(filePath, textPrinter, 0, null);
+    }
+
+    /**
+     * Files are written in UTF-8, files with the {@code .gz} suffix are gzip compressed.
+     *
+     * @param bufferSize write buffer of the file, 0 for the default
+     * @param metrics    metrics of the job that count the written bytes, {@code null} for none
+     */
+    public CSVPrinterWrapper(String filePath, TextPrinter textPrinter, int bufferSize, @Nullable JobMetrics metrics) {
         this.filePath = filePath;
         this.textPrinter = textPrinter;
+        this.bufferSize = bufferSize;
+        this.metrics = metrics;
         this.csvFormat =
             CSVFormat.Builder.create(CSVFormat.DEFAULT)
                 .setHeader()
@@ -28,7 +46,7 @@ public class CSVPrinterWrapper {
 
     public void printRecord(final Iterable<?> values) throws IOException {
         if (csvPrinter == null) {
-            csvPrinter = csvFormat.print(new PrintWriter(filePath));
+            csvPrinter = csvFormat.print(open());
         }
         csvPrinter.printRecord(values);
     }
@@ -36,7 +54,7 @@ public class CSVPrinterWrapper {
     public void print(Object value) {
         if (csvPrinter == null) {
             try {
-                csvPrinter = csvFormat.print(new PrintWriter(filePath));
+                csvPrinter = csvFormat.print(open());
             } catch (IOException e) {
                 textPrinter.printException(e);
                 return;
@@ -49,6 +67,13 @@ public class CSVPrinterWrapper {
         }
     }
 
+    private Writer open() throws IOException {
+        if (bufferSize <= 0 && metrics == null && !filePath.endsWith(ExportFiles.GZIP_SUFFIX)) {
+            return new PrintWriter(filePath, StandardCharsets.UTF_8);
+        }
+        return ExportFiles.open(filePath, bufferSize > 0 ? bufferSize : ExportFiles.DEFAULT_BUFFER_SIZE, metrics);
+    }
+
     public void println() throws IOException {
         csvPrinter.println();
     }
@@ -0,0 +1,73 @@
+package org.apache.iotdb.tool.data;
+
+import org.apache.tsfile.enums.TSDataType;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Infers one type per column from sampled values. Each value is typed on its own and the types of a
+ * column are widened to one that holds all of them: INT32 to INT64, integers to FLOAT and DOUBLE, and
+ * anything mixed with text or booleans to STRING, or to TEXT once a value is TEXT.
+ */
+public class ColumnTypeInference {
+
+    private final Function<String, TSDataType> valueType;
+    private final Map<String, TSDataType> types = new LinkedHashMap<>();
+    private final Map<String, Long> valueCounts = new LinkedHashMap<>();
+
+    /**
+     * @param valueType type of a single value, {@code null} for values without a type like null literals
+     */
+    public ColumnTypeInference(Function<String, TSDataType> valueType) {
+        this.valueType = valueType;
+    }
+
+    public void add(String column, String value) {
+        if (value.isEmpty()) {
+            return;
+        }
+        TSDataType type = valueType.apply(value);
+        if (type == null) {
+            return;
+        }
+        types.merge(column, type, ColumnTypeInference::widen);
+        valueCounts.merge(column, 1L, Long::sum);
+    }
+
+    /**
+     * Types of the columns with a typed value, in the order they got their first one.
+     */
+    public Map<String, TSDataType> getTypes() {
+        return types;
+    }
+
+    public long getValueCount(String column) {
+        return valueCounts.getOrDefault(column, 0L);
+    }
+
+    public static TSDataType widen(TSDataType a, TSDataType b) {
+        if (a == b) {
+            return a;
+        }
+        if (isNumeric(a) && isNumeric(b)) {
+            if (a == TSDataType.DOUBLE || b == TSDataType.DOUBLE) {
+                return TSDataType.DOUBLE;
+            }
+            if (a == TSDataType.FLOAT || b == TSDataType.FLOAT) {
+                // a float does not hold every long
+                return a == TSDataType.INT64 || b == TSDataType.INT64 ? TSDataType.DOUBLE : TSDataType.FLOAT;
+            }
+            return TSDataType.INT64;
+        }
+        if (a == TSDataType.TEXT || b == TSDataType.TEXT) {
+            return TSDataType.TEXT;
+        }
+        return TSDataType.STRING;
+    }
+
+    private static boolean isNumeric(TSDataType type) {
+        return type == TSDataType.INT32 || type == TSDataType.INT64 || type == TSDataType.FLOAT || type == TSDataType.DOUBLE;
+    }
+}
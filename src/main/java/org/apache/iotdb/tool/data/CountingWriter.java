@@ -0,0 +1,37 @@
+package org.apache.iotdb.tool.data;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Counts the characters written to an exported file as written bytes of the job, exported files are
+ * mostly ASCII.
+ */
+public class CountingWriter extends FilterWriter {
+
+    private final JobMetrics metrics;
+
+    public CountingWriter(Writer out, JobMetrics metrics) {
+        super(out);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        super.write(c);
+        metrics.addBytes(1);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        super.write(cbuf, off, len);
+        metrics.addBytes(len);
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        super.write(str, off, len);
+        metrics.addBytes(len);
+    }
+}
@@ -0,0 +1,223 @@
+package org.apache.iotdb.tool.data;
+
+import org.apache.thrift.annotation.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes the CSV files of an export in the dialect of {@link CSVPrinterWrapper}: comma delimited CRLF
+ * records without quoting, the delimiter, the backslash and line breaks are escaped with a backslash.
+ * <p>
+ * Values are encoded as UTF-8 straight into a large byte buffer that goes to the file channel when it
+ * is full. Integers are formatted digit by digit and text is encoded char by char, so a row does not
+ * allocate strings other than those of its text values.
+ */
+public class CsvExportWriter implements Closeable {
+
+    private static final int MIN_BUFFER_SIZE = 1 << 16;
+    private static final byte DELIMITER = ',';
+    private static final byte ESCAPE = '\\';
+    private static final byte QUOTE = '"';
+    private static final byte[] RECORD_SEPARATOR = {'\r', '\n'};
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MIN_LONG = String.valueOf(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+    // a UTF-8 sequence or an escaped char
+    private static final int MAX_CHAR_BYTES = 4;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final JobMetrics metrics;
+    private final byte[] digits = new byte[20];
+    private boolean newRecord = true;
+
+    /**
+     * Files with the {@code .gz} suffix are gzip compressed.
+     *
+     * @param bufferSize bytes buffered before a write to the file, at least 64 KB
+     * @param metrics    metrics of the job that count the written bytes, {@code null} for none
+     */
+    public CsvExportWriter(String path, int bufferSize, @Nullable JobMetrics metrics) throws IOException {
+        this.buffer = ByteBuffer.allocate(Math.max(bufferSize, MIN_BUFFER_SIZE));
+        this.channel = ExportFiles.openChannel(path, buffer.capacity());
+        this.metrics = metrics;
+    }
+
+    /**
+     * Writes the values as one record, their text is escaped.
+     */
+    public void printRecord(Iterable<?> values) throws IOException {
+        for (Object value : values) {
+            print(value == null ? null : value.toString());
+        }
+        println();
+    }
+
+    /**
+     * Writes an empty field.
+     */
+    public void printNull() throws IOException {
+        delimit();
+    }
+
+    public void print(@Nullable String value) throws IOException {
+        delimit();
+        if (value != null) {
+            putEscaped(value);
+        }
+    }
+
+    /**
+     * Writes the text in double quotes, the way text values are exported. The quotes are not escaped.
+     */
+    public void printQuoted(String value) throws IOException {
+        delimit();
+        ensure(1);
+        buffer.put(QUOTE);
+        putEscaped(value);
+        ensure(1);
+        buffer.put(QUOTE);
+    }
+
+    public void print(long value) throws IOException {
+        delimit();
+        if (value == Long.MIN_VALUE) {
+            putAscii(MIN_LONG);
+            return;
+        }
+        ensure(digits.length + 1);
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        int start = digits.length;
+        do {
+            digits[--start] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        buffer.put(digits, start, digits.length - start);
+    }
+
+    public void print(int value) throws IOException {
+        print((long) value);
+    }
+
+    /**
+     * Writes the value as {@link Double#toString(double)} does.
+     */
+    public void print(double value) throws IOException {
+        delimit();
+        putAscii(Double.toString(value));
+    }
+
+    /**
+     * Writes the value as {@link Float#toString(float)} does.
+     */
+    public void print(float value) throws IOException {
+        delimit();
+        putAscii(Float.toString(value));
+    }
+
+    public void print(boolean value) throws IOException {
+        delimit();
+        putAscii(value ? TRUE : FALSE);
+    }
+
+    public void println() throws IOException {
+        putAscii(RECORD_SEPARATOR);
+        newRecord = true;
+    }
+
+    /**
+     * Writes the buffered bytes to the file.
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        int count = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+        if (metrics != null) {
+            metrics.addBytes(count);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void delimit() throws IOException {
+        if (newRecord) {
+            newRecord = false;
+        } else {
+            ensure(1);
+            buffer.put(DELIMITER);
+        }
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void putAscii(byte[] bytes) throws IOException {
+        ensure(bytes.length);
+        buffer.put(bytes);
+    }
+
+    /**
+     * Text without chars to escape, like numbers.
+     */
+    private void putAscii(String text) throws IOException {
+        ensure(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            buffer.put((byte) text.charAt(i));
+        }
+    }
+
+    private void putEscaped(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            ensure(MAX_CHAR_BYTES);
+            if (c < 0x80) {
+                switch (c) {
+                    case ',':
+                    case '\\':
+                        buffer.put(ESCAPE).put((byte) c);
+                        break;
+                    case '\r':
+                        buffer.put(ESCAPE).put((byte) 'r');
+                        break;
+                    case '\n':
+                        buffer.put(ESCAPE).put((byte) 'n');
+                        break;
+                    default:
+                        buffer.put((byte) c);
+                }
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xc0 | c >> 6)).put((byte) (0x80 | c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                buffer.put((byte) (0xf0 | codePoint >> 18))
+                    .put((byte) (0x80 | codePoint >> 12 & 0x3f))
+                    .put((byte) (0x80 | codePoint >> 6 & 0x3f))
+                    .put((byte) (0x80 | codePoint & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xe0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3f)).put((byte) (0x80 | c & 0x3f));
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.apache.iotdb.tool.data;
+
+import org.apache.commons.csv.CSVRecord;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A record of an imported CSV file. Numbers are parsed like {@link Long#parseLong(String)} and friends,
+ * readers that keep the raw bytes may parse them without building the field text.
+ */
+public interface CsvRow {
+
+    long getRecordNumber();
+
+    long getCharacterPosition();
+
+    int size();
+
+    String get(int i);
+
+    default boolean isEmpty(int i) {
+        return get(i).isEmpty();
+    }
+
+    /**
+     * Length of the field for {@link #charAt(int, int)}, readers of raw bytes may count the bytes.
+     */
+    default int length(int i) {
+        return get(i).length();
+    }
+
+    /**
+     * A char of the field without building its text, readers of raw bytes may return the bytes of
+     * non ASCII text, which never match an ASCII char.
+     */
+    default char charAt(int i, int index) {
+        return get(i).charAt(index);
+    }
+
+    default int getInt(int i) {
+        return Integer.parseInt(get(i));
+    }
+
+    default long getLong(int i) {
+        return Long.parseLong(get(i));
+    }
+
+    default float getFloat(int i) {
+        return Float.parseFloat(get(i));
+    }
+
+    default double getDouble(int i) {
+        return Double.parseDouble(get(i));
+    }
+
+    default List<Object> toList() {
+        List<Object> values = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) {
+            values.add(get(i));
+        }
+        return values;
+    }
+
+    static CsvRow of(CSVRecord record) {
+        return new CsvRow() {
+            @Override
+            public long getRecordNumber() {
+                return record.getRecordNumber();
+            }
+
+            @Override
+            public long getCharacterPosition() {
+                return record.getCharacterPosition();
+            }
+
+            @Override
+            public int size() {
+                return record.size();
+            }
+
+            @Override
+            public String get(int i) {
+                return record.get(i);
+            }
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package org.apache.iotdb.tool.data;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * The header and the records of a CSV file, records are read while iterating.
+ */
+public interface CsvRowReader extends Iterator<CsvRow>, Closeable {
+
+    List<String> getHeaderNames();
+
+    /**
+     * Format of the Commons CSV parser for files in the dialect of the export, the one {@link CsvTokenizer}
+     * reads.
+     */
+    static CSVFormat.Builder formatBuilder() {
+        return CSVFormat.Builder.create(CSVFormat.DEFAULT)
+            .setQuote('`')
+            .setEscape('\\')
+            .setIgnoreEmptyLines(true);
+    }
+
+    static CsvRowReader of(CSVParser parser) {
+        Iterator<CSVRecord> records = parser.iterator();
+        return new CsvRowReader() {
+            @Override
+            public List<String> getHeaderNames() {
+                return parser.getHeaderNames();
+            }
+
+            @Override
+            public boolean hasNext() {
+                return records.hasNext();
+            }
+
+            @Override
+            public CsvRow next() {
+                return CsvRow.of(records.next());
+            }
+
+            @Override
+            public void close() throws IOException {
+                parser.close();
+            }
+        };
+    }
+}
@@ -0,0 +1,593 @@
+package org.apache.iotdb.tool.data;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Reads UTF-8 CSV files in the dialect of the export, backtick quotes and backslash escapes, with the
+ * results of the Commons CSV parser the import uses for other files.
+ * <p>
+ * The file is read through a channel into large chunks and records keep the chunk they were read from,
+ * a field is a range of its bytes. Text is only built when a field is read as text, numbers in plain
+ * notation are parsed from the bytes and anything else goes through the JDK parsers. Quoted fields with
+ * escapes are decoded while reading, which is rare in exported data. Character positions count UTF-16
+ * chars like a reader does, so checkpoints of either parser can be resumed by the other.
+ */
+public class CsvTokenizer implements CsvRowReader {
+
+    private static final int CHUNK_SIZE = 1 << 20;
+    private static final byte DELIMITER = ',';
+    private static final byte QUOTE = '`';
+    private static final byte ESCAPE = '\\';
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+
+    private static final double[] POW10 = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final float[] FLOAT_POW10 = {1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f};
+
+    private final ReadableByteChannel channel;
+    private final List<String> headerNames;
+    private byte[] buffer = new byte[0];
+    private int position = 0;
+    private int limit = 0;
+    private boolean eof = false;
+    // characters before buffer[position]
+    private long characterPosition = 0;
+    private long recordNumber = 1;
+    private int fieldCapacity = 16;
+    private Row next;
+    private boolean ended = false;
+
+    public CsvTokenizer(Path path) throws IOException {
+        this(path, 0, 0);
+    }
+
+    /**
+     * Reads the header from the start of the file and the records from the given position on.
+     *
+     * @param startPosition     character position of the first record to read, 0 to read on after the header
+     * @param startRecordNumber number of the record at that position
+     */
+    public CsvTokenizer(Path path, long startPosition, long startRecordNumber) throws IOException {
+        this(FileChannel.open(path, StandardOpenOption.READ), startPosition, startRecordNumber);
+    }
+
+    /**
+     * Reads the records of a channel from the given position on, like the decompressed data of a
+     * compressed file. The channel is closed with the tokenizer.
+     */
+    public CsvTokenizer(ReadableByteChannel channel, long startPosition, long startRecordNumber) throws IOException {
+        this.channel = channel;
+        try {
+            Row header = readRow();
+            List<String> names = new ArrayList<>();
+            if (header != null) {
+                for (int i = 0; i < header.size(); i++) {
+                    String name = header.get(i);
+                    if (name.isBlank()) {
+                        throw new IllegalArgumentException("A header name is missing in " + header.toList());
+                    }
+                    names.add(name);
+                }
+                fieldCapacity = Math.max(1, names.size());
+            }
+            headerNames = names;
+            // the header is not counted, the first record after it is number 1 as in Commons CSV
+            recordNumber = 1;
+            if (startPosition > characterPosition) {
+                skipCharacters(startPosition - characterPosition);
+            }
+            if (startPosition > 0) {
+                recordNumber = startRecordNumber;
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public List<String> getHeaderNames() {
+        return headerNames;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !ended) {
+            try {
+                next = readRow();
+            } catch (IOException e) {
+                throw new UncheckedIOException("IOException reading next record: " + e, e);
+            }
+            ended = next == null;
+        }
+        return next != null;
+    }
+
+    @Override
+    public CsvRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Row row = next;
+        next = null;
+        return row;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private Row readRow() throws IOException {
+        while (true) {
+            Row row = parseRow();
+            if (row != null || eof) {
+                return row;
+            }
+            fill();
+        }
+    }
+
+    /**
+     * Moves the unread bytes to a new chunk and reads the file on, the old chunk stays with its records.
+     */
+    private void fill() throws IOException {
+        int remaining = limit - position;
+        byte[] chunk = new byte[Math.max(CHUNK_SIZE, remaining * 2)];
+        System.arraycopy(buffer, position, chunk, 0, remaining);
+        ByteBuffer target = ByteBuffer.wrap(chunk, remaining, chunk.length - remaining);
+        while (target.hasRemaining()) {
+            if (channel.read(target) < 0) {
+                eof = true;
+                break;
+            }
+        }
+        buffer = chunk;
+        position = 0;
+        limit = target.position();
+    }
+
+    private void skipCharacters(long characters) throws IOException {
+        while (characters > 0) {
+            if (position == limit) {
+                if (eof) {
+                    throw new EOFException("Checkpoint is beyond the end of the file");
+                }
+                fill();
+                continue;
+            }
+            byte c = buffer[position++];
+            int count = 1 + characterAdjust(c);
+            characters -= count;
+            characterPosition += count;
+        }
+    }
+
+    /**
+     * Parses the record at the position, {@code null} if the chunk ends inside of it or there is none left.
+     */
+    private Row parseRow() throws IOException {
+        byte[] b = buffer;
+        int p = position;
+        // characters minus bytes of the record
+        int adjust = 0;
+        while (p < limit && (b[p] == CR || b[p] == LF)) {
+            p++;
+        }
+        if (p == limit) {
+            return null;
+        }
+
+        int[] bounds = new int[fieldCapacity * 2];
+        String[] decoded = null;
+        int size = 0;
+        while (true) {
+            if (size * 2 == bounds.length) {
+                bounds = Arrays.copyOf(bounds, bounds.length * 2);
+            }
+            int start;
+            int end;
+            boolean escaped = false;
+            boolean quoted = p < limit && b[p] == QUOTE;
+            if (quoted) {
+                start = ++p;
+                while (true) {
+                    if (p == limit) {
+                        if (!eof) {
+                            return null;
+                        }
+                        throw new IOException("(line " + recordNumber + ") EOF reached before encapsulated token finished");
+                    }
+                    byte c = b[p];
+                    if (c == ESCAPE) {
+                        if (p + 1 == limit) {
+                            if (!eof) {
+                                return null;
+                            }
+                            throw new IOException("EOF whilst processing escape sequence");
+                        }
+                        adjust += characterAdjust(b[p + 1]);
+                        escaped = true;
+                        p += 2;
+                    } else if (c == QUOTE) {
+                        if (p + 1 == limit && !eof) {
+                            return null;
+                        }
+                        if (p + 1 < limit && b[p + 1] == QUOTE) {
+                            escaped = true;
+                            p += 2;
+                        } else {
+                            end = p++;
+                            break;
+                        }
+                    } else {
+                        adjust += characterAdjust(c);
+                        p++;
+                    }
+                }
+                // only white space may follow the closing quote
+                while (p < limit && b[p] != DELIMITER && b[p] != CR && b[p] != LF) {
+                    int length = whitespaceLength(b, p);
+                    if (length < 0) {
+                        return null;
+                    }
+                    if (length == 0) {
+                        throw new IOException("(line " + recordNumber + ") invalid char between encapsulated token and delimiter");
+                    }
+                    for (int i = p; i < p + length; i++) {
+                        adjust += characterAdjust(b[i]);
+                    }
+                    p += length;
+                }
+            } else {
+                start = p;
+                while (p < limit) {
+                    byte c = b[p];
+                    if (c == DELIMITER || c == CR || c == LF) {
+                        break;
+                    }
+                    if (c == ESCAPE) {
+                        if (p + 1 == limit) {
+                            if (!eof) {
+                                return null;
+                            }
+                            throw new IOException("EOF whilst processing escape sequence");
+                        }
+                        adjust += characterAdjust(b[p + 1]);
+                        escaped = true;
+                        p += 2;
+                    } else {
+                        adjust += characterAdjust(c);
+                        p++;
+                    }
+                }
+                end = p;
+            }
+            if (p == limit && !eof) {
+                return null;
+            }
+
+            bounds[size * 2] = start;
+            bounds[size * 2 + 1] = end;
+            if (escaped) {
+                if (decoded == null) {
+                    decoded = new String[bounds.length / 2];
+                } else if (decoded.length < bounds.length / 2) {
+                    decoded = Arrays.copyOf(decoded, bounds.length / 2);
+                }
+                decoded[size] = unescape(new String(b, start, end - start, StandardCharsets.UTF_8), quoted);
+            }
+            size++;
+
+            if (p < limit && b[p] == DELIMITER) {
+                p++;
+                continue;
+            }
+            if (p < limit && b[p] == CR) {
+                p++;
+                if (p == limit && !eof) {
+                    return null;
+                }
+                if (p < limit && b[p] == LF) {
+                    p++;
+                }
+            } else if (p < limit) {
+                p++;
+            }
+            break;
+        }
+
+        Row row = new Row(b, bounds, size, decoded, recordNumber++, characterPosition);
+        characterPosition += p - position + adjust;
+        position = p;
+        return row;
+    }
+
+    /**
+     * Bytes of the white space character at p, 0 if it is none and -1 if the chunk ends inside of it.
+     */
+    private int whitespaceLength(byte[] b, int p) {
+        byte c = b[p];
+        if (c >= 0) {
+            return Character.isWhitespace((char) c) ? 1 : 0;
+        }
+        int length = (c & 0xE0) == 0xC0 ? 2 : (c & 0xF0) == 0xE0 ? 3 : 0;
+        if (length == 0) {
+            return 0;
+        }
+        if (p + length > limit) {
+            return eof ? 0 : -1;
+        }
+        String text = new String(b, p, length, StandardCharsets.UTF_8);
+        return text.length() == 1 && Character.isWhitespace(text.charAt(0)) ? length : 0;
+    }
+
+    /**
+     * UTF-16 chars minus bytes of a UTF-8 byte, continuation bytes add no char and four byte sequences two.
+     */
+    private static int characterAdjust(byte c) {
+        if (c >= 0) {
+            return 0;
+        }
+        if ((c & 0xC0) == 0x80) {
+            return -1;
+        }
+        return (c & 0xF8) == 0xF0 ? 1 : 0;
+    }
+
+    private static String unescape(String text, boolean quoted) {
+        StringBuilder builder = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ESCAPE) {
+                char escaped = text.charAt(++i);
+                switch (escaped) {
+                    case 'r':
+                        builder.append('\r');
+                        break;
+                    case 'n':
+                        builder.append('\n');
+                        break;
+                    case 't':
+                        builder.append('\t');
+                        break;
+                    case 'b':
+                        builder.append('\b');
+                        break;
+                    case 'f':
+                        builder.append('\f');
+                        break;
+                    case '\r':
+                    case '\n':
+                    case '\t':
+                    case '\b':
+                    case '\f':
+                    case DELIMITER:
+                    case QUOTE:
+                    case ESCAPE:
+                        builder.append(escaped);
+                        break;
+                    default:
+                        builder.append(c).append(escaped);
+                }
+            } else if (c == QUOTE && quoted) {
+                // a doubled quote
+                builder.append(c);
+                i++;
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Value of a number in plain notation that converts exactly, with few enough digits for the mantissa
+     * and a power of ten both being exact, so one rounding gives the result of the JDK parser.
+     * NaN if the text needs the JDK parser.
+     */
+    private static double parseDecimal(byte[] b, int start, int end, boolean single) {
+        int maxDigits = single ? 7 : 15;
+        int maxScale = single ? FLOAT_POW10.length - 1 : POW10.length - 1;
+        int p = start;
+        boolean negative = false;
+        if (p < end && (b[p] == '-' || b[p] == '+')) {
+            negative = b[p++] == '-';
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean point = false;
+        for (; p < end; p++) {
+            byte c = b[p];
+            if (c >= '0' && c <= '9') {
+                if (++digits > maxDigits) {
+                    return Double.NaN;
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (point) {
+                    scale--;
+                }
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                break;
+            }
+        }
+        if (digits == 0) {
+            return Double.NaN;
+        }
+        if (p < end) {
+            if (b[p] != 'e' && b[p] != 'E') {
+                return Double.NaN;
+            }
+            p++;
+            boolean negativeExponent = false;
+            if (p < end && (b[p] == '-' || b[p] == '+')) {
+                negativeExponent = b[p++] == '-';
+            }
+            if (p == end || end - p > 3) {
+                return Double.NaN;
+            }
+            int exponent = 0;
+            for (; p < end; p++) {
+                int d = b[p] - '0';
+                if (d < 0 || d > 9) {
+                    return Double.NaN;
+                }
+                exponent = exponent * 10 + d;
+            }
+            scale += negativeExponent ? -exponent : exponent;
+        }
+        if (scale < -maxScale || scale > maxScale) {
+            return Double.NaN;
+        }
+        double value;
+        if (single) {
+            float f = mantissa;
+            value = scale < 0 ? f / FLOAT_POW10[-scale] : f * FLOAT_POW10[scale];
+        } else {
+            value = mantissa;
+            value = scale < 0 ? value / POW10[-scale] : value * POW10[scale];
+        }
+        return negative ? -value : value;
+    }
+
+    private static class Row implements CsvRow {
+
+        private final byte[] data;
+        private final int[] bounds;
+        private final int size;
+        private final String[] decoded;
+        private final long recordNumber;
+        private final long characterPosition;
+
+        Row(byte[] data, int[] bounds, int size, String[] decoded, long recordNumber, long characterPosition) {
+            this.data = data;
+            this.bounds = bounds;
+            this.size = size;
+            this.decoded = decoded;
+            this.recordNumber = recordNumber;
+            this.characterPosition = characterPosition;
+        }
+
+        @Override
+        public long getRecordNumber() {
+            return recordNumber;
+        }
+
+        @Override
+        public long getCharacterPosition() {
+            return characterPosition;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public String get(int i) {
+            Objects.checkIndex(i, size);
+            if (isDecoded(i)) {
+                return decoded[i];
+            }
+            return new String(data, bounds[i * 2], bounds[i * 2 + 1] - bounds[i * 2], StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public boolean isEmpty(int i) {
+            Objects.checkIndex(i, size);
+            return isDecoded(i) ? decoded[i].isEmpty() : bounds[i * 2] == bounds[i * 2 + 1];
+        }
+
+        @Override
+        public int length(int i) {
+            Objects.checkIndex(i, size);
+            return isDecoded(i) ? decoded[i].length() : bounds[i * 2 + 1] - bounds[i * 2];
+        }
+
+        @Override
+        public char charAt(int i, int index) {
+            if (isDecoded(i)) {
+                return decoded[i].charAt(index);
+            }
+            Objects.checkIndex(index, length(i));
+            return (char) (data[bounds[i * 2] + index] & 0xFF);
+        }
+
+        @Override
+        public int getInt(int i) {
+            long value = parseInteger(i, 9);
+            return value == Long.MIN_VALUE ? CsvRow.super.getInt(i) : (int) value;
+        }
+
+        @Override
+        public long getLong(int i) {
+            long value = parseInteger(i, 18);
+            return value == Long.MIN_VALUE ? CsvRow.super.getLong(i) : value;
+        }
+
+        @Override
+        public float getFloat(int i) {
+            Objects.checkIndex(i, size);
+            double value = isDecoded(i) ? Double.NaN : parseDecimal(data, bounds[i * 2], bounds[i * 2 + 1], true);
+            return Double.isNaN(value) ? CsvRow.super.getFloat(i) : (float) value;
+        }
+
+        @Override
+        public double getDouble(int i) {
+            Objects.checkIndex(i, size);
+            double value = isDecoded(i) ? Double.NaN : parseDecimal(data, bounds[i * 2], bounds[i * 2 + 1], false);
+            return Double.isNaN(value) ? CsvRow.super.getDouble(i) : value;
+        }
+
+        private boolean isDecoded(int i) {
+            return decoded != null && decoded[i] != null;
+        }
+
+        /**
+         * Value of a decimal integer with at most maxDigits digits, Long.MIN_VALUE if it needs the JDK parser.
+         */
+        private long parseInteger(int i, int maxDigits) {
+            Objects.checkIndex(i, size);
+            if (isDecoded(i)) {
+                return Long.MIN_VALUE;
+            }
+            int p = bounds[i * 2];
+            int end = bounds[i * 2 + 1];
+            boolean negative = false;
+            if (p < end && (data[p] == '-' || data[p] == '+')) {
+                negative = data[p++] == '-';
+            }
+            if (p == end || end - p > maxDigits) {
+                return Long.MIN_VALUE;
+            }
+            long value = 0;
+            for (; p < end; p++) {
+                int d = data[p] - '0';
+                if (d < 0 || d > 9) {
+                    return Long.MIN_VALUE;
+                }
+                value = value * 10 + d;
+            }
+            return negative ? -value : value;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package org.apache.iotdb.tool.data;
+
+import org.apache.thrift.annotation.Nullable;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Opens the text files written by an export.
+ */
+public final class ExportFiles {
+
+    public static final String GZIP_SUFFIX = ".gz";
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private ExportFiles() {
+    }
+
+    /**
+     * Opens a file in UTF-8, the charset the import reads, with a write buffer of the given size. Files
+     * with the {@code .gz} suffix are gzip compressed while writing, the compressor gets a buffer of the
+     * same size.
+     *
+     * @param metrics metrics of the job that count the written characters, {@code null} for none
+     */
+    public static Writer open(String path, int bufferSize, @Nullable JobMetrics metrics) throws IOException {
+        OutputStream out = new FileOutputStream(path);
+        try {
+            if (path.endsWith(GZIP_SUFFIX)) {
+                out = new GZIPOutputStream(out, bufferSize);
+            }
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), bufferSize);
+            return metrics == null ? writer : new CountingWriter(writer, metrics);
+        } catch (IOException | RuntimeException e) {
+            out.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a file for writing bytes, files with the {@code .gz} suffix are gzip compressed with a
+     * buffer of the given size.
+     */
+    public static WritableByteChannel openChannel(String path, int bufferSize) throws IOException {
+        if (!path.endsWith(GZIP_SUFFIX)) {
+            return FileChannel.open(Path.of(path), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        }
+        OutputStream out = new FileOutputStream(path);
+        try {
+            return Channels.newChannel(new GZIPOutputStream(out, bufferSize));
+        } catch (IOException | RuntimeException e) {
+            out.close();
+            throw e;
+        }
+    }
+}
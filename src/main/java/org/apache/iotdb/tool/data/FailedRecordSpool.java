@@ -0,0 +1,201 @@
+package org.apache.iotdb.tool.data;
+
+import org.apache.thrift.annotation.Nullable;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Appends the failed records of an imported file to its failed files while importing, instead of
+ * keeping them in memory until the end.
+ * <p>
+ * CSV records are written to files of at most linesPerFile records with the header, named with a
+ * "_n" suffix, SQL statements to a single file of lines. Files are created with the first failure.
+ * Only the first maxRecords records are written, the following ones are counted only. Failures are
+ * counted by reason for a short summary. Records can be added from several threads.
+ * <p>
+ * A resumed import keeps the failed records of the lines before its checkpoint: SQL statements are
+ * appended to the failed file, CSV records go to files after the highest existing "_n" suffix.
+ */
+public class FailedRecordSpool implements Closeable {
+
+    private static final int MAX_REASONS = 100;
+    private static final int MAX_REASON_LENGTH = 160;
+    private static final String OTHER_REASONS = "(other reasons)";
+    private static final int DETAILED_FAILURES = 100;
+
+    private final String path;
+    private final boolean resumed;
+    private final List<String> headerNames;
+    private final int linesPerFile;
+    private final long maxRecords;
+    private final TextPrinter textPrinter;
+    private final JobMetrics metrics;
+    private final AtomicLong count = new AtomicLong(0);
+    private final Map<String, Long> reasons = new HashMap<>();
+    // record numbers added with their number, ascending
+    private long[] recordNumbers = new long[64];
+    private int recordNumberCount = 0;
+    private long written = 0;
+    private int fileIndex = 0;
+    private CSVPrinterWrapper csvPrinter;
+    private Writer lineWriter;
+    private boolean broken = false;
+
+    /**
+     * @param headerNames  header of the CSV failed files, {@code null} to write the records as lines
+     * @param linesPerFile records per CSV failed file
+     * @param maxRecords   records written at most, 0 for all
+     * @param resumed      whether the import resumes at a checkpoint, the failed files are kept then
+     * @param metrics      metrics of the import that count the failures
+     */
+    public FailedRecordSpool(String path, @Nullable List<String> headerNames, int linesPerFile, long maxRecords,
+                             boolean resumed, TextPrinter textPrinter, JobMetrics metrics) {
+        this.path = path;
+        this.resumed = resumed;
+        this.headerNames = headerNames;
+        this.linesPerFile = linesPerFile;
+        this.maxRecords = maxRecords;
+        this.textPrinter = textPrinter;
+        this.metrics = metrics;
+        if (resumed && headerNames != null) {
+            fileIndex = nextFileIndex(path);
+        }
+    }
+
+    /**
+     * Adds a record that failed before any record with a greater number, it can be looked up with
+     * {@link #contains(long)} afterwards.
+     */
+    public synchronized void add(long recordNumber, List<Object> record, String reason) {
+        if (recordNumberCount == recordNumbers.length) {
+            recordNumbers = Arrays.copyOf(recordNumbers, recordNumbers.length * 2);
+        }
+        recordNumbers[recordNumberCount++] = recordNumber;
+        add(record, reason);
+    }
+
+    public synchronized void add(List<Object> record, String reason) {
+        long failed = count.incrementAndGet();
+        metrics.addFailures(1);
+        countReason(reason);
+        if (broken) {
+            return;
+        }
+        if (maxRecords > 0 && failed > maxRecords) {
+            if (failed == maxRecords + 1) {
+                textPrinter.printf("More than %d failed records, the following ones are only counted%n", maxRecords);
+            }
+            return;
+        }
+        try {
+            if (headerNames == null) {
+                if (lineWriter == null) {
+                    lineWriter = new BufferedWriter(new FileWriter(path, StandardCharsets.UTF_8, resumed));
+                }
+                lineWriter.write(record.get(0).toString());
+                lineWriter.write('\n');
+            } else {
+                if (csvPrinter == null || written % linesPerFile == 0) {
+                    if (csvPrinter != null) {
+                        csvPrinter.close();
+                    }
+                    csvPrinter = new CSVPrinterWrapper(path + "_" + fileIndex++, textPrinter);
+                    csvPrinter.printRecord(headerNames);
+                }
+                csvPrinter.printRecord(record);
+            }
+            written++;
+        } catch (IOException e) {
+            broken = true;
+            textPrinter.println("Cannot dump fail result because: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Whether the record was added with its number.
+     */
+    public synchronized boolean contains(long recordNumber) {
+        return Arrays.binarySearch(recordNumbers, 0, recordNumberCount, recordNumber) >= 0;
+    }
+
+    /**
+     * Failed records so far, also those beyond maxRecords.
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Whether failures are still few enough to print each of them, the others go to the summary only.
+     */
+    public boolean isDetailed() {
+        return count.get() < DETAILED_FAILURES;
+    }
+
+    /**
+     * Prints the number of failed records and the most frequent reasons.
+     */
+    public synchronized void printSummary(String fileName) {
+        if (count.get() == 0) {
+            return;
+        }
+        textPrinter.printf("%s: %d failed records, %d written to the failed files%n", fileName, count.get(), written);
+        reasons.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+            .limit(10)
+            .forEach(entry -> textPrinter.printf("  %8d  %s%n", entry.getValue(), entry.getKey()));
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (csvPrinter != null) {
+            csvPrinter.flush();
+            csvPrinter.close();
+        }
+        if (lineWriter != null) {
+            lineWriter.close();
+        }
+    }
+
+    /**
+     * Index after the highest "_n" suffix of the existing CSV failed files, 0 without any.
+     */
+    private static int nextFileIndex(String path) {
+        File file = new File(path);
+        String prefix = file.getName() + "_";
+        String[] names = file.getAbsoluteFile().getParentFile().list();
+        int next = 0;
+        if (names == null) {
+            return next;
+        }
+        for (String name : names) {
+            if (name.startsWith(prefix) && name.length() > prefix.length()) {
+                String suffix = name.substring(prefix.length());
+                if (suffix.chars().allMatch(Character::isDigit) && suffix.length() < 10) {
+                    next = Math.max(next, Integer.parseInt(suffix) + 1);
+                }
+            }
+        }
+        return next;
+    }
+
+    private void countReason(String reason) {
+        if (reason == null) {
+            reason = "";
+        } else if (reason.length() > MAX_REASON_LENGTH) {
+            reason = reason.substring(0, MAX_REASON_LENGTH) + "...";
+        }
+        if (!reasons.containsKey(reason) && reasons.size() >= MAX_REASONS) {
+            reason = OTHER_REASONS;
+        }
+        reasons.merge(reason, 1L, Long::sum);
+    }
+}
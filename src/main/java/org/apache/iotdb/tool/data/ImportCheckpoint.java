@@ -0,0 +1,99 @@
+package org.apache.iotdb.tool.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Progress of an import saved next to the source file. Every record before the checkpoint position
+ * has been written, a resumed import seeks to the position and continues from there.
+ * <p>
+ * The checkpoint remembers the size and modification time of the source, it is ignored once the
+ * source file has changed.
+ */
+@Getter
+@AllArgsConstructor
+public class ImportCheckpoint {
+
+    private static final String SUFFIX = ".checkpoint";
+
+    private final long sourceLength;
+
+    private final long sourceModified;
+
+    private final long recordNumber;
+
+    private final long characterPosition;
+
+    private final long confirmedBatch;
+
+    public static ImportCheckpoint of(ImportSource source, SourcePosition position, long confirmedBatch) {
+        return new ImportCheckpoint(source.getFile().length(), source.getFile().lastModified(),
+            position.getRecordNumber(), position.getCharacterPosition(), confirmedBatch);
+    }
+
+    /**
+     * Positions of compressed sources are those of the decompressed data, the size and the modification
+     * time are those of the compressed file.
+     */
+    public static File fileOf(ImportSource source) {
+        return new File(source.getSiblingPath(SUFFIX));
+    }
+
+    /**
+     * Loads the checkpoint of the source file, {@code null} if there is none or the source changed since.
+     */
+    public static ImportCheckpoint load(ImportSource source) {
+        File file = fileOf(source);
+        if (!file.isFile()) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            properties.load(reader);
+            ImportCheckpoint checkpoint = new ImportCheckpoint(
+                Long.parseLong(properties.getProperty("sourceLength")),
+                Long.parseLong(properties.getProperty("sourceModified")),
+                Long.parseLong(properties.getProperty("recordNumber")),
+                Long.parseLong(properties.getProperty("characterPosition")),
+                Long.parseLong(properties.getProperty("confirmedBatch")));
+            if (checkpoint.sourceLength != source.getFile().length() || checkpoint.sourceModified != source.getFile().lastModified()) {
+                return null;
+            }
+            return checkpoint;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes the checkpoint to a temporary file first, a crash while saving keeps the previous one.
+     */
+    public void save(ImportSource source) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("source", source.getPath());
+        properties.setProperty("sourceLength", String.valueOf(sourceLength));
+        properties.setProperty("sourceModified", String.valueOf(sourceModified));
+        properties.setProperty("recordNumber", String.valueOf(recordNumber));
+        properties.setProperty("characterPosition", String.valueOf(characterPosition));
+        properties.setProperty("confirmedBatch", String.valueOf(confirmedBatch));
+        File file = fileOf(source);
+        File temp = new File(file.getAbsolutePath() + ".tmp");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(temp), StandardCharsets.UTF_8)) {
+            properties.store(writer, "IoTDB import checkpoint");
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static void delete(ImportSource source) {
+        File file = fileOf(source);
+        if (file.exists() && !file.delete()) {
+            file.deleteOnExit();
+        }
+    }
+}
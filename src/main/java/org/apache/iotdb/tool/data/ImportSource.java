@@ -0,0 +1,204 @@
+package org.apache.iotdb.tool.data;
+
+import lombok.Getter;
+import org.apache.thrift.annotation.Nullable;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.LongConsumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * A file to import: a plain file, a gzip compressed file, or a file in a zip archive. Compressed
+ * files are decompressed while reading, nothing is extracted to the disk.
+ * <p>
+ * A {@code .gz} file is the file of its name without the suffix, {@code data.csv.gz} is imported
+ * like {@code data.csv}. A {@code .zip} archive is a directory of the files it contains.
+ */
+@Getter
+public class ImportSource {
+
+    public static final String GZIP_SUFFIX = ".gz";
+    public static final String ZIP_SUFFIX = ".zip";
+    private static final int GZIP_BUFFER_SIZE = 1 << 16;
+
+    private final File file;
+
+    /**
+     * Name of the file in the zip archive, {@code null} for other files.
+     */
+    private final String entry;
+
+    private final boolean gzip;
+
+    /**
+     * Bytes of the source to read, the uncompressed size of files in an archive if known.
+     */
+    private final long length;
+
+    private ImportSource(File file, String entry, boolean gzip, long length) {
+        this.file = file;
+        this.entry = entry;
+        this.gzip = gzip;
+        this.length = length;
+    }
+
+    /**
+     * The sources of a file, all files of a zip archive or the file itself.
+     */
+    public static List<ImportSource> of(File file) throws IOException {
+        String name = file.getName().toLowerCase(Locale.ROOT);
+        if (name.endsWith(ZIP_SUFFIX)) {
+            List<ImportSource> sources = new ArrayList<>();
+            try (ZipFile zip = new ZipFile(file)) {
+                zip.stream()
+                    .filter(zipEntry -> !zipEntry.isDirectory())
+                    .forEach(zipEntry -> sources.add(new ImportSource(file, zipEntry.getName(), false,
+                        zipEntry.getSize() >= 0 ? zipEntry.getSize() : zipEntry.getCompressedSize())));
+            }
+            return sources;
+        }
+        return List.of(new ImportSource(file, null, name.endsWith(GZIP_SUFFIX), file.length()));
+    }
+
+    /**
+     * Name of the data in the source, without the {@code .gz} suffix and the directories of an archive.
+     */
+    public String getName() {
+        if (entry != null) {
+            return entry.substring(entry.lastIndexOf('/') + 1);
+        }
+        String name = file.getName();
+        return gzip ? name.substring(0, name.length() - GZIP_SUFFIX.length()) : name;
+    }
+
+    /**
+     * Path of the source for the output, files in an archive are {@code <archive>!/<entry>}.
+     */
+    public String getPath() {
+        return entry == null ? file.getAbsolutePath() : file.getAbsolutePath() + "!/" + entry;
+    }
+
+    /**
+     * Path of a file next to the source that belongs to it, like its failed records or its checkpoint.
+     * Files of an archive get the name of the archive with their own name.
+     */
+    public String getSiblingPath(String suffix) {
+        if (entry == null) {
+            return file.getAbsolutePath() + suffix;
+        }
+        return file.getAbsolutePath() + "!" + entry.replace('/', '_') + suffix;
+    }
+
+    /**
+     * Name of the files that belong to the source in another directory.
+     */
+    public String getSiblingName(String suffix) {
+        return new File(getSiblingPath(suffix)).getName();
+    }
+
+    public InputStream open() throws IOException {
+        return open(null);
+    }
+
+    /**
+     * Opens the uncompressed data of the source.
+     *
+     * @param compressedBytes gets the bytes read from a gzip file, for the progress of the import
+     */
+    public InputStream open(@Nullable LongConsumer compressedBytes) throws IOException {
+        if (entry != null) {
+            ZipFile zip = new ZipFile(file);
+            try {
+                ZipEntry zipEntry = zip.getEntry(entry);
+                if (zipEntry == null) {
+                    throw new FileNotFoundException(getPath());
+                }
+                return new FilterInputStream(zip.getInputStream(zipEntry)) {
+                    @Override
+                    public void close() throws IOException {
+                        try {
+                            super.close();
+                        } finally {
+                            zip.close();
+                        }
+                    }
+                };
+            } catch (IOException | RuntimeException e) {
+                zip.close();
+                throw e;
+            }
+        }
+        InputStream in = new FileInputStream(file);
+        if (!gzip) {
+            return in;
+        }
+        try {
+            if (compressedBytes != null) {
+                in = new CountingInputStream(in, compressedBytes);
+            }
+            return new GZIPInputStream(in, GZIP_BUFFER_SIZE);
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens the uncompressed data of the source as a channel, plain files are read directly.
+     */
+    public ReadableByteChannel openChannel(@Nullable LongConsumer compressedBytes) throws IOException {
+        if (entry == null && !gzip) {
+            return FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        }
+        return Channels.newChannel(open(compressedBytes));
+    }
+
+    @Override
+    public String toString() {
+        return getPath();
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+
+        private final LongConsumer counter;
+
+        CountingInputStream(InputStream in, LongConsumer counter) {
+            super(in);
+            this.counter = counter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                counter.accept(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int count = super.read(b, off, len);
+            if (count > 0) {
+                counter.accept(count);
+            }
+            return count;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long count = super.skip(n);
+            counter.accept(count);
+            return count;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package org.apache.iotdb.tool.data;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of a running import or export, updated by the job threads and read at a fixed rate by
+ * the progress display.
+ * <p>
+ * Rates are taken over a moving window of the last {@link #WINDOW_NANOS} of snapshots, latencies of
+ * the last {@link #LATENCY_SAMPLES} requests give the percentiles. The ETA comes from the bytes if
+ * their total is known, else from the rows.
+ */
+public class JobMetrics {
+
+    private static final long WINDOW_NANOS = 10_000_000_000L;
+    private static final int LATENCY_SAMPLES = 1024;
+
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder points = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final AtomicLong totalBytes = new AtomicLong(-1);
+    private final AtomicLong totalRows = new AtomicLong(-1);
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private final AtomicLong latencyCount = new AtomicLong(0);
+    private final long startNanos = System.nanoTime();
+    // only touched by snapshot()
+    private final Deque<Snapshot> window = new ArrayDeque<>();
+
+    public void addBytes(long count) {
+        bytes.add(count);
+    }
+
+    public void addRows(long count) {
+        rows.add(count);
+    }
+
+    public void addPoints(long count) {
+        points.add(count);
+    }
+
+    public void addFailures(long count) {
+        failures.add(count);
+    }
+
+    /**
+     * Bytes of the whole job, unknown by default.
+     */
+    public void setTotalBytes(long total) {
+        totalBytes.set(total);
+    }
+
+    /**
+     * Adds to the rows of the whole job, the first estimate makes them known.
+     */
+    public void addTotalRows(long total) {
+        totalRows.accumulateAndGet(total, (current, added) -> current < 0 ? added : current + added);
+    }
+
+    public void recordLatency(long nanos) {
+        long index = latencyCount.getAndIncrement();
+        latencies[(int) (index % LATENCY_SAMPLES)] = nanos;
+    }
+
+    /**
+     * Current values with the rates of the moving window, to be called from one thread.
+     */
+    public synchronized Snapshot snapshot() {
+        long now = System.nanoTime();
+        Snapshot snapshot = new Snapshot(now, bytes.sum(), rows.sum(), points.sum(), failures.sum());
+        window.addLast(snapshot);
+        while (window.size() > 2 && now - window.peekFirst().nanos > WINDOW_NANOS) {
+            window.removeFirst();
+        }
+        Snapshot first = window.peekFirst();
+        if (first != snapshot) {
+            double seconds = (now - first.nanos) / 1e9;
+            snapshot.bytesPerSecond = (snapshot.bytes - first.bytes) / seconds;
+            snapshot.rowsPerSecond = (snapshot.rows - first.rows) / seconds;
+            snapshot.pointsPerSecond = (snapshot.points - first.points) / seconds;
+        }
+        snapshot.elapsedNanos = now - startNanos;
+        snapshot.totalBytes = totalBytes.get();
+        snapshot.totalRows = totalRows.get();
+
+        int samples = (int) Math.min(latencyCount.get(), LATENCY_SAMPLES);
+        if (samples > 0) {
+            long[] sorted = Arrays.copyOf(latencies, samples);
+            Arrays.sort(sorted);
+            snapshot.latencyP50 = sorted[(samples - 1) / 2];
+            snapshot.latencyP95 = sorted[(int) ((samples - 1) * 0.95)];
+            snapshot.latencyP99 = sorted[(int) ((samples - 1) * 0.99)];
+        }
+        return snapshot;
+    }
+
+    public static class Snapshot {
+
+        private final long nanos;
+        private final long bytes;
+        private final long rows;
+        private final long points;
+        private final long failures;
+        private long elapsedNanos;
+        private long totalBytes = -1;
+        private long totalRows = -1;
+        private double bytesPerSecond;
+        private double rowsPerSecond;
+        private double pointsPerSecond;
+        private long latencyP50 = -1;
+        private long latencyP95 = -1;
+        private long latencyP99 = -1;
+
+        Snapshot(long nanos, long bytes, long rows, long points, long failures) {
+            this.nanos = nanos;
+            this.bytes = bytes;
+            this.rows = rows;
+            this.points = points;
+            this.failures = failures;
+        }
+
+        /**
+         * Done part of the job from 0 to 1, -1 if the total is unknown.
+         */
+        public double getProgress() {
+            if (totalBytes > 0) {
+                return Math.min(1, (double) bytes / totalBytes);
+            }
+            if (totalRows > 0) {
+                return Math.min(1, (double) rows / totalRows);
+            }
+            return -1;
+        }
+
+        /**
+         * Remaining seconds at the rate of the window, -1 if unknown.
+         */
+        public long getEtaSeconds() {
+            if (totalBytes > 0 && bytesPerSecond > 0) {
+                return (long) (Math.max(0, totalBytes - bytes) / bytesPerSecond);
+            }
+            if (totalRows > 0 && rowsPerSecond > 0) {
+                return (long) (Math.max(0, totalRows - rows) / rowsPerSecond);
+            }
+            return -1;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            builder.append(formatBytes(bytes));
+            if (totalBytes > 0) {
+                builder.append(" / ").append(formatBytes(totalBytes));
+            }
+            builder.append(String.format(" (%s/s) | %,d rows", formatBytes((long) bytesPerSecond), rows));
+            if (totalRows > 0) {
+                builder.append(String.format(" / ~%,d", totalRows));
+            }
+            builder.append(String.format(" | %,.0f rows/s | %,.0f points/s", rowsPerSecond, pointsPerSecond));
+            if (latencyP50 >= 0) {
+                builder.append(String.format(" | RPC p50 %s p95 %s p99 %s",
+                    formatMillis(latencyP50), formatMillis(latencyP95), formatMillis(latencyP99)));
+            }
+            if (failures > 0) {
+                builder.append(String.format(" | %,d failed", failures));
+            }
+            builder.append(" | elapsed ").append(formatDuration(elapsedNanos / 1_000_000_000L));
+            long eta = getEtaSeconds();
+            if (eta >= 0) {
+                builder.append(" | ETA ").append(formatDuration(eta));
+            }
+            return builder.toString();
+        }
+
+        /**
+         * Totals and the average rates of the whole job, for the output once the job is done.
+         */
+        public String summary() {
+            double seconds = Math.max(elapsedNanos, 1) / 1e9;
+            StringBuilder builder = new StringBuilder(String.format(
+                "%s, %,d rows, %,d points in %.1f s: %s/s, %,.0f rows/s, %,.0f points/s",
+                formatBytes(bytes), rows, points, seconds, formatBytes((long) (bytes / seconds)), rows / seconds, points / seconds));
+            if (latencyP50 >= 0) {
+                builder.append(String.format(", RPC p50 %s p95 %s p99 %s",
+                    formatMillis(latencyP50), formatMillis(latencyP95), formatMillis(latencyP99)));
+            }
+            if (failures > 0) {
+                builder.append(String.format(", %,d failed", failures));
+            }
+            return builder.toString();
+        }
+
+        private static String formatBytes(long bytes) {
+            if (bytes < 1024) {
+                return bytes + " B";
+            }
+            int unit = (63 - Long.numberOfLeadingZeros(bytes)) / 10;
+            return String.format("%.1f %sB", bytes / (double) (1L << (unit * 10)), " KMGTPE".charAt(unit));
+        }
+
+        private static String formatMillis(long nanos) {
+            return String.format("%.1f ms", nanos / 1e6);
+        }
+
+        private static String formatDuration(long seconds) {
+            return String.format("%02d:%02d:%02d", seconds / 3600, seconds / 60 % 60, seconds % 60);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.apache.iotdb.tool.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Position of a record in an imported file. The character offset lets a resumed import seek straight
+ * to the record instead of parsing everything before it.
+ */
+@Getter
+@AllArgsConstructor
+public class SourcePosition {
+
+    private final long recordNumber;
+
+    private final long characterPosition;
+
+    /**
+     * The position nearer to the start of the file, a {@code null} position is ignored.
+     */
+    public static SourcePosition earliest(SourcePosition a, SourcePosition b) {
+        if (a == null) {
+            return b;
+        } else if (b == null) {
+            return a;
+        } else {
+            return a.recordNumber <= b.recordNumber ? a : b;
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package org.apache.iotdb.tool.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * An {@code INSERT INTO <device>(TIMESTAMP, ...) [ALIGNED] VALUES (...)[, (...)]} statement of a SQL
+ * file, parsed into rows for the insertRecords API with string values.
+ * <p>
+ * The server infers the types of string values like those of SQL literals, so only statements whose
+ * values mean the same either way are parsed: numbers, booleans, NaN and nulls, and quoted text that
+ * does not look like one of them. Statements with anything else, like backquoted names, datetime
+ * literals or functions, are no plain inserts and run as SQL.
+ */
+@Getter
+@AllArgsConstructor
+public class SqlInsert {
+
+    private static final Pattern NUMBER = Pattern.compile("[+-]?(\\d+\\.?\\d*|\\.\\d+)([eE][+-]?\\d+)?");
+
+    private final String device;
+
+    private final boolean aligned;
+
+    private final List<Long> times;
+
+    /**
+     * Measurements of each row without those of null values.
+     */
+    private final List<List<String>> measurementsList;
+
+    private final List<List<String>> valuesList;
+
+    public int getRowCount() {
+        return times.size();
+    }
+
+    public long getPointCount() {
+        return valuesList.stream().mapToLong(List::size).sum();
+    }
+
+    /**
+     * @return {@code null} if the statement is no plain insert
+     */
+    public static SqlInsert parse(String sql) {
+        Parser parser = new Parser(sql);
+        try {
+            return parser.parse();
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    private static boolean isPlainValue(String value) {
+        return NUMBER.matcher(value).matches()
+            || "true".equalsIgnoreCase(value)
+            || "false".equalsIgnoreCase(value)
+            || "NaN".equalsIgnoreCase(value);
+    }
+
+    /**
+     * Whether the server would take the text of a quoted value for a number, a boolean or a null.
+     */
+    private static boolean looksTyped(String text) {
+        if (text.isBlank() || isPlainValue(text) || "null".equalsIgnoreCase(text)) {
+            return true;
+        }
+        try {
+            Double.parseDouble(text);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static class Parser {
+
+        private final String sql;
+        private int position = 0;
+
+        Parser(String sql) {
+            this.sql = sql;
+        }
+
+        SqlInsert parse() {
+            if (!keyword("insert") || !keyword("into")) {
+                return null;
+            }
+            String device = name();
+            if (device == null || !accept('(')) {
+                return null;
+            }
+            List<String> names = new ArrayList<>();
+            do {
+                String name = name();
+                if (name == null) {
+                    return null;
+                }
+                names.add(name);
+            } while (accept(','));
+            if (!accept(')') || names.size() < 2
+                || !("timestamp".equalsIgnoreCase(names.get(0)) || "time".equalsIgnoreCase(names.get(0)))) {
+                return null;
+            }
+            boolean aligned = keyword("aligned");
+            if (!keyword("values")) {
+                return null;
+            }
+
+            List<Long> times = new ArrayList<>();
+            List<List<String>> measurementsList = new ArrayList<>();
+            List<List<String>> valuesList = new ArrayList<>();
+            do {
+                if (!accept('(')) {
+                    return null;
+                }
+                String time = literal();
+                if (time == null || isQuoted(time)) {
+                    return null;
+                }
+                List<String> measurements = new ArrayList<>();
+                List<String> values = new ArrayList<>();
+                for (int i = 1; i < names.size(); i++) {
+                    if (!accept(',')) {
+                        return null;
+                    }
+                    String value = literal();
+                    if (value == null) {
+                        return null;
+                    }
+                    if (isQuoted(value)) {
+                        value = unquote(value);
+                        if (value == null || looksTyped(value)) {
+                            return null;
+                        }
+                    } else if ("null".equalsIgnoreCase(value)) {
+                        continue;
+                    } else if (!isPlainValue(value)) {
+                        return null;
+                    }
+                    measurements.add(names.get(i));
+                    values.add(value);
+                }
+                if (!accept(')')) {
+                    return null;
+                }
+                if (!measurements.isEmpty()) {
+                    times.add(Long.parseLong(time));
+                    measurementsList.add(measurements);
+                    valuesList.add(values);
+                }
+            } while (accept(','));
+            accept(';');
+            skipSpaces();
+            if (position != sql.length()) {
+                return null;
+            }
+            return new SqlInsert(device, aligned, times, measurementsList, valuesList);
+        }
+
+        private void skipSpaces() {
+            while (position < sql.length() && Character.isWhitespace(sql.charAt(position))) {
+                position++;
+            }
+        }
+
+        private boolean accept(char c) {
+            skipSpaces();
+            if (position < sql.length() && sql.charAt(position) == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean keyword(String keyword) {
+            skipSpaces();
+            int end = position + keyword.length();
+            if (end <= sql.length() && sql.regionMatches(true, position, keyword, 0, keyword.length())
+                && (end == sql.length() || !Character.isLetterOrDigit(sql.charAt(end)))) {
+                position = end;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * A path or measurement of letters, digits, '_' and '.', {@code null} for quoted or other names.
+         */
+        private String name() {
+            skipSpaces();
+            int start = position;
+            while (position < sql.length()) {
+                char c = sql.charAt(position);
+                if (!Character.isLetterOrDigit(c) && c != '_' && c != '.') {
+                    break;
+                }
+                position++;
+            }
+            return position == start ? null : sql.substring(start, position);
+        }
+
+        /**
+         * A quoted string with its quotes, or the text up to the next ',' or ')'.
+         */
+        private String literal() {
+            skipSpaces();
+            int start = position;
+            char quote = sql.charAt(position);
+            if (quote == '"' || quote == '\'') {
+                position++;
+                while (true) {
+                    char c = sql.charAt(position++);
+                    if (c == quote) {
+                        if (position < sql.length() && sql.charAt(position) == quote) {
+                            position++;
+                        } else {
+                            return sql.substring(start, position);
+                        }
+                    }
+                }
+            }
+            while (position < sql.length() && sql.charAt(position) != ',' && sql.charAt(position) != ')') {
+                position++;
+            }
+            String value = sql.substring(start, position).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        private static boolean isQuoted(String literal) {
+            return literal.charAt(0) == '"' || literal.charAt(0) == '\'';
+        }
+
+        /**
+         * Text of a quoted literal with doubled quotes undone, {@code null} if it has escapes.
+         */
+        private static String unquote(String literal) {
+            char quote = literal.charAt(0);
+            String text = literal.substring(1, literal.length() - 1);
+            if (text.indexOf('\\') >= 0) {
+                return null;
+            }
+            return text.replace(String.valueOf(quote) + quote, String.valueOf(quote));
+        }
+    }
+}
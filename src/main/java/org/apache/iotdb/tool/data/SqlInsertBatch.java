@@ -0,0 +1,95 @@
+package org.apache.iotdb.tool.data;
+
+import lombok.Getter;
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.session.Session;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consecutive plain INSERT statements of a SQL file, written with one insertRecords request for the
+ * non aligned and one for the aligned devices. The rows are grouped by device and keep the order of
+ * the file within each device.
+ */
+public class SqlInsertBatch {
+
+    private final Map<String, Rows> rows = new LinkedHashMap<>();
+    private final Map<String, Rows> alignedRows = new LinkedHashMap<>();
+    /**
+     * The statements of the batch, run one by one to find the failed ones if the batch fails.
+     */
+    @Getter
+    private final List<String> statements = new ArrayList<>();
+    /**
+     * Line of the first statement, -1 while empty.
+     */
+    @Getter
+    private long firstLine = -1;
+    @Getter
+    private int rowCount = 0;
+    @Getter
+    private long pointCount = 0;
+
+    public void add(long line, String sql, SqlInsert insert) {
+        if (firstLine < 0) {
+            firstLine = line;
+        }
+        statements.add(sql);
+        if (insert.getRowCount() == 0) {
+            return;
+        }
+        Rows deviceRows = (insert.isAligned() ? alignedRows : rows).computeIfAbsent(insert.getDevice(), key -> new Rows());
+        deviceRows.times.addAll(insert.getTimes());
+        deviceRows.measurementsList.addAll(insert.getMeasurementsList());
+        deviceRows.valuesList.addAll(insert.getValuesList());
+        rowCount += insert.getRowCount();
+        pointCount += insert.getPointCount();
+    }
+
+    public boolean isEmpty() {
+        return statements.isEmpty();
+    }
+
+    public void write(Session session) throws IoTDBConnectionException, StatementExecutionException {
+        if (!rows.isEmpty()) {
+            Records records = new Records(rows);
+            session.insertRecords(records.deviceIds, records.times, records.measurementsList, records.valuesList);
+        }
+        if (!alignedRows.isEmpty()) {
+            Records records = new Records(alignedRows);
+            session.insertAlignedRecords(records.deviceIds, records.times, records.measurementsList, records.valuesList);
+        }
+    }
+
+    private static class Rows {
+        private final List<Long> times = new ArrayList<>();
+        private final List<List<String>> measurementsList = new ArrayList<>();
+        private final List<List<String>> valuesList = new ArrayList<>();
+    }
+
+    /**
+     * The rows of the devices one after another, as the lists of insertRecords.
+     */
+    private static class Records {
+
+        private final List<String> deviceIds = new ArrayList<>();
+        private final List<Long> times = new ArrayList<>();
+        private final List<List<String>> measurementsList = new ArrayList<>();
+        private final List<List<String>> valuesList = new ArrayList<>();
+
+        Records(Map<String, Rows> devices) {
+            devices.forEach((device, deviceRows) -> {
+                for (int i = 0; i < deviceRows.times.size(); i++) {
+                    deviceIds.add(device);
+                }
+                times.addAll(deviceRows.times);
+                measurementsList.addAll(deviceRows.measurementsList);
+                valuesList.addAll(deviceRows.valuesList);
+            });
+        }
+    }
+}
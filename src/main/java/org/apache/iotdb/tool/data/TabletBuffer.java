@@ -0,0 +1,248 @@
+package org.apache.iotdb.tool.data;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.utils.BitMap;
+import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Rows of one device collected column by column in a {@link Tablet}. Values are parsed straight into
+ * the primitive columns of the tablet, cells without a value stay marked in the null bitmaps.
+ */
+public class TabletBuffer {
+
+    private final String deviceId;
+    private final List<String> measurements;
+    private final List<TSDataType> types;
+    private final Tablet tablet;
+    private final Converter[] converters;
+    private final boolean[] columnHasValue;
+    private final int maxRows;
+    private int row = -1;
+    private boolean rowHasValue;
+    private long points = 0;
+    private SourcePosition firstPosition;
+    private long lastRecord = -1;
+
+    public TabletBuffer(String deviceId, List<String> measurements, List<TSDataType> types, int maxRows) {
+        this.deviceId = deviceId;
+        this.measurements = measurements;
+        this.types = types;
+        this.maxRows = maxRows;
+        List<IMeasurementSchema> schemas = new ArrayList<>(measurements.size());
+        for (int i = 0; i < measurements.size(); i++) {
+            schemas.add(new MeasurementSchema(measurements.get(i), types.get(i)));
+        }
+        tablet = new Tablet(deviceId, schemas, maxRows);
+        if (tablet.getBitMaps() == null) {
+            tablet.initBitMaps();
+        }
+        converters = createConverters();
+        columnHasValue = new boolean[measurements.size()];
+    }
+
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    public List<String> getMeasurements() {
+        return measurements;
+    }
+
+    public List<TSDataType> getTypes() {
+        return types;
+    }
+
+    /**
+     * Whether any buffered row has a value in the column, only those columns create timeseries.
+     */
+    public boolean hasValue(int column) {
+        return columnHasValue[column];
+    }
+
+    public Tablet getTablet() {
+        return tablet;
+    }
+
+    public int getRowCount() {
+        return tablet.getRowSize();
+    }
+
+    /**
+     * Points of the buffered rows, i.e. the non-null cells.
+     */
+    public long getPoints() {
+        return points;
+    }
+
+    /**
+     * Number of the first source record in this tablet, -1 while empty.
+     */
+    public long getFirstRecord() {
+        return firstPosition == null ? -1 : firstPosition.getRecordNumber();
+    }
+
+    /**
+     * Position of the first source record in this tablet, {@code null} while empty.
+     */
+    public SourcePosition getFirstPosition() {
+        return firstPosition;
+    }
+
+    public long getLastRecord() {
+        return lastRecord;
+    }
+
+    /**
+     * A new empty tablet with the same schema, for filling while this one is written.
+     *
+     * @param maxRows rows of the new tablet, the batch size may have changed since this one was created
+     */
+    public TabletBuffer emptyCopy(int maxRows) {
+        return new TabletBuffer(deviceId, measurements, types, maxRows);
+    }
+
+    public boolean isFull() {
+        return tablet.getRowSize() >= maxRows;
+    }
+
+    public boolean isEmpty() {
+        return tablet.getRowSize() == 0;
+    }
+
+    public void startRow(long timestamp, long recordNumber, long characterPosition) {
+        if (firstPosition == null) {
+            firstPosition = new SourcePosition(recordNumber, characterPosition);
+        }
+        lastRecord = recordNumber;
+        row = tablet.getRowSize();
+        tablet.addTimestamp(row, timestamp);
+        tablet.setRowSize(row + 1);
+        BitMap[] bitMaps = tablet.getBitMaps();
+        for (int i = 0; i < measurements.size(); i++) {
+            bitMaps[i].mark(row);
+        }
+        rowHasValue = false;
+    }
+
+    /**
+     * Parses the field of the record as the data type of the column into the current row.
+     *
+     * @return false if the field can not be converted, the cell stays null
+     */
+    public boolean setValue(int column, CsvRow record, int field) {
+        try {
+            if (!converters[column].convert(record, field)) {
+                return false;
+            }
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        tablet.getBitMaps()[column].unmark(row);
+        columnHasValue[column] = true;
+        rowHasValue = true;
+        points++;
+        return true;
+    }
+
+    /**
+     * Converter of each column for its data type, resolved once per tablet.
+     */
+    private Converter[] createConverters() {
+        Converter[] result = new Converter[types.size()];
+        for (int i = 0; i < result.length; i++) {
+            int column = i;
+            switch (types.get(i)) {
+                case TEXT:
+                case STRING:
+                    result[i] = (record, field) -> {
+                        String text = record.get(field);
+                        if (text.startsWith("\"") && text.endsWith("\"")) {
+                            text = text.substring(1, text.length() - 1);
+                        }
+                        tablet.addValue(row, column, text);
+                        return true;
+                    };
+                    break;
+                case BOOLEAN:
+                    result[i] = (record, field) -> {
+                        String text = record.get(field);
+                        if ("true".equalsIgnoreCase(text)) {
+                            tablet.addValue(row, column, true);
+                        } else if ("false".equalsIgnoreCase(text)) {
+                            tablet.addValue(row, column, false);
+                        } else {
+                            return false;
+                        }
+                        return true;
+                    };
+                    break;
+                case INT32:
+                    result[i] = (record, field) -> {
+                        tablet.addValue(row, column, record.getInt(field));
+                        return true;
+                    };
+                    break;
+                case INT64:
+                    result[i] = (record, field) -> {
+                        tablet.addValue(row, column, record.getLong(field));
+                        return true;
+                    };
+                    break;
+                case FLOAT:
+                    result[i] = (record, field) -> {
+                        tablet.addValue(row, column, record.getFloat(field));
+                        return true;
+                    };
+                    break;
+                case DOUBLE:
+                    result[i] = (record, field) -> {
+                        tablet.addValue(row, column, record.getDouble(field));
+                        return true;
+                    };
+                    break;
+                default:
+                    result[i] = (record, field) -> false;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finishes the current row, a row without any value is dropped.
+     */
+    public void endRow() {
+        if (!rowHasValue) {
+            tablet.setRowSize(row);
+        }
+        row = -1;
+    }
+
+    public void clear() {
+        tablet.reset();
+        BitMap[] bitMaps = tablet.getBitMaps();
+        for (BitMap bitMap : bitMaps) {
+            bitMap.reset();
+        }
+        row = -1;
+        points = 0;
+        firstPosition = null;
+        lastRecord = -1;
+        Arrays.fill(columnHasValue, false);
+    }
+
+    @FunctionalInterface
+    private interface Converter {
+
+        /**
+         * @return false if the field is no value of the type
+         */
+        boolean convert(CsvRow record, int field);
+
+    }
+}
@@ -0,0 +1,260 @@
+package org.apache.iotdb.tool.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.apache.iotdb.desktop.model.PooledConnection;
+import org.apache.iotdb.desktop.model.SchemaCache;
+import org.apache.iotdb.desktop.model.Session;
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.write.record.Tablet;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes batches of tablets on several connections of a session in parallel.
+ * <p>
+ * Batches wait in a bounded queue, a producer faster than the server blocks on {@link #submit(List)}
+ * instead of buffering the whole file. Each writer owns a connection of the session pool, the thrift
+ * transport is not shared between threads. Without writer threads the batches are written on submit
+ * with the connection of the caller. Failed batches are collected with their submit order and
+ * the range of source records they were built from, so they can be reported in file order.
+ */
+public class TabletWriterPool {
+
+    private static final int RETRY_TIMES = 3;
+    private static final Batch END = new Batch(-1, null, -1, List.of());
+
+    private final boolean aligned;
+    private final SchemaCache schemaCache;
+    private final JobMetrics metrics;
+    private final AdaptiveBatchSize batchSize;
+    private final PooledConnection inlineConnection;
+    private final BlockingQueue<Batch> queue;
+    private final List<Thread> threads = new ArrayList<>();
+    private final ConcurrentSkipListMap<Long, Failure> failures = new ConcurrentSkipListMap<>();
+    /**
+     * Batches submitted but not written yet, failed batches stay here too.
+     */
+    private final ConcurrentSkipListMap<Long, Batch> pending = new ConcurrentSkipListMap<>();
+    private final AtomicLong sequence = new AtomicLong(0);
+    private final AtomicLong writtenPoints = new AtomicLong(0);
+
+    /**
+     * Borrows one connection per writer up front, so a pool without enough idle connections fails
+     * before any data is read.
+     *
+     * @param inlineConnection connection of the caller used when there are no writer threads
+     * @param metrics          metrics of the import that get the written points and the insert latencies
+     * @param batchSize        size of the tablets that gets the latencies and the failures of the inserts
+     */
+    public TabletWriterPool(Session session, PooledConnection inlineConnection, boolean aligned, int writers,
+                            JobMetrics metrics, AdaptiveBatchSize batchSize) throws IoTDBConnectionException {
+        this.aligned = aligned;
+        this.schemaCache = session.getSchemaCache();
+        this.metrics = metrics;
+        this.batchSize = batchSize;
+        this.inlineConnection = inlineConnection;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, writers * 2));
+        List<PooledConnection> connections = new ArrayList<>(writers);
+        try {
+            for (int i = 0; i < writers; i++) {
+                connections.add(session.borrowConnection());
+            }
+        } catch (IoTDBConnectionException e) {
+            connections.forEach(PooledConnection::close);
+            throw e;
+        }
+        for (int i = 0; i < writers; i++) {
+            PooledConnection connection = connections.get(i);
+            Thread thread = new Thread(() -> write(connection), "iotdb-import-writer-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+    }
+
+    /**
+     * Queues the tablets as one batch, the tablets belong to the writers from now on.
+     */
+    public void submit(List<TabletBuffer> tablets) {
+        List<TabletBuffer> batchTablets = tablets.stream().filter(tablet -> !tablet.isEmpty()).toList();
+        if (batchTablets.isEmpty()) {
+            return;
+        }
+        SourcePosition firstPosition = batchTablets.stream()
+            .map(TabletBuffer::getFirstPosition)
+            .reduce(null, SourcePosition::earliest);
+        long lastRecord = batchTablets.stream().mapToLong(TabletBuffer::getLastRecord).max().getAsLong();
+        Batch batch = new Batch(sequence.getAndIncrement(), firstPosition, lastRecord, batchTablets);
+        pending.put(batch.getSequence(), batch);
+        if (threads.isEmpty()) {
+            write(inlineConnection, batch);
+            return;
+        }
+        try {
+            queue.put(batch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException();
+        }
+    }
+
+    public long getWrittenPoints() {
+        return writtenPoints.get();
+    }
+
+    /**
+     * Earliest source position of the batches not written yet, {@code null} if all were written.
+     */
+    public SourcePosition getPendingPosition() {
+        SourcePosition position = null;
+        for (Batch batch : pending.values()) {
+            position = SourcePosition.earliest(position, batch.getFirstPosition());
+        }
+        return position;
+    }
+
+    /**
+     * Sequence of the last batch that was written together with all batches before it.
+     */
+    public long getConfirmedBatch() {
+        Map.Entry<Long, Batch> first = pending.firstEntry();
+        return first == null ? sequence.get() - 1 : first.getKey() - 1;
+    }
+
+    /**
+     * Waits for the queued batches to be written and releases the connections.
+     *
+     * @return the failed batches in submit order
+     */
+    public List<Failure> finish() throws InterruptedException {
+        for (int i = 0; i < threads.size(); i++) {
+            queue.put(END);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return new ArrayList<>(failures.values());
+    }
+
+    /**
+     * Drops the queued batches and stops the writers after their current request.
+     */
+    public void abort() {
+        queue.clear();
+        threads.forEach(Thread::interrupt);
+    }
+
+    private void write(PooledConnection connection) {
+        try (connection) {
+            while (true) {
+                Batch batch = queue.take();
+                if (batch == END) {
+                    return;
+                }
+                write(connection, batch);
+            }
+        } catch (InterruptedException ignored) {
+        }
+    }
+
+    private void write(PooledConnection connection, Batch batch) {
+        Map<String, Tablet> tablets = new HashMap<>();
+        long points = 0;
+        int rows = 0;
+        for (TabletBuffer tablet : batch.getTablets()) {
+            tablets.put(tablet.getDeviceId(), tablet.getTablet());
+            points += tablet.getPoints();
+            rows = Math.max(rows, tablet.getRowCount());
+        }
+        Exception exception = null;
+        for (int retry = 0; retry <= RETRY_TIMES; retry++) {
+            try {
+                long start = System.nanoTime();
+                if (aligned) {
+                    connection.getIotdbSession().insertAlignedTablets(tablets);
+                } else {
+                    connection.getIotdbSession().insertTablets(tablets);
+                }
+                long latency = System.nanoTime() - start;
+                metrics.recordLatency(latency);
+                batchSize.onSuccess(rows, latency);
+                metrics.addPoints(points);
+                writtenPoints.addAndGet(points);
+                cacheSchema(batch);
+                pending.remove(batch.getSequence());
+                return;
+            } catch (IoTDBConnectionException e) {
+                exception = e;
+                if (Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+                batchSize.onFailure("connection error");
+                try {
+                    connection.reopen();
+                } catch (IoTDBConnectionException ignored) {
+                }
+            } catch (StatementExecutionException | RuntimeException e) {
+                exception = e;
+                batchSize.onFailure("rejected");
+                break;
+            }
+        }
+        failures.put(batch.getSequence(), new Failure(batch.getSequence(), batch.getFirstPosition().getRecordNumber(), batch.getLastRecord(), exception.getMessage()));
+    }
+
+    /**
+     * The written columns exist as timeseries now, later lookups of their devices find them in the cache.
+     */
+    private void cacheSchema(Batch batch) {
+        for (TabletBuffer tablet : batch.getTablets()) {
+            List<String> measurements = new ArrayList<>();
+            List<TSDataType> types = new ArrayList<>();
+            for (int i = 0; i < tablet.getMeasurements().size(); i++) {
+                if (tablet.hasValue(i)) {
+                    measurements.add(tablet.getMeasurements().get(i));
+                    types.add(tablet.getTypes().get(i));
+                }
+            }
+            schemaCache.update(tablet.getDeviceId(), measurements, types);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Batch {
+
+        private final long sequence;
+
+        private final SourcePosition firstPosition;
+
+        private final long lastRecord;
+
+        private final List<TabletBuffer> tablets;
+
+    }
+
+    /**
+     * A batch that could not be written, covering the source records firstRecord to lastRecord.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Failure {
+
+        private final long sequence;
+
+        private final long firstRecord;
+
+        private final long lastRecord;
+
+        private final String message;
+
+    }
+}
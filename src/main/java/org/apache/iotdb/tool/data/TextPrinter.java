@@ -3,8 +3,13 @@ package org.apache.iotdb.tool.data;
 import org.apache.commons.lang3.StringUtils;
 
 import javax.swing.*;
+import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Prints the output of a job to a text area. Jobs print from several threads, every message goes to
+ * the text area in a single append, so the lines of different threads do not interleave.
+ */
 public class TextPrinter {
 
     private final JTextArea out;
@@ -22,8 +27,7 @@ public class TextPrinter {
     }
 
     public void printException(Exception msg) {
-        out.append(msg.getMessage());
-        newLine();
+        println(msg.getMessage());
     }
 
     public void println() {
@@ -31,21 +35,30 @@ public class TextPrinter {
     }
 
     public void println(String msg) {
-        out.append(msg);
-        newLine();
+        out.append(msg + "\n");
     }
 
     public void printBlockLine(List<Integer> maxSizeList) {
         StringBuilder blockLine = new StringBuilder();
+        appendBlockLine(blockLine, maxSizeList);
+        print(blockLine.toString());
+    }
+
+    private void appendBlockLine(StringBuilder builder, List<Integer> maxSizeList) {
         for (Integer integer : maxSizeList) {
-            blockLine.append("+").append(StringUtils.repeat("-", integer));
+            builder.append("+").append(StringUtils.repeat("-", integer));
         }
-        blockLine.append("+");
-        println(blockLine.toString());
+        builder.append("+\n");
     }
 
     public void printRow(List<List<String>> lists, int i, List<Integer> maxSizeList) {
-        printf("|");
+        StringBuilder row = new StringBuilder();
+        appendRow(row, lists, i, maxSizeList);
+        print(row.toString());
+    }
+
+    private void appendRow(StringBuilder builder, List<List<String>> lists, int i, List<Integer> maxSizeList) {
+        builder.append("|");
         int count;
         int maxSize;
         String element;
@@ -66,9 +79,34 @@ public class TextPrinter {
                 }
             }
 
-            printf("%" + maxSize + "s|", element);
+            builder.append(String.format("%" + maxSize + "s|", element));
+        }
+        builder.append("\n");
+    }
+
+    /**
+     * Prints a table framed by block lines, the first element of every column is its title.
+     */
+    public void printTable(List<List<String>> columns) {
+        List<Integer> maxSizeList = new ArrayList<>(columns.size());
+        for (List<String> column : columns) {
+            int maxSize = 0;
+            for (String element : column) {
+                maxSize = Math.max(maxSize, element.length() + computeHANCount(element));
+            }
+            maxSizeList.add(maxSize);
+        }
+        int rows = columns.isEmpty() ? 0 : columns.get(0).size();
+        StringBuilder table = new StringBuilder();
+        appendBlockLine(table, maxSizeList);
+        for (int i = 0; i < rows; i++) {
+            appendRow(table, columns, i, maxSizeList);
+            if (i == 0) {
+                appendBlockLine(table, maxSizeList);
+            }
         }
-        println();
+        appendBlockLine(table, maxSizeList);
+        print(table.toString());
     }
 
     public void printCount(int cnt) {
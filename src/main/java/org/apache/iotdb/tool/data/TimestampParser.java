@@ -0,0 +1,298 @@
+package org.apache.iotdb.tool.data;
+
+import org.apache.iotdb.desktop.util.DateTimeUtils;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Parses the timestamps of an imported file with a parser for the layout of the file.
+ * <p>
+ * The layout is detected from the first timestamp: epoch numbers in the time precision, or dates with
+ * '-', '/' or '.', a 'T' or a space before the time, a fraction of up to nine digits and a 'Z', a
+ * '+HH:MM' or no offset. The following timestamps are parsed from their chars by the parser of that
+ * layout, a timestamp of another layout detects it again. Text no layout covers is parsed by
+ * {@link DateTimeUtils#convertDatetimeStrToLong} as before, the results of both are the same.
+ */
+public class TimestampParser {
+
+    private static final int NO_OFFSET = 0;
+    private static final int UTC_OFFSET = 1;
+    private static final int NUMERIC_OFFSET = 2;
+
+    private final ZoneId zoneId;
+    private final String timestampPrecision;
+    private final int defaultOffsetSeconds;
+    private Layout layout;
+    private long value;
+    private long fallbacks = 0;
+
+    public TimestampParser(ZoneId zoneId, String timestampPrecision) {
+        this.zoneId = zoneId;
+        this.timestampPrecision = timestampPrecision;
+        // the generic parser appends the current offset of the zone to timestamps without one
+        ZoneOffset offset = DateTimeUtils.toZoneOffset(zoneId);
+        this.defaultOffsetSeconds = offset.getTotalSeconds();
+    }
+
+    public long parse(CsvRow record, int index) {
+        if (layout != null && layout.parse(record, index)) {
+            return value;
+        }
+        Layout detected = detect(record, index);
+        if (detected != null) {
+            layout = detected;
+            if (layout.parse(record, index)) {
+                return value;
+            }
+        }
+        fallbacks++;
+        String text = record.get(index);
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            return DateTimeUtils.convertDatetimeStrToLong(text, zoneId, timestampPrecision);
+        }
+    }
+
+    /**
+     * The layout of the last timestamp, {@code null} before the first one or if no layout fitted.
+     */
+    public String getLayout() {
+        return layout == null ? null : layout.toString();
+    }
+
+    /**
+     * Timestamps parsed by the generic parser.
+     */
+    public long getFallbacks() {
+        return fallbacks;
+    }
+
+    private Layout detect(CsvRow record, int index) {
+        int length = record.length(index);
+        if (length == 0) {
+            return null;
+        }
+        int start = record.charAt(index, 0) == '-' || record.charAt(index, 0) == '+' ? 1 : 0;
+        if (start < length && isDigits(record, index, start, length)) {
+            return new Layout(true, (char) 0, (char) 0, NO_OFFSET);
+        }
+        if (length < 10 || !isDigits(record, index, 0, 4)) {
+            return null;
+        }
+        char dateSeparator = record.charAt(index, 4);
+        if ((dateSeparator != '-' && dateSeparator != '/' && dateSeparator != '.') || record.charAt(index, 7) != dateSeparator) {
+            return null;
+        }
+        if (length == 10) {
+            return new Layout(false, dateSeparator, (char) 0, NO_OFFSET);
+        }
+        char timeSeparator = Character.toUpperCase(record.charAt(index, 10));
+        if (timeSeparator != 'T' && timeSeparator != ' ' || length < 19) {
+            return null;
+        }
+        int position = 19;
+        if (position < length && record.charAt(index, position) == '.') {
+            position++;
+            while (position < length && isDigit(record.charAt(index, position))) {
+                position++;
+            }
+        }
+        int offset;
+        if (position == length) {
+            offset = NO_OFFSET;
+        } else if (position + 1 == length && record.charAt(index, position) == 'Z') {
+            offset = UTC_OFFSET;
+        } else if (position + 6 == length) {
+            offset = NUMERIC_OFFSET;
+        } else {
+            return null;
+        }
+        return new Layout(false, dateSeparator, timeSeparator, offset);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isDigits(CsvRow record, int index, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!isDigit(record.charAt(index, i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Value of the digits, -1 if any of them is not a digit.
+     */
+    private static int digits(CsvRow record, int index, int from, int to) {
+        int result = 0;
+        for (int i = from; i < to; i++) {
+            char c = record.charAt(index, i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    private static boolean isLeapYear(long year) {
+        return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+    }
+
+    private static int lengthOfMonth(long year, int month) {
+        switch (month) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Days from 1970-01-01 to the date of the proleptic Gregorian calendar.
+     */
+    private static long epochDay(long year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = (y >= 0 ? y : y - 399) / 400;
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153L * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private class Layout {
+
+        private final boolean epoch;
+        private final char dateSeparator;
+        // 0 for dates without time
+        private final char timeSeparator;
+        private final int offset;
+
+        Layout(boolean epoch, char dateSeparator, char timeSeparator, int offset) {
+            this.epoch = epoch;
+            this.dateSeparator = dateSeparator;
+            this.timeSeparator = timeSeparator;
+            this.offset = offset;
+        }
+
+        /**
+         * Parses the timestamp into value, false if it is not of this layout or out of the plain ranges.
+         */
+        boolean parse(CsvRow record, int index) {
+            if (epoch) {
+                try {
+                    value = record.getLong(index);
+                    return true;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+            int length = record.length(index);
+            if (length < 10 || record.charAt(index, 4) != dateSeparator || record.charAt(index, 7) != dateSeparator) {
+                return false;
+            }
+            int year = digits(record, index, 0, 4);
+            int month = digits(record, index, 5, 7);
+            int day = digits(record, index, 8, 10);
+            if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+                return false;
+            }
+            int hour = 0;
+            int minute = 0;
+            int second = 0;
+            int nano = 0;
+            int offsetSeconds = defaultOffsetSeconds;
+            if ((timeSeparator == 0 || offset == NO_OFFSET) && defaultOffsetSeconds % 60 != 0) {
+                // the generic parser does not take offsets with seconds
+                return false;
+            }
+            if (timeSeparator == 0) {
+                if (length != 10) {
+                    return false;
+                }
+            } else {
+                if (length < 19 || Character.toUpperCase(record.charAt(index, 10)) != timeSeparator
+                    || record.charAt(index, 13) != ':' || record.charAt(index, 16) != ':') {
+                    return false;
+                }
+                hour = digits(record, index, 11, 13);
+                minute = digits(record, index, 14, 16);
+                second = digits(record, index, 17, 19);
+                if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+                    return false;
+                }
+                int position = 19;
+                if (position < length && record.charAt(index, position) == '.') {
+                    int fractionEnd = ++position;
+                    while (fractionEnd < length && isDigit(record.charAt(index, fractionEnd))) {
+                        fractionEnd++;
+                    }
+                    int fractionDigits = fractionEnd - position;
+                    if (fractionDigits == 0 || fractionDigits > 9) {
+                        return false;
+                    }
+                    nano = digits(record, index, position, fractionEnd);
+                    for (int i = fractionDigits; i < 9; i++) {
+                        nano *= 10;
+                    }
+                    position = fractionEnd;
+                }
+                switch (offset) {
+                    case UTC_OFFSET:
+                        if (position + 1 != length || record.charAt(index, position) != 'Z') {
+                            return false;
+                        }
+                        offsetSeconds = 0;
+                        break;
+                    case NUMERIC_OFFSET:
+                        if (position + 6 != length || record.charAt(index, position + 3) != ':') {
+                            return false;
+                        }
+                        char sign = record.charAt(index, position);
+                        int offsetHours = digits(record, index, position + 1, position + 3);
+                        int offsetMinutes = digits(record, index, position + 4, position + 6);
+                        if ((sign != '+' && sign != '-') || offsetHours < 0 || offsetMinutes < 0 || offsetMinutes > 59
+                            || offsetHours > 18 || (offsetHours == 18 && offsetMinutes > 0)) {
+                            return false;
+                        }
+                        offsetSeconds = (offsetHours * 3600 + offsetMinutes * 60) * (sign == '-' ? -1 : 1);
+                        break;
+                    default:
+                        if (position != length) {
+                            return false;
+                        }
+                }
+            }
+            long epochSecond = epochDay(year, month, day) * 86400 + hour * 3600 + minute * 60 + second - offsetSeconds;
+            value = DateTimeUtils.toTimestamp(epochSecond, nano, timestampPrecision);
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            if (epoch) {
+                return "epoch";
+            }
+            StringBuilder builder = new StringBuilder("yyyy").append(dateSeparator).append("MM").append(dateSeparator).append("dd");
+            if (timeSeparator != 0) {
+                builder.append(timeSeparator).append("HH:mm:ss[.S]");
+                if (offset == UTC_OFFSET) {
+                    builder.append('Z');
+                } else if (offset == NUMERIC_OFFSET) {
+                    builder.append("+HH:MM");
+                }
+            }
+            return builder.toString();
+        }
+    }
+}
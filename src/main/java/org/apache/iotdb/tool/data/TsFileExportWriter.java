@@ -0,0 +1,218 @@
+package org.apache.iotdb.tool.data;
+
+import org.apache.tsfile.exception.write.WriteProcessException;
+import org.apache.tsfile.fileSystem.FSFactoryProducer;
+import org.apache.tsfile.read.common.Path;
+import org.apache.tsfile.write.TsFileWriter;
+import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Writes the tablets of a TsFile export on a background thread, so the rows of the next tablets are
+ * fetched from the server while the last ones are encoded. Tablets wait in a bounded queue, an export
+ * reading faster than the disk writes blocks on {@link #write(List)}.
+ * <p>
+ * The export rolls over to a new file when a file reaches the size limit, or on {@link #roll()} at a
+ * time partition boundary. Rolled files are numbered from 0, a file is created with its first tablet.
+ */
+public class TsFileExportWriter {
+
+    private static final String SUFFIX = ".tsfile";
+    private static final int QUEUE_CAPACITY = 4;
+    private static final Object ROLL = new Object();
+    private static final Object END = new Object();
+    /**
+     * Chunks are flushed to the file after this many bytes of raw values at most, so its size follows
+     * the written tablets closely enough for the limit.
+     */
+    private static final long MAX_UNFLUSHED_BYTES = 16 << 20;
+
+    private final String path;
+    private final boolean rolling;
+    private final long maxFileSize;
+    private final Map<String, List<IMeasurementSchema>> deviceSchemas;
+    private final Set<String> alignedDevices;
+    private final JobMetrics metrics;
+    private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final AtomicReference<Exception> failure = new AtomicReference<>();
+    private final List<String> files = new ArrayList<>();
+    private final Thread thread;
+    // only touched by the writer thread
+    private TsFileWriter writer;
+    private File file;
+    private long unflushedBytes;
+
+    /**
+     * @param path        path of the files without the suffix
+     * @param rolling     whether the files are numbered, a single file keeps the path
+     * @param maxFileSize bytes of a file before the next one is started, 0 for no limit
+     */
+    public TsFileExportWriter(String path, boolean rolling, long maxFileSize, Map<String, List<IMeasurementSchema>> deviceSchemas,
+                              Set<String> alignedDevices, JobMetrics metrics) {
+        this.path = path;
+        this.rolling = rolling || maxFileSize > 0;
+        this.maxFileSize = maxFileSize;
+        this.deviceSchemas = deviceSchemas;
+        this.alignedDevices = alignedDevices;
+        this.metrics = metrics;
+        this.thread = new Thread(this::run, "iotdb-export-tsfile-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Queues the tablets of the same rows, they belong to the writer from now on.
+     */
+    public void write(List<Tablet> tablets) throws IOException {
+        put(tablets);
+    }
+
+    /**
+     * Starts a new file with the next tablets.
+     */
+    public void roll() throws IOException {
+        put(ROLL);
+    }
+
+    /**
+     * Waits for the queued tablets to be written and closes the last file.
+     *
+     * @return paths of the written files
+     */
+    public List<String> finish() throws IOException, WriteProcessException {
+        try {
+            queue.put(END);
+            thread.join();
+        } catch (InterruptedException e) {
+            thread.interrupt();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing " + path + SUFFIX);
+        }
+        Exception e = failure.get();
+        if (e instanceof IOException) {
+            throw (IOException) e;
+        } else if (e instanceof WriteProcessException) {
+            throw (WriteProcessException) e;
+        } else if (e != null) {
+            throw (RuntimeException) e;
+        }
+        return files;
+    }
+
+    private void put(Object item) throws IOException {
+        Exception e = failure.get();
+        if (e != null) {
+            throw new IOException("Cannot write " + file + " because: " + e.getMessage(), e);
+        }
+        try {
+            queue.put(item);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing " + path + SUFFIX);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void run() {
+        try {
+            while (true) {
+                Object item = queue.take();
+                if (item == END) {
+                    break;
+                }
+                // after a failure the queue is only drained, so the export does not block on it
+                if (failure.get() != null) {
+                    continue;
+                }
+                try {
+                    if (item == ROLL) {
+                        close();
+                    } else {
+                        for (Tablet tablet : (List<Tablet>) item) {
+                            writeTablet(tablet);
+                        }
+                    }
+                } catch (IOException | WriteProcessException | RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                }
+            }
+        } catch (InterruptedException ignored) {
+        } finally {
+            try {
+                close();
+            } catch (IOException | RuntimeException e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+    }
+
+    private void writeTablet(Tablet tablet) throws IOException, WriteProcessException {
+        if (tablet.getRowSize() == 0) {
+            return;
+        }
+        if (writer == null) {
+            open();
+        }
+        if (alignedDevices.contains(tablet.getDeviceId())) {
+            writer.writeTree(tablet);
+        } else {
+            writer.writeTable(tablet);
+        }
+        if (maxFileSize <= 0) {
+            return;
+        }
+        unflushedBytes += (long) tablet.getRowSize() * (tablet.getSchemas().size() + 1) * Long.BYTES;
+        if (unflushedBytes >= Math.min(maxFileSize / 4, MAX_UNFLUSHED_BYTES)) {
+            writer.flush();
+            unflushedBytes = 0;
+            if (file.length() >= maxFileSize) {
+                close();
+            }
+        }
+    }
+
+    private void open() throws IOException, WriteProcessException {
+        String name = rolling ? path + "_" + files.size() + SUFFIX : path + SUFFIX;
+        file = FSFactoryProducer.getFSFactory().getFile(name);
+        if (file.exists()) {
+            Files.delete(file.toPath());
+        }
+        writer = new TsFileWriter(file);
+        files.add(name);
+        for (Map.Entry<String, List<IMeasurementSchema>> entry : deviceSchemas.entrySet()) {
+            Path device = new Path(entry.getKey());
+            if (alignedDevices.contains(entry.getKey())) {
+                writer.registerAlignedTimeseries(device, entry.getValue());
+            } else {
+                writer.registerTimeseries(device, entry.getValue());
+            }
+        }
+    }
+
+    private void close() throws IOException {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } finally {
+            writer = null;
+            unflushedBytes = 0;
+            if (file.exists()) {
+                metrics.addBytes(file.length());
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.apache.iotdb.desktop.model;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DataColumnTest {
+
+    private static final int DICTIONARY_LIMIT = 1 << 16;
+
+    @Test
+    public void appendBlockAcrossDictionaryLimit() {
+        DataColumn column = DataColumn.create(TSDataType.TEXT);
+        for (int i = 0; i < DICTIONARY_LIMIT - 10; i++) {
+            column.add("value" + i);
+        }
+        DataColumn block = DataColumn.create(TSDataType.TEXT);
+        for (int i = 0; i < 100; i++) {
+            if (i % 7 == 0) {
+                block.addNull();
+            } else {
+                block.add("block" + i);
+            }
+        }
+
+        column.addAll(block);
+
+        assertEquals(DICTIONARY_LIMIT + 90, column.size());
+        assertEquals("value0", column.get(0));
+        assertEquals("value" + (DICTIONARY_LIMIT - 11), column.get(DICTIONARY_LIMIT - 11));
+        for (int i = 0; i < 100; i++) {
+            int row = DICTIONARY_LIMIT - 10 + i;
+            if (i % 7 == 0) {
+                assertTrue(column.isNull(row));
+                assertNull(column.get(row));
+            } else {
+                assertFalse(column.isNull(row));
+                assertEquals("block" + i, column.get(row));
+            }
+        }
+    }
+
+    @Test
+    public void addAcrossDictionaryLimit() {
+        DataColumn column = DataColumn.create(TSDataType.STRING);
+        for (int i = 0; i < DICTIONARY_LIMIT + 10; i++) {
+            if (i % 1000 == 0) {
+                column.addNull();
+            } else {
+                column.add("value" + i);
+            }
+        }
+
+        for (int i = 0; i < DICTIONARY_LIMIT + 10; i++) {
+            assertEquals(i % 1000 == 0 ? null : "value" + i, column.get(i));
+        }
+    }
+
+    @Test
+    public void removeAndSetAfterDictionaryLimit() {
+        DataColumn column = DataColumn.create(TSDataType.TEXT);
+        for (int i = 0; i < DICTIONARY_LIMIT + 1; i++) {
+            column.add("value" + i);
+        }
+
+        column.remove(0);
+        column.set(1, null);
+        column.set(2, "changed");
+
+        assertEquals(DICTIONARY_LIMIT, column.size());
+        assertEquals("value1", column.get(0));
+        assertNull(column.get(1));
+        assertEquals("changed", column.get(2));
+        assertEquals("value" + DICTIONARY_LIMIT, column.get(DICTIONARY_LIMIT - 1));
+    }
+
+    @Test
+    public void repeatedValuesShareTheDictionary() {
+        DataColumn column = DataColumn.create(TSDataType.TEXT);
+        for (int i = 0; i < 3 * DICTIONARY_LIMIT; i++) {
+            column.add("value" + i % 3);
+        }
+        DataColumn block = DataColumn.create(TSDataType.TEXT);
+        block.add("value1");
+        block.addNull();
+
+        column.addAll(block);
+
+        assertEquals(3 * DICTIONARY_LIMIT + 2, column.size());
+        assertEquals("value2", column.get(3 * DICTIONARY_LIMIT - 1));
+        assertEquals("value1", column.get(3 * DICTIONARY_LIMIT));
+        assertNull(column.get(3 * DICTIONARY_LIMIT + 1));
+    }
+}
@@ -0,0 +1,85 @@
+package org.apache.iotdb.tool.data;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.tsfile.enums.TSDataType.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColumnTypeInferenceTest {
+
+    private static final List<TSDataType> TYPES = List.of(BOOLEAN, INT32, INT64, FLOAT, DOUBLE, STRING, TEXT);
+
+    @ParameterizedTest(name = "{0} + {1} = {2}")
+    @CsvSource({
+        "INT32, INT64, INT64",
+        "INT32, FLOAT, FLOAT",
+        "INT32, DOUBLE, DOUBLE",
+        "INT64, FLOAT, DOUBLE",
+        "INT64, DOUBLE, DOUBLE",
+        "FLOAT, DOUBLE, DOUBLE",
+        "BOOLEAN, INT32, STRING",
+        "BOOLEAN, DOUBLE, STRING",
+        "BOOLEAN, STRING, STRING",
+        "INT64, STRING, STRING",
+        "STRING, TEXT, TEXT",
+        "BOOLEAN, TEXT, TEXT",
+        "DOUBLE, TEXT, TEXT"
+    })
+    public void widensToATypeHoldingBoth(TSDataType a, TSDataType b, TSDataType widened) {
+        assertEquals(widened, ColumnTypeInference.widen(a, b));
+        assertEquals(widened, ColumnTypeInference.widen(b, a));
+    }
+
+    @Test
+    public void widensTheSameTypeToItself() {
+        for (TSDataType type : TYPES) {
+            assertEquals(type, ColumnTypeInference.widen(type, type));
+        }
+    }
+
+    /**
+     * The type of a column must not depend on the order of its values.
+     */
+    @Test
+    public void widensInAnyOrder() {
+        for (TSDataType a : TYPES) {
+            for (TSDataType b : TYPES) {
+                assertEquals(ColumnTypeInference.widen(a, b), ColumnTypeInference.widen(b, a), a + " " + b);
+                for (TSDataType c : TYPES) {
+                    assertEquals(ColumnTypeInference.widen(ColumnTypeInference.widen(a, b), c),
+                        ColumnTypeInference.widen(a, ColumnTypeInference.widen(b, c)), a + " " + b + " " + c);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void infersOneTypePerColumn() {
+        Map<String, TSDataType> valueTypes = Map.of("1", INT32, "5000000000", INT64, "1.5", FLOAT, "true", BOOLEAN,
+            "abc", TEXT);
+        ColumnTypeInference inference = new ColumnTypeInference(valueTypes::get);
+
+        inference.add("b", "1");
+        inference.add("a", "1");
+        inference.add("a", "5000000000");
+        inference.add("b", "1.5");
+        inference.add("c", "true");
+        inference.add("c", "");
+        inference.add("d", "null");
+        inference.add("e", "1");
+        inference.add("e", "true");
+        inference.add("e", "abc");
+
+        assertEquals(List.of("b", "a", "c", "e"), List.copyOf(inference.getTypes().keySet()));
+        assertEquals(Map.of("a", INT64, "b", FLOAT, "c", BOOLEAN, "e", TEXT), inference.getTypes());
+        assertEquals(2, inference.getValueCount("a"));
+        assertEquals(1, inference.getValueCount("c"));
+        assertEquals(0, inference.getValueCount("d"));
+    }
+}
@@ -0,0 +1,250 @@
+package org.apache.iotdb.tool.data;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The tokenizer has to read the files of the export like the Commons CSV parser, every case is parsed by
+ * both and compared field by field, with the record numbers and the character positions of checkpoints.
+ */
+public class CsvTokenizerTest {
+
+    private static final String ERROR = "error";
+
+    static Stream<Arguments> files() {
+        return Stream.of(
+            Arguments.of("plain", "Time,root.sg.d1.s1,root.sg.d1.s2\n1,2,3\n4,5,6\n"),
+            Arguments.of("empty file", ""),
+            Arguments.of("header only", "Time,s1\n"),
+            Arguments.of("no trailing line break", "Time,s1\n1,2\n3,4"),
+            Arguments.of("empty fields", "a,b,c\n,,\n1,,\n,,3\n"),
+            Arguments.of("fewer and more fields", "a,b,c\n1\n1,2,3,4\n"),
+            Arguments.of("backtick quotes", "a,b\n`x,y`,`z`\n`1`,2\n"),
+            Arguments.of("empty quoted", "a,b\n``,``\n"),
+            Arguments.of("doubled quotes", "a,b\n`x``y`,````\n```a`,z\n"),
+            Arguments.of("doubled quote before the closing quote", "a,b\n`````,z\n"),
+            Arguments.of("line breaks in quotes", "a,b\n`line1\nline2`,`x\r\ny`\n`\r`,z\n"),
+            Arguments.of("white space after quote", "a,b\n`x` ,`y`\t\n"),
+            Arguments.of("quote inside of a field", "a,b\nx`y,z`\n"),
+            Arguments.of("escaped delimiter", "a,b\nx\\,y,z\n`x\\,y`,z\n"),
+            Arguments.of("escaped escape", "a,b\nx\\\\y,\\\\\n`\\\\`,z\n"),
+            Arguments.of("escaped control chars", "a,b\nx\\ry\\nz,\\t\\b\\f\n`\\r\\n`,z\n"),
+            Arguments.of("escaped line breaks", "a,b\nx\\\ny,z\\\r\n1,2\n"),
+            Arguments.of("escaped quote", "a,b\n\\`x,`y\\`z`\n"),
+            Arguments.of("unknown escape", "a,b\n\\q,`\\d`\n"),
+            Arguments.of("trailing escape", "a,b\n1,2\\"),
+            Arguments.of("trailing escape in quotes", "a,b\n1,`2\\"),
+            Arguments.of("unterminated quote", "a,b\n1,`2\n3,4\n"),
+            Arguments.of("invalid char after quote", "a,b\n`x`y,z\n"),
+            Arguments.of("CRLF", "a,b\r\n1,2\r\n3,4\r\n"),
+            Arguments.of("CR", "a,b\r1,2\r3,4\r"),
+            Arguments.of("mixed line breaks", "a,b\r\n1,2\n3,4\r5,6\r\n"),
+            Arguments.of("CR at the end", "a,b\n1,2\r"),
+            Arguments.of("empty lines", "a,b\n\n1,2\n\n\n3,4\n\n"),
+            Arguments.of("empty CRLF lines", "a,b\r\n\r\n1,2\r\n\r\n\r\n3,4\r\n"),
+            Arguments.of("empty lines before the header", "\n\r\na,b\n1,2\n"),
+            Arguments.of("multi-byte", "a,b\nü,中文\n`é,ñ`,ß\n"),
+            Arguments.of("4-byte", "a,b\n😀,x\n`𝄞😀`,\\😀\n😀😀,😀\n"),
+            Arguments.of("multi-byte white space after quote", "a,b\n`x`　,y\n"),
+            Arguments.of("BOM", "﻿Time,s1\n1,2\n"),
+            Arguments.of("BOM with quoted header", "﻿`Time`,s1\n1,2\n")
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("files")
+    public void readsLikeCommonsCsv(String name, String content) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(readCommons(bytes), readTokenizer(bytes, 0, 0));
+    }
+
+    @Test
+    public void readsRecordsAcrossChunks() throws IOException {
+        byte[] bytes = largeFile();
+
+        List<String> expected = readCommons(bytes);
+        assertTrue(expected.size() > 10_000);
+        assertEquals(expected, readTokenizer(bytes, 0, 0));
+    }
+
+    @Test
+    public void resumesAtCheckpoints() throws IOException {
+        byte[] bytes = largeFile();
+        List<String> records = readCommons(bytes);
+
+        for (int index : new int[]{1, 2, 5_000, records.size() / 2, records.size() - 2}) {
+            long recordNumber = recordNumber(records.get(index));
+            long position = characterPosition(records.get(index));
+            List<String> expected = new ArrayList<>(records.subList(index, records.size()));
+            expected.add(0, records.get(0));
+
+            assertEquals(expected, readCommons(bytes, position, recordNumber), "Commons CSV at record " + recordNumber);
+            assertEquals(expected, readTokenizer(bytes, position, recordNumber), "tokenizer at record " + recordNumber);
+        }
+    }
+
+    @Test
+    public void resumesAtCheckpointsOfTheOtherParser() throws IOException {
+        byte[] bytes = ("a,b\n`x\ny`,😀\n\n1,ü\r\n`2\\,`,3\n4,中\n").getBytes(StandardCharsets.UTF_8);
+        List<String> records = readCommons(bytes);
+
+        for (int index = 1; index < records.size(); index++) {
+            long recordNumber = recordNumber(records.get(index));
+            long position = characterPosition(records.get(index));
+
+            List<String> expected = new ArrayList<>(records.subList(index, records.size()));
+            expected.add(0, records.get(0));
+
+            assertEquals(expected, readTokenizer(bytes, position, recordNumber));
+        }
+        assertEquals(records, readTokenizer(bytes, 0, 0));
+    }
+
+    @Test
+    public void parsesNumbersLikeTheJdk() throws IOException {
+        String[] values = {"0", "-0", "+1", "123456789", "-2147483648", "2147483647", "9223372036854775807",
+            "-9223372036854775808", "0.1", "-1.5", "3.4028235E38", "1e-3", "1E+10", "123456.789", "0.30000000000000004",
+            "1.0000001", "16777217", "1e22", "1e23", "4.9e-324", ".5", "5.", "NaN", "-Infinity", "0x10"};
+        StringBuilder content = new StringBuilder("v\n");
+        for (String value : values) {
+            content.append(value).append('\n');
+        }
+        byte[] bytes = content.toString().getBytes(StandardCharsets.UTF_8);
+
+        try (CsvRowReader reader = new CsvTokenizer(Channels.newChannel(new ByteArrayInputStream(bytes)), 0, 0)) {
+            for (String value : values) {
+                CsvRow row = reader.next();
+                assertEquals(result(() -> Integer.parseInt(value)), result(() -> row.getInt(0)), value);
+                assertEquals(result(() -> Long.parseLong(value)), result(() -> row.getLong(0)), value);
+                assertEquals(result(() -> Float.parseFloat(value)), result(() -> row.getFloat(0)), value);
+                assertEquals(result(() -> Double.parseDouble(value)), result(() -> row.getDouble(0)), value);
+            }
+        }
+    }
+
+    /**
+     * More than one chunk of records with quoted, escaped and multi-byte fields at shifting offsets, so
+     * records, quotes, escapes and UTF-8 sequences cross the chunk boundaries.
+     */
+    private static byte[] largeFile() {
+        StringBuilder content = new StringBuilder("Time,root.sg.d1.s1,root.sg.d1.s2,root.sg.d1.s3\n");
+        for (int i = 0; content.length() < 3_000_000; i++) {
+            content.append(1_700_000_000_000L + i).append(',');
+            switch (i % 5) {
+                case 0:
+                    content.append("`quoted, text ").append(i).append("`,");
+                    break;
+                case 1:
+                    content.append("escaped\\,").append(i).append("\\\\,");
+                    break;
+                case 2:
+                    content.append("中文😀").append(i).append(',');
+                    break;
+                case 3:
+                    content.append("`multi\nline ``").append(i).append("```,");
+                    break;
+                default:
+                    content.append(',');
+            }
+            content.append(i * 0.5).append(',').append("x".repeat(i % 17));
+            content.append(i % 3 == 0 ? "\r\n" : "\n");
+            if (i % 101 == 0) {
+                content.append('\n');
+            }
+        }
+        return content.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> readCommons(byte[] bytes) throws IOException {
+        try {
+            CSVParser parser = CsvRowReader.formatBuilder()
+                .setHeader()
+                .setSkipHeaderRecord(true)
+                .build()
+                .parse(new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8));
+            return read(CsvRowReader.of(parser));
+        } catch (IOException | RuntimeException e) {
+            return List.of(ERROR);
+        }
+    }
+
+    /**
+     * Resumes like the import does, the header is read from the start and the reader skips to the position.
+     */
+    private static List<String> readCommons(byte[] bytes, long position, long recordNumber) throws IOException {
+        List<String> headerNames;
+        try (CSVParser headerParser = CsvRowReader.formatBuilder().setHeader().setSkipHeaderRecord(true).build()
+            .parse(new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8))) {
+            headerNames = headerParser.getHeaderNames();
+        }
+        Reader reader = new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8);
+        assertEquals(position, reader.skip(position));
+        CSVFormat format = CsvRowReader.formatBuilder()
+            .setHeader(headerNames.toArray(String[]::new))
+            .setSkipHeaderRecord(false)
+            .build();
+        return read(CsvRowReader.of(new CSVParser(reader, format, position, recordNumber)));
+    }
+
+    private static List<String> readTokenizer(byte[] bytes, long position, long recordNumber) throws IOException {
+        try {
+            return read(new CsvTokenizer(Channels.newChannel(new ByteArrayInputStream(bytes)), position, recordNumber));
+        } catch (IOException | RuntimeException e) {
+            return List.of(ERROR);
+        }
+    }
+
+    /**
+     * The header, then every record as number, position and fields, and an error entry if reading failed.
+     */
+    private static List<String> read(CsvRowReader reader) throws IOException {
+        List<String> records = new ArrayList<>();
+        try (reader) {
+            records.add("header " + reader.getHeaderNames());
+            while (reader.hasNext()) {
+                CsvRow row = reader.next();
+                records.add(row.getRecordNumber() + "@" + row.getCharacterPosition() + " " + row.toList());
+            }
+        } catch (RuntimeException e) {
+            records.add(ERROR);
+        }
+        return records;
+    }
+
+    private static long recordNumber(String record) {
+        return Long.parseLong(record.substring(0, record.indexOf('@')));
+    }
+
+    private static long characterPosition(String record) {
+        return Long.parseLong(record.substring(record.indexOf('@') + 1, record.indexOf(' ')));
+    }
+
+    private static Object result(NumberSupplier supplier) {
+        try {
+            return supplier.get();
+        } catch (NumberFormatException e) {
+            return NumberFormatException.class;
+        }
+    }
+
+    private interface NumberSupplier {
+        Object get();
+    }
+}
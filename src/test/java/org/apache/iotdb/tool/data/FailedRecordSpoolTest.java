@@ -0,0 +1,72 @@
+package org.apache.iotdb.tool.data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.swing.*;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FailedRecordSpoolTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void resumedSqlImportAppendsToTheFailedFile() throws IOException {
+        String path = directory.resolve("data.sql.failed").toString();
+        try (FailedRecordSpool spool = spool(path, null, false)) {
+            spool.add(List.of("insert into root.sg.d1(time, s1) values(1, 'é')"), "first");
+        }
+        try (FailedRecordSpool spool = spool(path, null, true)) {
+            spool.add(List.of("insert into root.sg.d1(time, s1) values(2, '中')"), "second");
+        }
+
+        assertEquals(List.of("insert into root.sg.d1(time, s1) values(1, 'é')",
+            "insert into root.sg.d1(time, s1) values(2, '中')"), Files.readAllLines(Path.of(path), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void newSqlImportReplacesTheFailedFile() throws IOException {
+        String path = directory.resolve("data.sql.failed").toString();
+        try (FailedRecordSpool spool = spool(path, null, false)) {
+            spool.add(List.of("old"), "first");
+        }
+        try (FailedRecordSpool spool = spool(path, null, false)) {
+            spool.add(List.of("new"), "second");
+        }
+
+        assertEquals(List.of("new"), Files.readAllLines(Path.of(path), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void resumedCsvImportContinuesAfterTheExistingFiles() throws IOException {
+        String path = directory.resolve("data.csv.failed").toString();
+        List<String> header = List.of("Time", "root.sg.d1.s1");
+        try (FailedRecordSpool spool = spool(path, header, false)) {
+            for (int i = 0; i < 3; i++) {
+                spool.add(List.of(i, "v" + i), "first");
+            }
+        }
+        Files.writeString(directory.resolve("data.csv.failed_x"), "unrelated");
+        try (FailedRecordSpool spool = spool(path, header, true)) {
+            spool.add(List.of(3, "v3"), "second");
+        }
+
+        assertTrue(Files.exists(directory.resolve("data.csv.failed_0")));
+        assertTrue(Files.exists(directory.resolve("data.csv.failed_1")));
+        List<String> resumed = Files.readAllLines(directory.resolve("data.csv.failed_2"), StandardCharsets.UTF_8);
+        assertEquals(List.of("Time,root.sg.d1.s1", "3,v3"), resumed);
+        assertEquals(List.of("Time,root.sg.d1.s1", "2,v2"),
+            Files.readAllLines(directory.resolve("data.csv.failed_1"), StandardCharsets.UTF_8));
+    }
+
+    private static FailedRecordSpool spool(String path, List<String> header, boolean resumed) {
+        return new FailedRecordSpool(path, header, 2, 0, resumed, new TextPrinter(new JTextArea()), new JobMetrics());
+    }
+}
@@ -0,0 +1,88 @@
+package org.apache.iotdb.tool.data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SqlInsertTest {
+
+    @Test
+    public void parsesPlainInsert() {
+        SqlInsert insert = SqlInsert.parse("insert into root.sg.d1(timestamp, s1, s2, s3) values(1, 2, -3.5e2, true)");
+
+        assertNotNull(insert);
+        assertEquals("root.sg.d1", insert.getDevice());
+        assertFalse(insert.isAligned());
+        assertEquals(List.of(1L), insert.getTimes());
+        assertEquals(List.of(List.of("s1", "s2", "s3")), insert.getMeasurementsList());
+        assertEquals(List.of(List.of("2", "-3.5e2", "true")), insert.getValuesList());
+        assertEquals(1, insert.getRowCount());
+        assertEquals(3, insert.getPointCount());
+    }
+
+    @Test
+    public void parsesAlignedRowsWithNulls() {
+        SqlInsert insert = SqlInsert.parse(
+            "INSERT INTO root.sg.d_1 (Time, s1, s2) ALIGNED VALUES (-10, NaN, null), (20, null, .5),(30, NULL, null);");
+
+        assertNotNull(insert);
+        assertEquals("root.sg.d_1", insert.getDevice());
+        assertTrue(insert.isAligned());
+        // a row of nulls only has nothing to insert
+        assertEquals(List.of(-10L, 20L), insert.getTimes());
+        assertEquals(List.of(List.of("s1"), List.of("s2")), insert.getMeasurementsList());
+        assertEquals(List.of(List.of("NaN"), List.of(".5")), insert.getValuesList());
+        assertEquals(2, insert.getPointCount());
+    }
+
+    @Test
+    public void unquotesText() {
+        SqlInsert insert = SqlInsert.parse("insert into root.sg.d1(timestamp, s1, s2) values(1, 'it''s', \"a, (b)\")");
+
+        assertNotNull(insert);
+        assertEquals(List.of(List.of("it's", "a, (b)")), insert.getValuesList());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        // quoted text the server would take for a number, a boolean or a null
+        "insert into root.sg.d1(timestamp, s1) values(1, '123')",
+        "insert into root.sg.d1(timestamp, s1) values(1, '1e5')",
+        "insert into root.sg.d1(timestamp, s1) values(1, 'true')",
+        "insert into root.sg.d1(timestamp, s1) values(1, 'null')",
+        "insert into root.sg.d1(timestamp, s1) values(1, 'NaN')",
+        "insert into root.sg.d1(timestamp, s1) values(1, 'Infinity')",
+        "insert into root.sg.d1(timestamp, s1) values(1, ' ')",
+        "insert into root.sg.d1(timestamp, s1) values(1, '')",
+        // escapes, functions, datetime literals and unquoted text
+        "insert into root.sg.d1(timestamp, s1) values(1, 'a\\'b')",
+        "insert into root.sg.d1(timestamp, s1) values(now(), 1)",
+        "insert into root.sg.d1(timestamp, s1) values(2024-01-01T00:00:00, 1)",
+        "insert into root.sg.d1(timestamp, s1) values('1', 1)",
+        "insert into root.sg.d1(timestamp, s1) values(1, abc)",
+        "insert into root.sg.d1(timestamp, s1) values(1, 0x10)",
+        // names and structure
+        "insert into root.sg.`d1`(timestamp, s1) values(1, 1)",
+        "insert into root.sg.d1(timestamp, `s1`) values(1, 1)",
+        "insert into root.sg.d1(s1, s2) values(1, 1)",
+        "insert into root.sg.d1(timestamp) values(1)",
+        "insert into root.sg.d1 values(1, 1)",
+        "insert into root.sg.d1(timestamp, s1, s2) values(1, 1)",
+        "insert into root.sg.d1(timestamp, s1) values(1, 1, 2)",
+        "insert into root.sg.d1(timestamp, s1) values(1, 1) (2, 2)",
+        "insert into root.sg.d1(timestamp, s1) values(1, 1); select 1",
+        "insert into root.sg.d1(timestamp, s1) values(1, 'open",
+        "insert into root.sg.d1(timestamp, s1) values(1, ",
+        "insertinto root.sg.d1(timestamp, s1) values(1, 1)",
+        "insert into table1(time, s1) values(99999999999999999999, 1)",
+        "select * from root.sg.d1",
+        ""
+    })
+    public void leavesOtherStatementsToTheServer(String sql) {
+        assertNull(SqlInsert.parse(sql));
+    }
+}
@@ -0,0 +1,184 @@
+package org.apache.iotdb.tool.data;
+
+import org.apache.iotdb.desktop.util.DateTimeUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The parsers of the layouts have to give the results of {@link DateTimeUtils#convertDatetimeStrToLong},
+ * every layout is parsed by both in all precisions and zones, for times before and after the epoch.
+ */
+public class TimestampParserTest {
+
+    private static final String[] PRECISIONS = {"ms", "us", "ns"};
+    private static final ZoneId[] ZONES = {ZoneId.of("UTC"), ZoneId.of("Asia/Shanghai"), ZoneId.of("America/St_Johns"),
+        ZoneId.of("Asia/Kathmandu")};
+    private static final LocalDateTime[] TIMES = {
+        LocalDateTime.of(1970, 1, 1, 0, 0, 0, 0),
+        LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_999),
+        LocalDateTime.of(1969, 12, 31, 23, 59, 59, 1),
+        LocalDateTime.of(1900, 1, 1, 12, 30, 45, 123_456_789),
+        LocalDateTime.of(1600, 2, 29, 8, 0, 0, 500_000_000),
+        LocalDateTime.of(2000, 2, 29, 23, 59, 59, 999_000_000),
+        LocalDateTime.of(2024, 10, 27, 2, 30, 0, 10),
+        LocalDateTime.of(2262, 4, 11, 23, 47, 16, 854_775_807),
+        LocalDateTime.of(9999, 12, 31, 23, 59, 59, 999_999_999)
+    };
+    private static final String[] OFFSETS = {"", "Z", "+08:00", "-03:30", "+00:00", "-00:00", "+18:00", "-18:00"};
+
+    /**
+     * Every date separator, time separator, fraction length and offset of the layouts.
+     */
+    static Stream<Arguments> layouts() {
+        List<Arguments> layouts = new ArrayList<>();
+        for (char dateSeparator : new char[]{'-', '/', '.'}) {
+            layouts.add(Arguments.of(dateSeparator, (char) 0, 0, ""));
+            for (char timeSeparator : new char[]{'T', ' '}) {
+                for (int fractionDigits = 0; fractionDigits <= 9; fractionDigits++) {
+                    for (String offset : OFFSETS) {
+                        layouts.add(Arguments.of(dateSeparator, timeSeparator, fractionDigits, offset));
+                    }
+                }
+            }
+        }
+        return layouts.stream();
+    }
+
+    @ParameterizedTest(name = "{0} {1} {2} {3}")
+    @MethodSource("layouts")
+    public void parsesLayoutsLikeDateTimeUtils(char dateSeparator, char timeSeparator, int fractionDigits, String offset) {
+        for (String precision : PRECISIONS) {
+            for (ZoneId zone : ZONES) {
+                TimestampParser parser = new TimestampParser(zone, precision);
+                for (LocalDateTime time : TIMES) {
+                    String text = format(time, dateSeparator, timeSeparator, fractionDigits, offset);
+
+                    Object expected = result(() -> DateTimeUtils.convertDatetimeStrToLong(text, zone, precision));
+                    assertEquals(expected, result(() -> parser.parse(row(text), 0)), text + " " + precision + " " + zone);
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"yyyy-MM-dd", "yyyy/MM/ddTHH:mm:ss", "yyyy.MM.dd HH:mm:ss.SSS+HH:MM", "yyyy-MM-ddTHH:mm:ss.SSSSSSSSSZ"})
+    public void parsesCoveredLayoutsWithoutTheGenericParser(String layout) {
+        for (String precision : PRECISIONS) {
+            TimestampParser parser = new TimestampParser(ZoneId.of("Asia/Shanghai"), precision);
+            for (LocalDateTime time : TIMES) {
+                String text = layout
+                    .replace("yyyy", String.format("%04d", time.getYear()))
+                    .replace("MM", String.format("%02d", time.getMonthValue()))
+                    .replace("dd", String.format("%02d", time.getDayOfMonth()))
+                    .replace("HH:mm:ss", String.format("%02d:%02d:%02d", time.getHour(), time.getMinute(), time.getSecond()))
+                    .replace("SSSSSSSSS", String.format("%09d", time.getNano()))
+                    .replace("SSS", String.format("%03d", time.getNano() / 1_000_000))
+                    .replace("+HH:MM", "+05:45");
+                Object expected = result(() -> DateTimeUtils.convertDatetimeStrToLong(text, ZoneId.of("Asia/Shanghai"), precision));
+                if (expected instanceof Long) {
+                    assertEquals(expected, parser.parse(row(text), 0), text);
+                }
+            }
+            assertEquals(0, parser.getFallbacks(), layout + " " + precision);
+        }
+    }
+
+    @Test
+    public void parsesEpochNumbers() {
+        TimestampParser parser = new TimestampParser(ZoneId.of("UTC"), "ms");
+        for (String text : new String[]{"0", "-1", "1700000000000", "-62135596800000", "+5", "9223372036854775807"}) {
+            assertEquals(Long.parseLong(text), parser.parse(row(text), 0), text);
+        }
+        assertEquals("epoch", parser.getLayout());
+        assertEquals(0, parser.getFallbacks());
+    }
+
+    @Test
+    public void detectsTheLayoutAgainWhenItChanges() {
+        ZoneId zone = ZoneId.of("Asia/Shanghai");
+        TimestampParser parser = new TimestampParser(zone, "ms");
+        String[] texts = {"2024-01-01T00:00:00.123+08:00", "1700000000000", "2024/01/01 08:00:00", "2024.01.01",
+            "2024-01-01T00:00:00Z", "2024-01-01T00:00:00.5+08:00"};
+        for (String text : texts) {
+            Object expected = result(() -> DateTimeUtils.convertDatetimeStrToLong(text, zone, "ms"));
+            assertEquals(text.startsWith("17") ? Long.parseLong(text) : expected, parser.parse(row(text), 0), text);
+        }
+        assertEquals(0, parser.getFallbacks());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"2024-02-30", "2023-02-29", "2024-13-01", "2024-01-01T24:00:00", "2024-01-01T23:60:00",
+        "2024-01-01T23:59:60", "2024-01-01T00:00:00.", "2024-01-01T00:00:00.1234567890", "2024-01-01T00:00:00+19:00",
+        "2024-01-01T00:00:00+08:60", "2024-01-01T00:00:00+0800", "2024-01-01X00:00:00", "2024-01-01t00:00:00",
+        "2024-1-01", "24-01-01", "2024-01-01T00:00", "now", ""})
+    public void rejectsOrFallsBackLikeDateTimeUtils(String text) {
+        for (String precision : PRECISIONS) {
+            TimestampParser parser = new TimestampParser(ZoneId.of("UTC"), precision);
+            Object expected = result(() -> Long.parseLong(text));
+            if (!(expected instanceof Long)) {
+                expected = result(() -> DateTimeUtils.convertDatetimeStrToLong(text, ZoneId.of("UTC"), precision));
+            }
+            assertEquals(expected, result(() -> parser.parse(row(text), 0)), text + " " + precision);
+        }
+    }
+
+    private static String format(LocalDateTime time, char dateSeparator, char timeSeparator, int fractionDigits, String offset) {
+        StringBuilder text = new StringBuilder(String.format("%04d%c%02d%c%02d",
+            time.getYear(), dateSeparator, time.getMonthValue(), dateSeparator, time.getDayOfMonth()));
+        if (timeSeparator == 0) {
+            return text.toString();
+        }
+        text.append(timeSeparator).append(String.format("%02d:%02d:%02d", time.getHour(), time.getMinute(), time.getSecond()));
+        if (fractionDigits > 0) {
+            text.append('.').append(String.format("%09d", time.getNano()), 0, fractionDigits);
+        }
+        return text.append(offset).toString();
+    }
+
+    /**
+     * The value, or the failure since both parsers have to fail on the same text.
+     */
+    private static Object result(Supplier<Long> supplier) {
+        try {
+            return supplier.get();
+        } catch (RuntimeException e) {
+            return "failed";
+        }
+    }
+
+    private static CsvRow row(String text) {
+        return new CsvRow() {
+            @Override
+            public long getRecordNumber() {
+                return 1;
+            }
+
+            @Override
+            public long getCharacterPosition() {
+                return 0;
+            }
+
+            @Override
+            public int size() {
+                return 1;
+            }
+
+            @Override
+            public String get(int i) {
+                return text;
+            }
+        };
+    }
+}